@@ -1,4 +1,5 @@
 import org.jetbrains.changelog.Changelog
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
 
 buildscript {
     repositories {
@@ -48,11 +49,13 @@ intellijPlatform {
 dependencies {
     intellijPlatform{
         create("IC", "2023.2.8")
+        testFramework(TestFrameworkType.Platform)
     }
 // https://mvnrepository.com/artifact/org.jasypt/jasypt
     implementation("org.jasypt:jasypt:1.9.3")
     compileOnly("org.projectlombok:lombok:1.18.20")
     annotationProcessor("org.projectlombok:lombok:1.18.20")
+    testImplementation("junit:junit:4.13.2")
 }
 
 changelog {
@@ -75,6 +78,13 @@ tasks {
         kotlinOptions.jvmTarget = "17"
     }
 
+    test {
+        // 性能基准耗时且受机器负载影响，默认不在 test/check 中运行，需要时使用 ./gradlew test -Pperf --tests '*PerfHarnessTest'
+        if (!providers.gradleProperty("perf").isPresent) {
+            exclude("**/perf/**")
+        }
+    }
+
     signPlugin {
         certificateChain.set(System.getenv("CERTIFICATE_CHAIN"))
         privateKey.set(System.getenv("PRIVATE_KEY"))
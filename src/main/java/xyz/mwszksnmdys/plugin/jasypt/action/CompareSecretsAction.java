@@ -0,0 +1,98 @@
+package xyz.mwszksnmdys.plugin.jasypt.action;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.form.SecretDiffDialog;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+import xyz.mwszksnmdys.plugin.jasypt.util.SecretComparator;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 比较选中的多个配置文件中加密值的明文是否相同，例如 application-staging.yml 与 application-prod.yml 的数据库密码
+ */
+public class CompareSecretsAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && countConfigFiles(files) >= 2);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile[] selectedFiles = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (project == null || countConfigFiles(selectedFiles) < 2) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (VirtualFile file : selectedFiles) {
+            if (isConfigFile(file)) {
+                files.add(file.toNioPath());
+            }
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("diff.task.title"), true) {
+            private SecretComparator.Comparison comparison;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    // 一次比较中同一占位符密钥只解析一次
+                    comparison = SecretComparator.compare(files, new SecretSession(), indicator);
+                } catch (ProcessCanceledException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Config Processing")
+                            .createNotification(JasyptBundle.message("popup.task.background.errorMessage") + "\n" + ex.getMessage(), NotificationType.ERROR)
+                            .notify(project);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (comparison != null) {
+                    new SecretDiffDialog(project, comparison).show();
+                }
+            }
+        });
+    }
+
+    private static int countConfigFiles(VirtualFile[] files) {
+        int count = 0;
+        if (files != null) {
+            for (VirtualFile file : files) {
+                if (isConfigFile(file)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isConfigFile(VirtualFile file) {
+        return !file.isDirectory() && file.isInLocalFileSystem() && ConfigFormat.isSupported(file.getName());
+    }
+}
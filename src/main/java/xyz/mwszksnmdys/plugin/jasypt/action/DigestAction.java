@@ -0,0 +1,141 @@
+package xyz.mwszksnmdys.plugin.jasypt.action;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigFileCollector;
+import xyz.mwszksnmdys.plugin.jasypt.util.EncryptorFactory;
+import xyz.mwszksnmdys.plugin.jasypt.util.FileDigester;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * 计算选中文件或目录的摘要清单，并与上一次的清单比较
+ * 目录按 {@link ConfigFileCollector} 的规则遍历，清单保存在项目的 .idea/jasypt-digest.manifest 中
+ */
+public class DigestAction extends AnAction {
+
+    private static final String MANIFEST_FILENAME = "jasypt-digest.manifest";
+    private static final String DEFAULT_ALGORITHM = "SHA-256";
+    private static final int MAX_LISTED_ENTRIES = 20;
+
+    public DigestAction() {
+        Presentation presentation = getTemplatePresentation();
+        presentation.setText(JasyptBundle.message("digest.presentation.text"));
+        presentation.setDescription(JasyptBundle.message("digest.presentation.desc"));
+        presentation.setIcon(AllIcons.Actions.Diff);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && e.getProject().getBasePath() != null
+                && files != null && files.length > 0);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile[] selectedFiles = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (project == null || project.getBasePath() == null || selectedFiles == null || selectedFiles.length == 0) {
+            return;
+        }
+
+        String[] algorithms = EncryptorFactory.getSupportedDigestAlgorithms().toArray(new String[0]);
+        int choice = Messages.showChooseDialog(project,
+                JasyptBundle.message("digest.algorithm.message"),
+                JasyptBundle.message("digest.presentation.text"),
+                Messages.getQuestionIcon(), algorithms, DEFAULT_ALGORITHM);
+        if (choice < 0) {
+            return;
+        }
+        String algorithm = algorithms[choice];
+
+        Path baseDir = Path.of(project.getBasePath());
+        Path manifestFile = baseDir.resolve(".idea").resolve(MANIFEST_FILENAME);
+        List<Path> roots = new ArrayList<>();
+        for (VirtualFile file : selectedFiles) {
+            roots.add(file.toNioPath());
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("digest.task.title"), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                try {
+                    // 跳过 .git、构建输出和被排除的目录，清单文件本身总是排除
+                    List<Path> files = ConfigFileCollector.collectAll(project, selectedFiles, indicator);
+                    files.remove(manifestFile);
+                    SortedMap<String, String> current = EncryptorFactory.createFileDigestManifest(files, baseDir, algorithm, indicator);
+                    List<String> scope = roots.stream()
+                            .map(root -> FileDigester.toManifestKey(root, baseDir))
+                            .collect(Collectors.toList());
+                    SortedMap<String, String> previous = FileDigester.readManifest(manifestFile, algorithm);
+                    FileDigester.ManifestDiff diff = FileDigester.compare(previous, current, scope);
+                    FileDigester.writeManifest(manifestFile, algorithm, FileDigester.merge(previous, current, scope));
+
+                    String message = previous.isEmpty()
+                            ? JasyptBundle.message("digest.result.first", current.size(), StringUtil.escapeXmlEntities(manifestFile.toString()))
+                            : describe(current.size(), diff);
+                    notify(project, message, diff.isEmpty() ? NotificationType.INFORMATION : NotificationType.WARNING);
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    notify(project, JasyptBundle.message("popup.task.background.errorMessage") + "\n" + e.getMessage(), NotificationType.ERROR);
+                }
+            }
+        });
+    }
+
+    private static String describe(int hashed, FileDigester.ManifestDiff diff) {
+        if (diff.isEmpty()) {
+            return JasyptBundle.message("digest.result.unchanged", hashed);
+        }
+        StringBuilder message = new StringBuilder(JasyptBundle.message("digest.result.summary",
+                hashed, diff.getChanged().size(), diff.getAdded().size(), diff.getRemoved().size()));
+        appendEntries(message, "digest.result.changed", diff.getChanged());
+        appendEntries(message, "digest.result.added", diff.getAdded());
+        appendEntries(message, "digest.result.removed", diff.getRemoved());
+        return message.toString();
+    }
+
+    private static void appendEntries(StringBuilder message, String titleKey, Collection<String> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        message.append("<br/><b>").append(JasyptBundle.message(titleKey)).append("</b>");
+        entries.stream().limit(MAX_LISTED_ENTRIES).forEach(entry -> message.append("<br/>").append(StringUtil.escapeXmlEntities(entry)));
+        if (entries.size() > MAX_LISTED_ENTRIES) {
+            message.append("<br/>...");
+        }
+    }
+
+    private static void notify(@Nullable Project project, String message, NotificationType type) {
+        NotificationGroupManager.getInstance()
+                .getNotificationGroup("Config Processing")
+                .createNotification(message, type)
+                .notify(project);
+    }
+}
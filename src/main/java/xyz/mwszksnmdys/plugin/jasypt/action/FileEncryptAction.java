@@ -0,0 +1,159 @@
+package xyz.mwszksnmdys.plugin.jasypt.action;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.EncryptorFactory;
+import xyz.mwszksnmdys.plugin.jasypt.util.FileCryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.FileUtil;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 二进制文件（keystore、证书、license 等）加密/解密的Action类
+ * 已加密的文件（带有文件头）会被解密，其余文件被加密为同目录下的 .enc 文件
+ */
+public class FileEncryptAction extends AnAction {
+
+    public FileEncryptAction() {
+        Presentation presentation = getTemplatePresentation();
+        presentation.setText(JasyptBundle.message("file.crypt.presentation.text"));
+        presentation.setDescription(JasyptBundle.message("file.crypt.presentation.desc"));
+        presentation.setIcon(AllIcons.Diff.Lock);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        boolean enabled = e.getProject() != null && files != null && files.length > 0
+                && Arrays.stream(files).noneMatch(VirtualFile::isDirectory);
+        e.getPresentation().setEnabledAndVisible(enabled);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile[] selectedFiles = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (project == null || selectedFiles == null || selectedFiles.length == 0) {
+            return;
+        }
+
+        String password = Messages.showPasswordDialog(project,
+                JasyptBundle.message("file.crypt.password.message"),
+                JasyptBundle.message("file.crypt.password.title"),
+                Messages.getQuestionIcon());
+        if (password == null) {
+            return;
+        }
+        // 加密时输错的密码无法再解密，要求再输入一次
+        boolean encrypting = Arrays.stream(selectedFiles).anyMatch(file -> !FileCryptor.isEncryptedFile(file.toNioPath()));
+        if (encrypting) {
+            String confirmed = Messages.showPasswordDialog(project,
+                    JasyptBundle.message("file.crypt.password.confirm"),
+                    JasyptBundle.message("file.crypt.password.title"),
+                    Messages.getQuestionIcon());
+            if (confirmed == null) {
+                return;
+            }
+            if (!confirmed.equals(password)) {
+                Messages.showErrorDialog(project, JasyptBundle.message("file.crypt.password.mismatch"), JasyptBundle.message("file.crypt.password.title"));
+                return;
+            }
+        }
+
+        FileCryptor cryptor;
+        try {
+            cryptor = EncryptorFactory.createFileEncryptor(password, null);
+        } catch (IllegalArgumentException ex) {
+            Messages.showErrorDialog(project, ex.getMessage(), JasyptBundle.message("file.crypt.password.title"));
+            return;
+        }
+        processFiles(project, cryptor, selectedFiles);
+    }
+
+    /**
+     * 在后台任务中逐个加密或解密文件
+     * 目标文件已存在时先确认是否覆盖，目标文件有未保存的修改时不处理
+     * @param project 当前项目
+     * @param cryptor 文件加密器
+     * @param selectedFiles 选中的文件
+     */
+    public static void processFiles(@NotNull Project project, @NotNull FileCryptor cryptor, @NotNull VirtualFile[] selectedFiles) {
+        List<Path> existing = new ArrayList<>();
+        for (VirtualFile file : selectedFiles) {
+            Path target = FileCryptor.targetOf(file.toNioPath());
+            if (!Files.exists(target)) {
+                continue;
+            }
+            VirtualFile targetFile = LocalFileSystem.getInstance().findFileByNioFile(target);
+            if (targetFile != null && FileDocumentManager.getInstance().isFileModified(targetFile)) {
+                Messages.showErrorDialog(project, JasyptBundle.message("file.crypt.target.unsaved", target.getFileName()),
+                        JasyptBundle.message("file.crypt.password.title"));
+                return;
+            }
+            existing.add(target);
+        }
+        boolean overwrite = !existing.isEmpty();
+        if (overwrite) {
+            String names = existing.stream().map(Path::toString).collect(Collectors.joining("\n"));
+            int answer = Messages.showOkCancelDialog(project,
+                    JasyptBundle.message("file.crypt.target.overwrite", names),
+                    JasyptBundle.message("file.crypt.password.title"),
+                    JasyptBundle.message("file.crypt.target.overwrite.ok"),
+                    Messages.getCancelButton(),
+                    Messages.getWarningIcon());
+            if (answer != Messages.OK) {
+                return;
+            }
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("file.crypt.task.title"), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                List<Path> written = new ArrayList<>();
+                try {
+                    for (VirtualFile file : selectedFiles) {
+                        indicator.setText(JasyptBundle.message("popup.task.background.indicator.text", file.getName()));
+                        written.add(cryptor.process(file.toNioPath(), overwrite, indicator));
+                    }
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Config Processing")
+                            .createNotification(JasyptBundle.message("file.crypt.success", written.size()), NotificationType.INFORMATION)
+                            .notify(project);
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Config Processing")
+                            .createNotification(JasyptBundle.message("popup.task.background.errorMessage") + "\n" + e.getMessage(), NotificationType.ERROR)
+                            .notify(project);
+                } finally {
+                    FileUtil.refreshFiles(written);
+                }
+            }
+        });
+    }
+}
@@ -3,20 +3,24 @@ package xyz.mwszksnmdys.plugin.jasypt.action;
 import com.intellij.codeInsight.intention.IntentionAction;
 import com.intellij.codeInsight.intention.PsiElementBaseIntentionAction;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.RangeMarker;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
 import com.intellij.util.IncorrectOperationException;
 import org.jetbrains.annotations.NotNull;
 import xyz.mwszksnmdys.plugin.jasypt.form.JasyptDialogWrapper;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
-import xyz.mwszksnmdys.plugin.jasypt.util.JasyptEncryptor;
-import xyz.mwszksnmdys.plugin.jasypt.util.PropertiesProcessor;
-import xyz.mwszksnmdys.plugin.jasypt.util.YmlProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver.IntentionConfig;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Jasypt 加密 IDEA 插件
@@ -39,59 +43,59 @@ public class JasyptIntentionAction extends PsiElementBaseIntentionAction impleme
 
     @Override
     public boolean isAvailable(@NotNull Project project, Editor editor, @NotNull PsiElement element) {
-        return editor.getSelectionModel().hasSelection();
+        for (Caret caret : editor.getCaretModel().getAllCarets()) {
+            if (caret.hasSelection()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void invoke(@NotNull Project project, Editor editor, @NotNull PsiElement element) throws IncorrectOperationException {
-
-        // 获取当前文件
-        PsiFile psiFile = element.getContainingFile();
-        VirtualFile virtualFile = psiFile.getVirtualFile();
-        String extension = virtualFile.getExtension();
-        String password = null;
-        String algorithm = null;
-        if (isConfigFile(extension)) {
-            Map<String, Object> jasyptConfig;
-            if ("yml".equalsIgnoreCase(extension) || "yaml".equalsIgnoreCase(extension)) {
-                jasyptConfig = YmlProcessor.getJasyptConfig(virtualFile.toNioPath());
-            }else{
-                jasyptConfig = PropertiesProcessor.getJasyptConfig(virtualFile.toNioPath());
-            }
-            Map<String, Object> encryptorConfigMap = (Map<String, Object>) jasyptConfig.get("encryptor");
-            if (encryptorConfigMap != null) {
-                password = (String) encryptorConfigMap.get("password");
-                if(password != null){
-                   password = JasyptEncryptor.parsePasswordFromEnvironment(password);
-                }
-                algorithm = (String) encryptorConfigMap.get("algorithm");
+        // 收集所有光标的选区，用 RangeMarker 跟踪，对话框打开期间文档变化也能定位
+        Document document = editor.getDocument();
+        List<RangeMarker> markers = new ArrayList<>();
+        List<String> selectedTexts = new ArrayList<>();
+        for (Caret caret : editor.getCaretModel().getAllCarets()) {
+            if (caret.hasSelection()) {
+                markers.add(document.createRangeMarker(caret.getSelectionStart(), caret.getSelectionEnd()));
+                selectedTexts.add(caret.getSelectedText());
             }
         }
+        if (selectedTexts.isEmpty()) {
+            return;
+        }
 
-        String selectedText = editor.getSelectionModel().getSelectedText();
-        if (selectedText != null) {
-            // 推断默认操作类型 如果文本看起来是加密的（ENC()包裹），则默认为解密
-            boolean isEncryptedText = selectedText.startsWith("ENC(") && selectedText.endsWith(")");
+        // 配置在后台解析，对话框立即打开，先用该文件上一次的结果预填，解析完成后再更新
+        VirtualFile virtualFile = element.getContainingFile().getVirtualFile();
+        IntentionConfig cachedConfig = virtualFile == null ? null : IntentionConfigResolver.getCached(virtualFile);
+        CompletableFuture<IntentionConfig> resolution = virtualFile == null
+                ? CompletableFuture.completedFuture(IntentionConfig.EMPTY) : IntentionConfigResolver.resolveAsync(virtualFile);
+        IntentionConfig initialConfig = cachedConfig != null ? cachedConfig : resolution.getNow(null);
 
-            final String finalPassword = password;
-            final String finalAlgorithm = algorithm;
-            // 在写操作外部显示对话框
-            ApplicationManager.getApplication().invokeLater(() -> {
-                JasyptDialogWrapper dialog = new JasyptDialogWrapper(project, selectedText, !isEncryptedText, finalPassword, finalAlgorithm);
-                if (dialog.showAndGet()) {
-                    // 使用新的方法直接应用到文档
-                    int startOffset = editor.getSelectionModel().getSelectionStart();
-                    int endOffset = editor.getSelectionModel().getSelectionEnd();
-                    dialog.applyToDocument(editor.getDocument(), startOffset, endOffset);
-                }
-            });
-        }
-    }
+        // 推断默认操作类型 如果所有文本看起来都是加密的（ENC()包裹），则默认为解密
+        boolean isEncryptedText = selectedTexts.stream().allMatch(text -> text.startsWith("ENC(") && text.endsWith(")"));
 
-    private boolean isConfigFile(String extension) {
-        return "yml".equalsIgnoreCase(extension) ||
-                "yaml".equalsIgnoreCase(extension) ||
-                "properties".equalsIgnoreCase(extension);
+        // 在写操作外部显示对话框，所有选区共用一个对话框和加密器，并在一次写命令中替换
+        ApplicationManager.getApplication().invokeLater(() -> {
+            try {
+                JasyptDialogWrapper dialog = initialConfig == null
+                        ? new JasyptDialogWrapper(project, selectedTexts, !isEncryptedText, null, null, null)
+                        : new JasyptDialogWrapper(project, selectedTexts, !isEncryptedText, initialConfig.getPassword(),
+                        initialConfig.getAlgorithm(), initialConfig.getConfigFileEncryptor());
+                dialog.watchConfig(initialConfig, resolution);
+                if (dialog.showAndGet() && markers.stream().allMatch(RangeMarker::isValid)) {
+                    List<TextRange> ranges = new ArrayList<>(markers.size());
+                    for (RangeMarker marker : markers) {
+                        ranges.add(marker.getTextRange());
+                    }
+                    dialog.applyToDocument(document, ranges);
+                }
+            } finally {
+                markers.forEach(RangeMarker::dispose);
+            }
+        });
     }
 
     @Override
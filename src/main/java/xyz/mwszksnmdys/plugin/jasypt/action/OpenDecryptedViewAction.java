@@ -0,0 +1,42 @@
+package xyz.mwszksnmdys.plugin.jasypt.action;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.util.DecryptedViewService;
+
+/**
+ * 在只读的内存视图中打开配置文件，ENC() 值显示为解密后的 DEC()，不修改源文件
+ */
+public class OpenDecryptedViewAction extends DumbAwareAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && isConfigFile(e.getData(CommonDataKeys.VIRTUAL_FILE)));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (project != null && isConfigFile(file)) {
+            DecryptedViewService.getInstance(project).open(file);
+        }
+    }
+
+    private static boolean isConfigFile(VirtualFile file) {
+        return file != null && !file.isDirectory() && !(file instanceof LightVirtualFile)
+                && file.isInLocalFileSystem() && ConfigFormat.isSupported(file.getName());
+    }
+}
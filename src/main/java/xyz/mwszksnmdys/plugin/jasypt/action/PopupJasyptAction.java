@@ -4,7 +4,7 @@ import com.intellij.icons.AllIcons;
 import com.intellij.notification.NotificationGroupManager;
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.*;
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
@@ -12,8 +12,9 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
-import xyz.mwszksnmdys.plugin.jasypt.util.YmlProcessor;
-import xyz.mwszksnmdys.plugin.jasypt.util.PropertiesProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.BatchNotifications;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigBatchProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.EncMarkerCache;
 
 import javax.swing.*;
 import java.util.Arrays;
@@ -54,7 +55,8 @@ public class PopupJasyptAction extends AnAction {
 
     @Override
     public void update(@NotNull AnActionEvent e) {
-        // 只有当选中的是YAML/Properties文件或目录时才启用此Action
+        // 只有选中的文件或目录中有 ENC()/DEC() 标记时才显示，标记由 VFS 事件增量维护的缓存提供，
+        // 每个节点只需一次哈希查找，且找到第一个有标记的节点即停止
         Project project = e.getProject();
         if (project == null) {
             e.getPresentation().setEnabledAndVisible(false);
@@ -62,32 +64,16 @@ public class PopupJasyptAction extends AnAction {
         }
 
         VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
-        boolean enabled = false;
-
-        if (files != null && files.length > 0) {
-            enabled = Arrays.stream(files).allMatch(file ->
-                    file.isDirectory() ||
-                            isSupportedFile(file)
-            );
-        }
+        EncMarkerCache cache = EncMarkerCache.getInstance();
+        boolean enabled = files != null && Arrays.stream(files).anyMatch(cache::mayHaveWork);
 
         e.getPresentation().setEnabledAndVisible(enabled);
     }
 
-    /**
-     * 检查文件是否为支持的类型
-     * @param file 文件对象
-     * @return 是否支持
-     */
-    private boolean isSupportedFile(VirtualFile file) {
-        String extension = file.getExtension();
-        return "yml".equalsIgnoreCase(extension) ||
-                "yaml".equalsIgnoreCase(extension) ||
-                "properties".equalsIgnoreCase(extension);
-    }
-
     /**
      * 处理选中的文件
+     * 先预统计文件和 ENC() 值数量，再按值汇报进度与剩余时间，取消在值之间生效；
+     * 单个文件失败不中断批次，结束后以一条通知汇总结果
      * @param project 当前项目
      * @param selectedFiles 选中的文件数组
      */
@@ -95,62 +81,18 @@ public class PopupJasyptAction extends AnAction {
         ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("popup.task.background.title"), true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
-                indicator.setIndeterminate(false);
-                int totalFiles = selectedFiles.length;
-
-                for (int i = 0; i < totalFiles; i++) {
-                    VirtualFile file = selectedFiles[i];
-                    indicator.setText(JasyptBundle.message("popup.task.background.indicator.text",file.getName()));
-                    indicator.setFraction((double) i / totalFiles);
-
-                    try {
-                        if (file.isDirectory()) {
-                            // 处理目录
-                            processDirectory(file);
-                        } else {
-                            // 根据文件类型处理单个文件
-                            processFile(file);
-                        }
-
-                        // 在EDT中刷新文件
-                        ApplicationManager.getApplication().invokeLater(() -> {
-                            file.refresh(false, false);
-                        });
-                    } catch (Exception e) {
-                        String errorMessage = JasyptBundle.message("popup.task.background.errorMessage") + file.getName() + "\n" + e.getMessage();
-                        NotificationGroupManager.getInstance()
-                                .getNotificationGroup("Config Processing")
-                                .createNotification(errorMessage, NotificationType.ERROR)
-                                .notify(project);
-                        throw new RuntimeException(errorMessage, e);
-                    }
+                try {
+                    BatchNotifications.notify(project, ConfigBatchProcessor.process(project, indicator, selectedFiles));
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Config Processing")
+                            .createNotification(e.getMessage(), NotificationType.ERROR)
+                            .notify(project);
+                    throw e;
                 }
             }
         });
     }
-
-    /**
-     * 处理目录中的所有支持的文件
-     * @param directory 目录文件对象
-     * @throws Exception 处理异常
-     */
-    private void processDirectory(VirtualFile directory) throws Exception {
-        YmlProcessor.processYmlFileOrDirectory(directory.toNioPath());
-         PropertiesProcessor.processPropertiesDirectory(directory.toNioPath());
-        JOptionPane.showMessageDialog(null, JasyptBundle.message("popup.task.process.directory.success"), "Success", JOptionPane.INFORMATION_MESSAGE);
-    }
-
-    /**
-     * 根据文件类型处理单个文件
-     * @param file 文件对象
-     */
-    private void processFile(VirtualFile file) {
-        String extension = file.getExtension();
-        if ("yml".equalsIgnoreCase(extension) || "yaml".equalsIgnoreCase(extension)) {
-            YmlProcessor.processYmlFileOrDirectory(file.toNioPath());
-        } else if ("properties".equalsIgnoreCase(extension)) {
-            // 使用属性文件处理器
-            PropertiesProcessor.processPropertiesFile(file.toNioPath());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package xyz.mwszksnmdys.plugin.jasypt.form;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.IterationCalibrator;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptExecutors;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * 展示迭代次数校准结果，确定时返回选中的推荐设置
+ */
+public class CalibrationDialog extends DialogWrapper {
+    private final List<IterationCalibrator.Recommendation> recommendations;
+    private final double targetMillis;
+    private final int projectValues;
+    private JBTable table;
+
+    public CalibrationDialog(@Nullable Project project, List<IterationCalibrator.Recommendation> recommendations,
+                             double targetMillis, int projectValues) {
+        super(project);
+        this.recommendations = recommendations;
+        this.targetMillis = targetMillis;
+        this.projectValues = projectValues;
+        setTitle(JasyptBundle.message("calibration.dialog.title"));
+        setOKButtonText(JasyptBundle.message("calibration.dialog.apply"));
+        init();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        DefaultTableModel model = new DefaultTableModel(new Object[]{
+                JasyptBundle.message("calibration.column.algorithm"),
+                JasyptBundle.message("calibration.column.iterations"),
+                JasyptBundle.message("calibration.column.latency"),
+                JasyptBundle.message("calibration.column.throughput"),
+                JasyptBundle.message("calibration.column.batch")}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        int selected = -1;
+        for (int i = 0; i < recommendations.size(); i++) {
+            IterationCalibrator.Recommendation recommendation = recommendations.get(i);
+            model.addRow(new Object[]{
+                    recommendation.getAlgorithm(),
+                    recommendation.getIterations(),
+                    String.format("%.2f%s", recommendation.getLatencyMillis(), recommendation.isMeetsTarget() ? "" : " ✘"),
+                    recommendation.getValuesPerSecond(),
+                    StringUtil.formatDuration(IterationCalibrator.estimateBatchMillis(projectValues, recommendation.getLatencyMillis()))});
+            // 默认选中满足目标的算法中排在最后的一个，即列表中最强的算法
+            if (recommendation.isMeetsTarget()) {
+                selected = i;
+            }
+        }
+        table = new JBTable(model);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        if (selected >= 0) {
+            table.getSelectionModel().setSelectionInterval(selected, selected);
+        }
+
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.add(new JBLabel(JasyptBundle.message("calibration.dialog.summary",
+                String.format("%.1f", targetMillis), JasyptExecutors.PARALLELISM, projectValues)), BorderLayout.NORTH);
+        panel.add(new JBScrollPane(table), BorderLayout.CENTER);
+        panel.setPreferredSize(new Dimension(720, 360));
+        return panel;
+    }
+
+    /**
+     * @return 选中的推荐设置，未选中时返回 null
+     */
+    public @Nullable IterationCalibrator.Recommendation getSelectedRecommendation() {
+        int row = table == null ? -1 : table.getSelectedRow();
+        return row < 0 ? null : recommendations.get(table.convertRowIndexToModel(row));
+    }
+}
@@ -1,17 +1,39 @@
 package xyz.mwszksnmdys.plugin.jasypt.form;
 
 import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.ui.DocumentAdapter;
 import lombok.Getter;
-import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.DecryptionCache;
 import xyz.mwszksnmdys.plugin.jasypt.util.EncryptorFactory;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver.IntentionConfig;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptExecutors;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptEncryptor;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import java.awt.event.ItemEvent;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.Map;
 
 public class JasyptDialogForm {
     @Getter
@@ -30,10 +52,21 @@ public class JasyptDialogForm {
     private JLabel originalTextLabel;
     private JLabel previewLabel;
 
-    private final String originalText;
-    private String processedText;
+    /** 每个光标选中的文本，单选时只有一个 */
+    private final List<String> originalTexts;
+    private List<String> processedTexts;
     private boolean isEncryption;
     private final Project project;
+    /** 非 PBE 模式（AES-GCM、RSA）的配置文件 jasypt 配置，此时直接按配置创建加密器 */
+    private Map<String, Object> jasyptConfig;
+    /** 尚在后台解析的配置文件配置，完成后填入密码和算法 */
+    private CompletableFuture<IntentionConfig> pendingConfig;
+    /** 已填入的配置，相同的结果不再重复填入 */
+    private IntentionConfig appliedConfig;
+    /** 用户是否已修改密码或算法，修改后解析结果不再覆盖输入 */
+    private boolean credentialsEdited;
+    /** 正在以程序方式填入密码和算法，此时的修改不算用户修改 */
+    private boolean filling;
 
     // 持久化存储的键名
     private static final String KEY_REMEMBER_PASSWORD = "xyz.mwszksnmdys.plugin.jasypt.rememberPassword";
@@ -43,10 +76,34 @@ public class JasyptDialogForm {
     // 默认算法
     private static final String DEFAULT_ALGORITHM = "PBEWithMD5AndDES";
 
+    /** 已创建的加密器及其对应的密码和算法，多次预览时复用 */
+    private StringEncryptor cachedEncryptor;
+    private String cachedEncryptorKey;
+    /** 当前加密器的指纹，解密结果按它缓存在 {@link DecryptionCache} 中 */
+    private String cachedFingerprint;
+
     public JasyptDialogForm(String text, boolean defaultIsEncryption, Project project, String password, String algorithm) {
-        this.originalText = text;
+        this(text, defaultIsEncryption, project, password, algorithm, null);
+    }
+
+    /**
+     * @param jasyptConfig 配置文件中的非 PBE 加密配置，不为空时密码和算法由配置决定，输入框不可编辑
+     */
+    public JasyptDialogForm(String text, boolean defaultIsEncryption, Project project, String password, String algorithm,
+                            Map<String, Object> jasyptConfig) {
+        this(List.of(text), defaultIsEncryption, project, password, algorithm, jasyptConfig);
+    }
+
+    /**
+     * @param texts 每个光标选中的文本，多于一个时原文只读，逐行显示
+     * @param jasyptConfig 配置文件中的非 PBE 加密配置，不为空时密码和算法由配置决定，输入框不可编辑
+     */
+    public JasyptDialogForm(List<String> texts, boolean defaultIsEncryption, Project project, String password, String algorithm,
+                            Map<String, Object> jasyptConfig) {
+        this.originalTexts = texts;
         this.isEncryption = defaultIsEncryption;
         this.project = project;
+        this.jasyptConfig = jasyptConfig;
 
         // 初始化UI文本
         initializeUITexts();
@@ -57,18 +114,32 @@ public class JasyptDialogForm {
         // 设置默认操作类型
         operationTypeComboBox.setSelectedIndex(defaultIsEncryption ? 0 : 1);
 
-        // 设置原始文本
-        originalTextArea.setText(originalText);
+        // 设置原始文本，多选时无法把修改对应回各个选区，因此只读
+        originalTextArea.setText(String.join("\n", originalTexts));
+        originalTextArea.setEditable(originalTexts.size() == 1);
 
         // 根据操作类型调整UI
         updateUIForOperationType();
 
-        // 从持久化存储恢复设置并处理潜在的冲突
-        handleCredentialConflicts(password, algorithm);
+        if (jasyptConfig != null) {
+            // 使用配置文件中的非 PBE 加密配置
+            applyConfigFileMode();
+        } else {
+            // 从持久化存储恢复设置并处理潜在的冲突
+            handleCredentialConflicts(password, algorithm);
+        }
 
         // 为预览按钮添加事件监听器
         previewButton.addActionListener(e -> updatePreview());
 
+        secretKeyField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                credentialsEdited |= !filling;
+            }
+        });
+        algorithmComboBox.addItemListener(e -> credentialsEdited |= !filling);
+
         // 为操作类型下拉框添加事件监听器
         operationTypeComboBox.addItemListener(e -> {
             if (e.getStateChange() == ItemEvent.SELECTED) {
@@ -76,7 +147,7 @@ public class JasyptDialogForm {
                 updateUIForOperationType();
                 // 清空预览
                 previewTextArea.setText("");
-                processedText = null;
+                processedTexts = null;
             }
         });
     }
@@ -168,6 +239,83 @@ public class JasyptDialogForm {
     }
 
 
+    /**
+     * 在配置文件的配置解析完成后填入密码和算法，对话框可以在解析完成前打开
+     * @param initial 打开对话框时已填入的配置（上一次的解析结果），可为空
+     * @param resolution 正在进行的解析
+     */
+    public void watchConfig(IntentionConfig initial, @NotNull CompletableFuture<IntentionConfig> resolution) {
+        this.appliedConfig = initial;
+        this.pendingConfig = resolution;
+        // 对话框是模态的，使用 any 才能在对话框显示期间更新界面
+        resolution.thenAccept(config -> ApplicationManager.getApplication().invokeLater(() -> applyConfig(config), ModalityState.any()));
+    }
+
+    /**
+     * 填入解析得到的配置；用户已修改的密码和算法保持不变，模式变化（PBE 与非 PBE 之间）总会生效
+     */
+    private void applyConfig(IntentionConfig config) {
+        if (config == null || config.equals(appliedConfig)) {
+            return;
+        }
+        appliedConfig = config;
+        filling = true;
+        try {
+            if (config.getConfigFileEncryptor() != null) {
+                jasyptConfig = config.getConfigFileEncryptor();
+                applyConfigFileMode();
+            } else {
+                if (jasyptConfig != null) {
+                    jasyptConfig = null;
+                    applyPbeMode();
+                    credentialsEdited = false;
+                }
+                if (!credentialsEdited) {
+                    handleCredentialConflicts(config.getPassword(), config.getAlgorithm());
+                }
+            }
+        } finally {
+            filling = false;
+        }
+        // 凭据可能已变化，之前的预览作废
+        cachedEncryptor = null;
+        processedTexts = null;
+        previewTextArea.setText("");
+    }
+
+    /**
+     * 用户在解析完成前就要加解密时，在模态进度中等待解析结果；取消则使用当前输入
+     */
+    private void awaitPendingConfig() {
+        if (pendingConfig != null && !pendingConfig.isDone()) {
+            applyConfig(IntentionConfigResolver.await(project, pendingConfig));
+        }
+    }
+
+    /**
+     * 从非 PBE 模式切换回 PBE 模式，恢复密码和算法输入
+     */
+    private void applyPbeMode() {
+        initAlgorithmComboBox();
+        algorithmComboBox.setEnabled(true);
+        secretKeyField.setEnabled(true);
+        rememberPasswordCheckBox.setEnabled(true);
+    }
+
+    /**
+     * 配置文件使用非 PBE 加密（AES-GCM、RSA）时，密钥来自配置文件，禁用密码和算法输入
+     */
+    private void applyConfigFileMode() {
+        JasyptEncryptor.Mode mode = JasyptEncryptor.getMode(jasyptConfig);
+        algorithmComboBox.removeAllItems();
+        algorithmComboBox.addItem(JasyptBundle.message("dialog.algorithm.fromConfig", mode.getDisplayName()));
+        algorithmComboBox.setEnabled(false);
+        secretKeyField.setText("");
+        secretKeyField.setEnabled(false);
+        rememberPasswordCheckBox.setSelected(false);
+        rememberPasswordCheckBox.setEnabled(false);
+    }
+
     /**
      * 在算法下拉框中选择指定的算法
      */
@@ -257,61 +405,123 @@ public class JasyptDialogForm {
         encSurroundCheckBox.setEnabled(isEncryption);
 
         // 如果是解密操作，检查文本是否有ENC包装并自动处理
-        if (!isEncryption && originalText.startsWith("ENC(") && originalText.endsWith(")")) {
-            originalTextArea.setText(originalText);
+        if (!isEncryption && originalTexts.stream().anyMatch(JasyptDialogForm::isEncWrapped)) {
+            originalTextArea.setText(String.join("\n", originalTexts));
             // 添加一个标注，指示将自动移除ENC()包装
             originalTextArea.setToolTipText(JasyptBundle.message("tooltip.autoRemoveEnc"));
         }
     }
 
     private void updatePreview() {
+        awaitPendingConfig();
         String secretKey = secretKeyField.getText();
         String algorithm = (String) algorithmComboBox.getSelectedItem();
-        String textToProcess = originalTextArea.getText();
+        // 多个选区时原文只读，按选区分别处理
+        List<String> texts = originalTextArea.isEditable() ? List.of(originalTextArea.getText()) : originalTexts;
 
         try {
-            // 如果是解密并且文本有ENC()包装，移除它
-            if (!isEncryption && textToProcess.startsWith("ENC(") && textToProcess.endsWith(")")) {
-                textToProcess = textToProcess.substring(4, textToProcess.length() - 1);
+            // 派生密钥和加解密可能较慢，在可取消的模态进度中执行，不阻塞 EDT
+            processedTexts = ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> {
+                StringEncryptor encryptor = getEncryptor(secretKey, algorithm);
+                if (encryptor == null) {
+                    throw new IllegalStateException(JasyptBundle.message("error.encryptorNotFound"));
+                }
+                return process(encryptor, texts, ProgressManager.getInstance().getProgressIndicator());
+            }, JasyptBundle.message(isEncryption ? "dialog.progress.encrypt" : "dialog.progress.decrypt"), true, project);
+            List<String> displayTexts = new ArrayList<>(processedTexts.size());
+            for (String processed : processedTexts) {
+                displayTexts.add(wrap(processed));
             }
+            previewTextArea.setText(String.join("\n", displayTexts));
+        } catch (ProcessCanceledException e) {
+            previewTextArea.setText(JasyptBundle.message("dialog.progress.canceled"));
+            processedTexts = null;
+        } catch (Exception e) {
+            previewTextArea.setText(JasyptBundle.message("error.process", e.getMessage()));
+            processedTexts = null;
+        }
 
-            // 使用工厂类创建加密器
-            PooledPBEStringEncryptor encryptor = EncryptorFactory.createPBEEncryptor(
-                    secretKey, algorithm, null, null, null);
+        // 不管加解密结果如何均保存用户设置，配置文件模式下没有可保存的密码和算法
+        if (jasyptConfig == null) {
+            saveSettings(secretKey, algorithm, rememberPasswordCheckBox.isSelected());
+        }
+    }
 
-            if (encryptor == null) {
-                previewTextArea.setText(JasyptBundle.message("error.encryptorNotFound"));
-                throw new RuntimeException("get Encryptor failed");
-            }
+    /**
+     * 获取加密器，密码和算法未变化时复用上一次创建的实例
+     * 配置文件指定了非 PBE 加密时按配置创建，否则使用工厂类创建 PBE 加密器，每个线程一个实例
+     */
+    private StringEncryptor getEncryptor(String secretKey, String algorithm) {
+        String key = jasyptConfig != null ? "config" : algorithm + "\n" + secretKey;
+        if (cachedEncryptor == null || !key.equals(cachedEncryptorKey)) {
+            cachedEncryptor = jasyptConfig != null
+                    ? JasyptEncryptor.getEncryptor(jasyptConfig)
+                    : EncryptorFactory.createPBEEncryptor(secretKey, algorithm, null, JasyptExecutors.PARALLELISM, null);
+            cachedEncryptorKey = key;
+            cachedFingerprint = jasyptConfig != null ? JasyptEncryptor.fingerprint(cachedEncryptor) : DecryptionCache.fingerprint(algorithm, secretKey);
+        }
+        return cachedEncryptor;
+    }
 
-            if (isEncryption) {
-                processedText = encryptor.encrypt(textToProcess);
-                final String displayText = encSurroundCheckBox.isSelected() ?
-                        "ENC(" + processedText + ")" : processedText;
-                previewTextArea.setText(displayText);
-            } else {
-                processedText = encryptor.decrypt(textToProcess);
-                previewTextArea.setText(processedText);
+    /**
+     * 加密或解密所有文本，多于一个时在共享线程池中并行处理，结果与输入顺序一致
+     */
+    private List<String> process(StringEncryptor encryptor, List<String> texts, @Nullable ProgressIndicator indicator) throws IOException {
+        String[] results = new String[texts.size()];
+        if (texts.size() == 1) {
+            results[0] = processText(encryptor, texts.get(0));
+        } else {
+            List<Future<?>> futures = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                int index = i;
+                futures.add(JasyptExecutors.getExecutor().submit(() -> {
+                    results[index] = processText(encryptor, texts.get(index));
+                    return null;
+                }));
             }
-        } catch (Exception e) {
-            previewTextArea.setText(JasyptBundle.message("error.process", e.getMessage()));
-            processedText = null;
+            JasyptExecutors.awaitAll(futures, indicator);
+        }
+        return Arrays.asList(results);
+    }
+
+    private String processText(StringEncryptor encryptor, String text) {
+        if (isEncryption) {
+            return JasyptEncryptor.encrypt(encryptor, text);
         }
+        // 如果是解密并且文本有ENC()包装，移除它
+        String ciphertext = isEncWrapped(text) ? text.substring(4, text.length() - 1) : text;
+        return DecryptionCache.getInstance().decrypt(cachedFingerprint, ciphertext, value -> JasyptEncryptor.decrypt(encryptor, value));
+    }
+
+    private String wrap(String processed) {
+        return isEncryption && encSurroundCheckBox.isSelected() ? "ENC(" + processed + ")" : processed;
+    }
 
-        // 不管加解密结果如何均保存用户设置
-        saveSettings(secretKey, algorithm, rememberPasswordCheckBox.isSelected());
+    private static boolean isEncWrapped(String text) {
+        return text.startsWith("ENC(") && text.endsWith(")");
     }
 
     public String getProcessedText() {
-        if (processedText == null) {
+        List<String> texts = getProcessedTexts();
+        return texts == null ? null : texts.get(0);
+    }
+
+    /**
+     * @return 每个选区处理后的文本（加密时按设置包上 ENC()），处理失败时返回 null
+     */
+    public List<String> getProcessedTexts() {
+        if (processedTexts == null) {
             // 如果用户没有点击预览，则在获取结果时计算
             updatePreview();
         }
-
-        if (processedText != null && isEncryption && encSurroundCheckBox.isSelected()) {
-            return "ENC(" + processedText + ")";
+        if (processedTexts == null) {
+            return null;
         }
-        return processedText;
+        List<String> texts = new ArrayList<>(processedTexts.size());
+        for (String processed : processedTexts) {
+            texts.add(wrap(processed));
+        }
+        return texts;
     }
 
     /**
@@ -321,16 +531,33 @@ public class JasyptDialogForm {
      * @param startOffset    开始位置
      * @param endOffset      结束位置
      */
-    public void applyToDocument(com.intellij.openapi.editor.Document targetDocument, int startOffset, int endOffset) {
-        if (processedText == null) {
-            updatePreview();
-        }
+    public void applyToDocument(Document targetDocument, int startOffset, int endOffset) {
+        applyToDocument(targetDocument, List.of(new TextRange(startOffset, endOffset)));
+    }
 
-        if (processedText != null && project != null) {
-            final String finalText = isEncryption && encSurroundCheckBox.isSelected() ?
-                    "ENC(" + processedText + ")" : processedText;
+    /**
+     * 在一次可撤销的写命令中将处理后的文本依次替换到各个选区
+     *
+     * @param targetDocument 要修改的文档
+     * @param ranges         与原文顺序一致、互不重叠的选区
+     */
+    public void applyToDocument(Document targetDocument, List<TextRange> ranges) {
+        List<String> texts = getProcessedTexts();
+        if (texts == null || project == null || texts.size() != ranges.size()) {
+            return;
+        }
 
-            WriteCommandAction.runWriteCommandAction(project, () -> targetDocument.replaceString(startOffset, endOffset, finalText));
+        // 从后往前替换，前面选区的偏移量不受影响
+        Integer[] order = new Integer[ranges.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
         }
+        Arrays.sort(order, (a, b) -> Integer.compare(ranges.get(b).getStartOffset(), ranges.get(a).getStartOffset()));
+        WriteCommandAction.runWriteCommandAction(project, JasyptBundle.message("action.intention.jasypt.text"), null, () -> {
+            for (int index : order) {
+                TextRange range = ranges.get(index);
+                targetDocument.replaceString(range.getStartOffset(), range.getEndOffset(), texts.get(index));
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -3,18 +3,37 @@ package xyz.mwszksnmdys.plugin.jasypt.form;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver.IntentionConfig;
 
 import javax.swing.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class JasyptDialogWrapper extends DialogWrapper {
     private final JasyptDialogForm form;
 
     public JasyptDialogWrapper(Project project, String text, boolean defaultIsEncryption, String password, String algorithm) {
+        this(project, text, defaultIsEncryption, password, algorithm, null);
+    }
+
+    public JasyptDialogWrapper(Project project, String text, boolean defaultIsEncryption, String password, String algorithm,
+                               Map<String, Object> jasyptConfig) {
+        this(project, List.of(text), defaultIsEncryption, password, algorithm, jasyptConfig);
+    }
+
+    /**
+     * @param texts 每个光标选中的文本，在一个对话框中一起处理
+     */
+    public JasyptDialogWrapper(Project project, List<String> texts, boolean defaultIsEncryption, String password, String algorithm,
+                               Map<String, Object> jasyptConfig) {
         super(project);
         setTitle(JasyptBundle.message("dialog.title"));
-        this.form = new JasyptDialogForm(text, defaultIsEncryption, project, password, algorithm);
+        this.form = new JasyptDialogForm(texts, defaultIsEncryption, project, password, algorithm, jasyptConfig);
         init();
     }
 
@@ -24,6 +43,15 @@ public class JasyptDialogWrapper extends DialogWrapper {
         return form.getMainPanel();
     }
 
+    /**
+     * 配置文件的配置解析完成后填入密码和算法
+     * @param initial 打开对话框时已填入的配置，可为空
+     * @param resolution 正在进行的解析
+     */
+    public void watchConfig(@Nullable IntentionConfig initial, @NotNull CompletableFuture<IntentionConfig> resolution) {
+        form.watchConfig(initial, resolution);
+    }
+
     public String getProcessedText() {
         return form.getProcessedText();
     }
@@ -37,4 +65,13 @@ public class JasyptDialogWrapper extends DialogWrapper {
     public void applyToDocument(Document document, int startOffset, int endOffset) {
         form.applyToDocument(document, startOffset, endOffset);
     }
+
+    /**
+     * 在一次可撤销的写命令中将处理后的文本应用到各个选区
+     * @param document 要修改的文档
+     * @param ranges 与构造时文本顺序一致的选区
+     */
+    public void applyToDocument(Document document, List<TextRange> ranges) {
+        form.applyToDocument(document, ranges);
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.fileChooser.FileChooser;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
@@ -16,11 +17,15 @@ import com.intellij.openapi.vfs.VirtualFileManager;
 import lombok.Getter;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.action.FileEncryptAction;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+import xyz.mwszksnmdys.plugin.jasypt.util.BatchNotifications;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigBatchProcessor;
 import xyz.mwszksnmdys.plugin.jasypt.util.EncryptorFactory;
-import xyz.mwszksnmdys.plugin.jasypt.util.PropertiesProcessor;
-import xyz.mwszksnmdys.plugin.jasypt.util.YmlProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.FileCryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.IterationCalibrator;
 
 import javax.swing.*;
 import java.awt.*;
@@ -43,6 +48,8 @@ public class JasyptUI {
     private JPanel centerJpanel;
     private JPanel buttonJpanel;
     private JButton processConfigButton;
+    private JButton processFilesButton;
+    private JButton calibrateButton;
 
     private JLabel keyLabel;
     private JLabel textLabel;
@@ -58,6 +65,8 @@ public class JasyptUI {
         encryptButton.addActionListener(e -> handleEncryption(true));
         decryptButton.addActionListener(e -> handleEncryption(false));
         processConfigButton.addActionListener(e -> handleSelectFile());
+        processFilesButton.addActionListener(e -> handleSelectBinaryFiles());
+        calibrateButton.addActionListener(e -> handleCalibrate());
     }
 
     /**
@@ -83,6 +92,8 @@ public class JasyptUI {
         algorithmLabel.setText(JasyptBundle.message("toolbar.dialog.ui.algorithm"));
         resultLabel.setText(JasyptBundle.message("toolbar.dialog.ui.result"));
         processConfigButton.setText(JasyptBundle.message("toolbar.dialog.ui.btn.config"));
+        processFilesButton.setText(JasyptBundle.message("toolbar.dialog.ui.btn.files"));
+        calibrateButton.setText(JasyptBundle.message("toolbar.dialog.ui.btn.calibrate"));
         encryptButton.setText(JasyptBundle.message("toolbar.dialog.ui.btn.encrypt"));
         decryptButton.setText(JasyptBundle.message("toolbar.dialog.ui.btn.decrypt"));
     }
@@ -101,13 +112,7 @@ public class JasyptUI {
         FileChooserDescriptor descriptor = new FileChooserDescriptor(true, true, false, false, false, true)
                 .withTitle(JasyptBundle.message("toolbar.dialog.descriptor.title"))
                 .withDescription(JasyptBundle.message("toolbar.dialog.descriptor.description"))
-                .withFileFilter(file -> {
-                    String extension = file.getExtension();
-                    return file.isDirectory() ||
-                            "yml".equalsIgnoreCase(extension) ||
-                            "yaml".equalsIgnoreCase(extension)
-                            || "properties".equalsIgnoreCase(extension);
-                });
+                .withFileFilter(file -> file.isDirectory() || ConfigFormat.isSupported(file.getName()));
 
         VirtualFile defaultDir = findResourcesDirectory(project);
 
@@ -120,71 +125,98 @@ public class JasyptUI {
     }
 
     /**
-     * 处理选中的文件
-     * @param selectedFiles 选中的文件数组
+     * 选择 keystore、证书等二进制文件，使用当前密钥流式加密或解密
      */
-    private void processSelectedFiles(@NotNull VirtualFile[] selectedFiles) {
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("popup.task.background.title"), true) {
+    private void handleSelectBinaryFiles() {
+        if (project == null) {
+            JOptionPane.showMessageDialog(null, JasyptBundle.message("popup.error.getProject.message"), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        FileCryptor cryptor;
+        try {
+            cryptor = EncryptorFactory.createFileEncryptor(this.getKeyField().getText().trim(), null);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        FileChooserDescriptor descriptor = new FileChooserDescriptor(true, false, false, false, false, true)
+                .withTitle(JasyptBundle.message("toolbar.dialog.descriptor.title"))
+                .withDescription(JasyptBundle.message("file.crypt.descriptor.description"));
+
+        VirtualFile[] selectedFiles = FileChooser.chooseFiles(descriptor, project, findResourcesDirectory(project));
+        if (selectedFiles.length > 0) {
+            FileEncryptAction.processFiles(project, cryptor, selectedFiles);
+            closeDialog();
+        }
+    }
+
+    /**
+     * 在本机上校准各算法的 key-obtention-iterations，按设置中的目标单值耗时给出推荐，
+     * 选中的推荐会应用到算法下拉框，并将对应的配置片段复制到剪贴板
+     */
+    private void handleCalibrate() {
+        double targetMillis = JasyptSettings.getInstance().targetValueLatencyMillis;
+        ProgressManager.getInstance().run(new Task.Modal(project, JasyptBundle.message("calibration.task.title"), true) {
+            private List<IterationCalibrator.Recommendation> recommendations;
+            private int projectValues;
+
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
-                indicator.setIndeterminate(false);
-                int totalFiles = selectedFiles.length;
-
-                for (int i = 0; i < totalFiles; i++) {
-                    VirtualFile file = selectedFiles[i];
-                    indicator.setText(JasyptBundle.message("popup.task.background.indicator.text", file.getName()));
-                    indicator.setFraction((double) i / totalFiles);
-
-                    try {
-                        if (file.isDirectory()) {
-                            // 处理目录
-                            processDirectory(file);
-                        } else {
-                            // 根据文件类型处理单个文件
-                            processFile(file);
-                        }
-                        // 在EDT中刷新文件
-                        ApplicationManager.getApplication().invokeLater(() -> {
-                            reloadFromDisk(file);
-                        });
-                    } catch (Exception e) {
-                        String errorMessage = JasyptBundle.message("popup.task.background.errorMessage")+ file.getName() + "\n" + e.getMessage();
-                        NotificationGroupManager.getInstance()
-                                .getNotificationGroup("Config Processing")
-                                .createNotification(errorMessage, NotificationType.ERROR)
-                                .notify(project);
-                        throw new RuntimeException(errorMessage, e);
-                    }
+                List<IterationCalibrator.Measurement> measurements =
+                        IterationCalibrator.benchmark(EncryptorFactory.getSupportedPBEAlgorithms(), targetMillis, indicator);
+                recommendations = IterationCalibrator.recommend(measurements, targetMillis);
+                if (project != null) {
+                    indicator.setText2(null);
+                    indicator.setText(JasyptBundle.message("popup.task.background.indicator.scanning"));
+                    projectValues = IterationCalibrator.countProjectValues(project, indicator);
                 }
-                JOptionPane.showMessageDialog(null, JasyptBundle.message("popup.task.process.directory.success"), "Success", JOptionPane.INFORMATION_MESSAGE);
+            }
 
+            @Override
+            public void onSuccess() {
+                CalibrationDialog dialog = new CalibrationDialog(project, recommendations, targetMillis, projectValues);
+                IterationCalibrator.Recommendation selected = dialog.showAndGet() ? dialog.getSelectedRecommendation() : null;
+                if (selected != null) {
+                    algorithmBox.setSelectedItem(selected.getAlgorithm());
+                    String snippet = "jasypt:\n  encryptor:\n    algorithm: " + selected.getAlgorithm()
+                            + "\n    key-obtention-iterations: " + selected.getIterations() + "\n";
+                    resultField.setText(snippet);
+                    copyToClipboard(snippet);
+                }
             }
         });
     }
 
     /**
-     * 处理目录中的所有支持的文件
-     * @param directory 目录文件对象
-     * @throws Exception 处理异常
-     */
-    private void processDirectory(VirtualFile directory) throws Exception {
-        YmlProcessor.processYmlFileOrDirectory(directory.toNioPath());
-        PropertiesProcessor.processPropertiesDirectory(directory.toNioPath());
-    }
-
-    /**
-     * 根据文件类型处理单个文件
-     * @param file 文件对象
-     * @throws Exception 处理异常
+     * 处理选中的文件，单个文件失败不中断批次，结束后以一条通知汇总结果
+     * @param selectedFiles 选中的文件数组
      */
-    private void processFile(VirtualFile file) throws Exception {
-        String extension = file.getExtension();
-        if ("yml".equalsIgnoreCase(extension) || "yaml".equalsIgnoreCase(extension)) {
-            YmlProcessor.processYmlFileOrDirectory(file.toNioPath());
-        } else if ("properties".equalsIgnoreCase(extension)) {
-            // 使用属性文件处理器
-            PropertiesProcessor.processPropertiesFile(file.toNioPath());
-        }
+    private void processSelectedFiles(@NotNull VirtualFile[] selectedFiles) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("popup.task.background.title"), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    BatchNotifications.notify(project, ConfigBatchProcessor.process(project, indicator, selectedFiles));
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Config Processing")
+                            .createNotification(e.getMessage(), NotificationType.ERROR)
+                            .notify(project);
+                    throw e;
+                } finally {
+                    // 在EDT中刷新文件
+                    ApplicationManager.getApplication().invokeLater(() -> {
+                        for (VirtualFile file : selectedFiles) {
+                            reloadFromDisk(file);
+                        }
+                    });
+                }
+            }
+        });
     }
 
     /**
@@ -254,14 +286,18 @@ public class JasyptUI {
 
     private void handleEncryption(boolean isEncrypt) {
         String text = this.getTextField().getText().trim();
-        PooledPBEStringEncryptor encryptor = getEncryptor();
-
         if (text.isEmpty()) {
             JOptionPane.showMessageDialog(null, JasyptBundle.message("toolbar.dialog.validate.text"), "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        if (encryptor == null) return;
+        PooledPBEStringEncryptor encryptor;
+        try {
+            encryptor = getEncryptor();
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
         String result;
         if (isEncrypt) {
@@ -274,7 +310,7 @@ public class JasyptUI {
         copyToClipboard(result);
     }
 
-    private @Nullable PooledPBEStringEncryptor getEncryptor() {
+    private @NotNull PooledPBEStringEncryptor getEncryptor() {
         String key = this.getKeyField().getText().trim();
         String algorithm = (String) this.getAlgorithmBox().getSelectedItem();
         return EncryptorFactory.createPBEEncryptor(key, algorithm, null, null, null);
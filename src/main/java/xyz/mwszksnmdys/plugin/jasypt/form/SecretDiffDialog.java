@@ -0,0 +1,113 @@
+package xyz.mwszksnmdys.plugin.jasypt.form;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.util.SecretComparator;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 展示多个配置文件中加密值的比较结果，只显示明文是否相同，不显示明文
+ */
+public class SecretDiffDialog extends DialogWrapper {
+    private final SecretComparator.Comparison comparison;
+
+    public SecretDiffDialog(@Nullable Project project, @NotNull SecretComparator.Comparison comparison) {
+        super(project);
+        this.comparison = comparison;
+        setTitle(JasyptBundle.message("diff.dialog.title"));
+        init();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        List<Path> files = comparison.getFiles();
+        Object[] columns = new Object[files.size() + 2];
+        columns[0] = JasyptBundle.message("diff.column.key");
+        columns[1] = JasyptBundle.message("diff.column.status");
+        for (int i = 0; i < files.size(); i++) {
+            columns[i + 2] = files.get(i).getFileName().toString();
+        }
+        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        for (SecretComparator.Row row : comparison.getRows()) {
+            Object[] cells = new Object[columns.length];
+            cells[0] = row.getKey();
+            cells[1] = row.getStatus();
+            for (int i = 0; i < files.size(); i++) {
+                cells[i + 2] = describe(row.getGroup(i));
+            }
+            model.addRow(cells);
+        }
+
+        JBTable table = new JBTable(model);
+        table.getEmptyText().setText(JasyptBundle.message("diff.empty"));
+        table.getColumnModel().getColumn(1).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+                                                           int row, int column) {
+                SecretComparator.Status status = (SecretComparator.Status) value;
+                super.getTableCellRendererComponent(table, JasyptBundle.message("diff.status." + status.name().toLowerCase()),
+                        isSelected, hasFocus, row, column);
+                if (!isSelected) {
+                    setForeground(status == SecretComparator.Status.SAME ? JBColor.GREEN.darker()
+                            : status == SecretComparator.Status.DIFFERENT ? JBColor.RED : JBColor.ORANGE);
+                }
+                return this;
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.add(new JBLabel(JasyptBundle.message("diff.dialog.summary")), BorderLayout.NORTH);
+        panel.add(new JBScrollPane(table), BorderLayout.CENTER);
+        StringBuilder errors = new StringBuilder();
+        for (int i = 0; i < files.size(); i++) {
+            String error = comparison.getFileError(i);
+            if (error != null) {
+                errors.append(errors.length() == 0 ? "<html>" : "<br/>")
+                        .append(files.get(i).getFileName()).append(": ").append(error);
+            }
+        }
+        if (errors.length() > 0) {
+            JBLabel errorLabel = new JBLabel(errors.toString());
+            errorLabel.setForeground(JBColor.RED);
+            panel.add(errorLabel, BorderLayout.SOUTH);
+        }
+        panel.setPreferredSize(new Dimension(Math.min(1200, 360 + 160 * files.size()), 420));
+        return panel;
+    }
+
+    /**
+     * 明文编号显示为 A、B、C…，相同字母表示明文相同
+     */
+    private static String describe(int group) {
+        if (group == SecretComparator.Row.MISSING) {
+            return JasyptBundle.message("diff.cell.missing");
+        }
+        if (group == SecretComparator.Row.FAILED) {
+            return JasyptBundle.message("diff.cell.failed");
+        }
+        return group < 26 ? String.valueOf((char) ('A' + group)) : "#" + (group + 1);
+    }
+
+    @Override
+    protected Action @NotNull [] createActions() {
+        return new Action[]{getOKAction()};
+    }
+}
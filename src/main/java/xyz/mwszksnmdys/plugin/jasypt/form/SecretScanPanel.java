@@ -0,0 +1,174 @@
+package xyz.mwszksnmdys.plugin.jasypt.form;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.scan.SecretEncryptFix;
+import xyz.mwszksnmdys.plugin.jasypt.scan.SecretFinding;
+import xyz.mwszksnmdys.plugin.jasypt.scan.SecretScanService;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 明文密钥扫描工具窗口：列出疑似明文密钥，双击跳转，选中后可一键加密为 ENC()
+ */
+public class SecretScanPanel extends SimpleToolWindowPanel implements Disposable {
+    private final Project project;
+    private final SecretScanService service;
+    private final DefaultTableModel model;
+    private final JBTable table;
+    private List<SecretFinding> findings = new ArrayList<>();
+
+    public SecretScanPanel(@NotNull Project project) {
+        super(false, true);
+        this.project = project;
+        this.service = SecretScanService.getInstance(project);
+        this.model = new DefaultTableModel(new Object[]{
+                JasyptBundle.message("scan.column.file"),
+                JasyptBundle.message("scan.column.line"),
+                JasyptBundle.message("scan.column.key"),
+                JasyptBundle.message("scan.column.reason"),
+                JasyptBundle.message("scan.column.value")}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        this.table = new JBTable(model);
+        table.getEmptyText().setText(JasyptBundle.message("scan.empty"));
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                navigate();
+                return true;
+            }
+        }.installOn(table);
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction(JasyptBundle.message("scan.action.rescan"), null, AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                rescan();
+            }
+        });
+        group.add(new DumbAwareAction(JasyptBundle.message("scan.action.encrypt"), JasyptBundle.message("scan.action.encrypt.desc"),
+                AllIcons.Nodes.Padlock) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                List<SecretFinding> selected = getSelectedFindings();
+                if (!selected.isEmpty()) {
+                    SecretEncryptFix.apply(project, selected);
+                }
+            }
+
+            @Override
+            public void update(@NotNull AnActionEvent e) {
+                e.getPresentation().setEnabled(table.getSelectedRowCount() > 0);
+            }
+
+            @Override
+            public @NotNull ActionUpdateThread getActionUpdateThread() {
+                return ActionUpdateThread.EDT;
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("JasyptSecretScan", group, false);
+        toolbar.setTargetComponent(table);
+        setToolbar(toolbar.getComponent());
+        setContent(new JBScrollPane(table));
+
+        service.addListener(() -> show(service.getFindings()), this);
+        rescan();
+    }
+
+    private void rescan() {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("scan.task.title"), true) {
+            private List<SecretFinding> result;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    result = service.scanProject(indicator);
+                } catch (IOException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                show(result);
+            }
+        });
+    }
+
+    private void show(List<SecretFinding> findings) {
+        this.findings = findings;
+        model.setRowCount(0);
+        VirtualFile baseDir = ProjectUtil.guessProjectDir(project);
+        for (SecretFinding finding : findings) {
+            model.addRow(new Object[]{
+                    displayPath(baseDir, finding),
+                    finding.getLine(),
+                    finding.getKey(),
+                    finding.getReason() == SecretFinding.Reason.KEY_NAME
+                            ? JasyptBundle.message("scan.reason.keyName")
+                            : JasyptBundle.message("scan.reason.entropy", String.format("%.2f", finding.getEntropy())),
+                    finding.getMaskedValue()});
+        }
+    }
+
+    private static String displayPath(VirtualFile baseDir, SecretFinding finding) {
+        VirtualFile file = LocalFileSystem.getInstance().findFileByNioFile(finding.getFile());
+        String relative = baseDir == null || file == null ? null : VfsUtilCore.getRelativePath(file, baseDir);
+        return relative != null ? relative : finding.getFile().toString();
+    }
+
+    private List<SecretFinding> getSelectedFindings() {
+        List<SecretFinding> selected = new ArrayList<>();
+        for (int row : table.getSelectedRows()) {
+            selected.add(findings.get(table.convertRowIndexToModel(row)));
+        }
+        return selected;
+    }
+
+    private void navigate() {
+        int row = table.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        SecretFinding finding = findings.get(table.convertRowIndexToModel(row));
+        VirtualFile file = LocalFileSystem.getInstance().findFileByNioFile(finding.getFile());
+        if (file != null) {
+            new OpenFileDescriptor(project, file, finding.getRange().getStartOffset()).navigate(true);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        findings = new ArrayList<>();
+    }
+}
@@ -0,0 +1,40 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 配置文件中的一个键值对，值范围与 {@link ConfigFormat#findValueRanges} 的含义相同
+ */
+public final class ConfigEntry {
+    private final String key;
+    private final TextRange range;
+    private final String value;
+
+    public ConfigEntry(@NotNull String key, @NotNull TextRange range, @NotNull String value) {
+        this.key = key;
+        this.range = range;
+        this.value = value;
+    }
+
+    /**
+     * @return Spring 点号形式的键，如 spring.datasource.password
+     */
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    /**
+     * @return 值在原文中的范围
+     */
+    public @NotNull TextRange getRange() {
+        return range;
+    }
+
+    /**
+     * @return 还原后的实际的值
+     */
+    public @NotNull String getValue() {
+        return value;
+    }
+}
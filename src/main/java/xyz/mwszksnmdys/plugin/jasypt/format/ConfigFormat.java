@@ -0,0 +1,129 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.extensions.ExtensionPointName;
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 配置文件格式扩展点
+ * 每种格式只负责找出值在原文中的范围和解析配置属性，读写文件、加解密、进度和批处理由
+ * {@link xyz.mwszksnmdys.plugin.jasypt.util.ConfigFileProcessor} 统一完成。
+ * 其他插件可以通过 xyz.mwszksnmdys.demo-plugin.configFormat 扩展点注册新的格式
+ */
+public interface ConfigFormat {
+
+    ExtensionPointName<ConfigFormat> EP_NAME = ExtensionPointName.create("xyz.mwszksnmdys.demo-plugin.configFormat");
+
+    /**
+     * 是否支持该文件
+     * @param fileName 文件名
+     * @return 是否支持
+     */
+    boolean accepts(@NotNull String fileName);
+
+    /**
+     * 找出所有值在原文中的范围，键和注释不在范围内，只有范围内的 ENC() 会被改写
+     * @param content 文件内容
+     * @return 按文档顺序排列、互不重叠的值范围
+     * @throws Exception 内容无法解析
+     */
+    @NotNull List<TextRange> findValueRanges(@NotNull String content) throws Exception;
+
+    /**
+     * 找出所有键值对及值在原文中的范围，用于明文密钥扫描等需要知道键名的场景。
+     * 默认不支持，返回空列表
+     * @param content 文件内容
+     * @return 按文档顺序排列的键值对
+     * @throws Exception 内容无法解析
+     */
+    default @NotNull List<ConfigEntry> findEntries(@NotNull String content) throws Exception {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 将文件解析为扁平化的属性，键使用 Spring 的点号形式（如 jasypt.encryptor.password）
+     * @param content 文件内容
+     * @return 每个文档的属性，按文档顺序排列
+     * @throws Exception 内容无法解析
+     */
+    @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) throws Exception;
+
+    /**
+     * 值范围内的原文是否按字面保存，这样的值不经过 {@link #decodeValue} / {@link #encodeValue}，例如 XML 的 CDATA 段
+     * @param content 文件内容
+     * @param range {@link #findValueRanges} 或 {@link #findEntries} 返回的值范围
+     * @return 是否按字面保存
+     */
+    default boolean isVerbatim(@NotNull String content, @NotNull TextRange range) {
+        return false;
+    }
+
+    /**
+     * 将原文中的值还原为实际的值，例如处理转义字符
+     * @param raw 原文
+     * @return 实际的值
+     */
+    default @NotNull String decodeValue(@NotNull String raw) {
+        return raw;
+    }
+
+    /**
+     * 将实际的值编码为可以写入原文的形式
+     * @param value 实际的值
+     * @return 原文
+     */
+    default @NotNull String encodeValue(@NotNull String value) {
+        return value;
+    }
+
+    /**
+     * 查找支持该文件的格式
+     * @param fileName 文件名
+     * @return 格式，不支持时返回 null
+     */
+    static @Nullable ConfigFormat forFileName(@Nullable String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        for (ConfigFormat format : EP_NAME.getExtensionList()) {
+            if (format.accepts(fileName)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查找支持该文件的格式
+     * @param path 文件路径
+     * @return 格式，不支持时返回 null
+     */
+    static @Nullable ConfigFormat forPath(@NotNull Path path) {
+        return path.getFileName() == null ? null : forFileName(path.getFileName().toString());
+    }
+
+    /**
+     * @param fileName 文件名
+     * @return 是否为支持的配置文件
+     */
+    static boolean isSupported(@Nullable String fileName) {
+        return forFileName(fileName) != null;
+    }
+
+    /**
+     * 文件名是否为 Spring 配置文件名（application*、bootstrap*），JSON、XML 等通用扩展名的格式只处理这些文件
+     * @param fileName 文件名
+     * @return 是否为 Spring 配置文件名
+     */
+    static boolean isSpringConfigName(@NotNull String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.startsWith("application") || name.startsWith("bootstrap");
+    }
+}
@@ -0,0 +1,138 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * .env 格式（KEY=VALUE，可带 export 前缀和引号）
+ * 环境变量按 Spring 的宽松绑定规则映射为属性：JASYPT_ENCRYPTOR_KEY_OBTENTION_ITERATIONS 对应
+ * jasypt.encryptor.key-obtention-iterations，其余变量的下划线替换为点号
+ */
+public class DotEnvConfigFormat implements ConfigFormat {
+
+    private static final String ENCRYPTOR_VARIABLE_PREFIX = "JASYPT_ENCRYPTOR_";
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        String name = fileName.toLowerCase();
+        return name.equals(".env") || name.startsWith(".env.") || name.endsWith(".env");
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        List<TextRange> ranges = new ArrayList<>();
+        forEachEntry(content, (key, range) -> ranges.add(range));
+        return ranges;
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        forEachEntry(content, (key, range) -> entries.add(new ConfigEntry(key, range, unquote(range.substring(content)))));
+        return entries;
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) {
+        Map<String, String> document = new LinkedHashMap<>();
+        forEachEntry(content, (key, range) -> {
+            String propertyKey = toPropertyKey(key);
+            if (propertyKey != null) {
+                document.put(propertyKey, unquote(range.substring(content)));
+            }
+        });
+        return document.isEmpty() ? Collections.emptyList() : Collections.singletonList(document);
+    }
+
+    /**
+     * 按原样解析所有变量，不做属性名映射，供 .env 密钥来源使用
+     * @param content 文件内容
+     * @return 变量名到去掉引号后的值，按文件顺序排列，重复的变量以最后一次为准
+     */
+    public static @NotNull Map<String, String> parseVariables(@NotNull String content) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        forEachEntry(content, (key, range) -> variables.put(key, unquote(range.substring(content))));
+        return variables;
+    }
+
+    private static @Nullable String toPropertyKey(String variable) {
+        String upper = variable.toUpperCase(Locale.ROOT);
+        if (upper.startsWith(ENCRYPTOR_VARIABLE_PREFIX)) {
+            return "jasypt.encryptor." + upper.substring(ENCRYPTOR_VARIABLE_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+        if (upper.startsWith("JASYPT_") || upper.startsWith("SPRING_")) {
+            return upper.toLowerCase(Locale.ROOT).replace('_', '.');
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'')
+                && value.charAt(value.length() - 1) == value.charAt(0)) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * 逐行解析，值范围包含引号，未加引号的值在 " #" 处结束
+     */
+    private static void forEachEntry(String content, EntryConsumer consumer) {
+        int length = content.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int end = lineEnd > lineStart && content.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            int i = skipBlanks(content, lineStart, end);
+            if (content.startsWith("export ", i)) {
+                i = skipBlanks(content, i + "export ".length(), end);
+            }
+            int separator = content.indexOf('=', i);
+            if (i < end && content.charAt(i) != '#' && separator > i && separator < end) {
+                String key = content.substring(i, separator).trim();
+                int valueStart = skipBlanks(content, separator + 1, end);
+                int valueEnd = valueEnd(content, valueStart, end);
+                if (!key.isEmpty() && valueEnd > valueStart) {
+                    consumer.accept(key, new TextRange(valueStart, valueEnd));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static int valueEnd(String content, int start, int end) {
+        if (start < end && (content.charAt(start) == '"' || content.charAt(start) == '\'')) {
+            int close = content.indexOf(content.charAt(start), start + 1);
+            return close > 0 && close < end ? close + 1 : end;
+        }
+        int comment = content.indexOf(" #", start);
+        int valueEnd = comment >= 0 && comment < end ? comment : end;
+        while (valueEnd > start && Character.isWhitespace(content.charAt(valueEnd - 1))) {
+            valueEnd--;
+        }
+        return valueEnd;
+    }
+
+    private static int skipBlanks(String content, int from, int end) {
+        int i = from;
+        while (i < end && (content.charAt(i) == ' ' || content.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private interface EntryConsumer {
+        void accept(String key, TextRange valueRange);
+    }
+}
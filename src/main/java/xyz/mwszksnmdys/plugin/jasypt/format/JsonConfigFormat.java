@@ -0,0 +1,206 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON 格式，嵌套对象按点号展开为属性（与 SPRING_APPLICATION_JSON 相同），只改写字符串值，不改写键。
+ * 只处理 Spring 配置文件名，package.json、tsconfig.json 等其他 JSON 不处理
+ */
+public class JsonConfigFormat implements ConfigFormat {
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        return fileName.toLowerCase().endsWith(".json") && ConfigFormat.isSpringConfigName(fileName);
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        List<TextRange> ranges = new ArrayList<>();
+        scan(content, (path, range, isString) -> {
+            if (isString) {
+                ranges.add(new TextRange(range.getStartOffset() + 1, range.getEndOffset() - 1));
+            }
+        });
+        return ranges;
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        scan(content, (path, range, isString) -> {
+            if (isString) {
+                TextRange inner = new TextRange(range.getStartOffset() + 1, range.getEndOffset() - 1);
+                entries.add(new ConfigEntry(path, inner, decodeValue(inner.substring(content))));
+            } else {
+                entries.add(new ConfigEntry(path, range, range.substring(content)));
+            }
+        });
+        return entries;
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) {
+        Map<String, String> document = new LinkedHashMap<>();
+        scan(content, (path, range, isString) -> {
+            String raw = range.substring(content);
+            document.put(path, isString ? decodeValue(raw.substring(1, raw.length() - 1)) : raw);
+        });
+        return document.isEmpty() ? Collections.emptyList() : Collections.singletonList(document);
+    }
+
+    @Override
+    public @NotNull String decodeValue(@NotNull String raw) {
+        if (raw.indexOf('\\') < 0) {
+            return raw;
+        }
+        StringBuilder value = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 >= raw.length()) {
+                value.append(c);
+                continue;
+            }
+            char escaped = raw.charAt(++i);
+            switch (escaped) {
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'n': value.append('\n'); break;
+                case 'r': value.append('\r'); break;
+                case 't': value.append('\t'); break;
+                case 'u':
+                    if (i + 4 < raw.length()) {
+                        value.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    break;
+                default: value.append(escaped);
+            }
+        }
+        return value.toString();
+    }
+
+    @Override
+    public @NotNull String encodeValue(@NotNull String value) {
+        StringBuilder raw = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': raw.append("\\\""); break;
+                case '\\': raw.append("\\\\"); break;
+                case '\n': raw.append("\\n"); break;
+                case '\r': raw.append("\\r"); break;
+                case '\t': raw.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        raw.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        raw.append(c);
+                    }
+            }
+        }
+        return raw.toString();
+    }
+
+    /**
+     * 单遍扫描 JSON，对每个标量值回调其路径和原文范围（字符串包含引号）
+     */
+    private static void scan(String content, ValueConsumer consumer) {
+        Deque<Container> stack = new ArrayDeque<>();
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            Container parent = stack.peek();
+            if (c == '{' || c == '[') {
+                stack.push(new Container(c == '{', parent == null ? "" : parent.childPath()));
+                i++;
+            } else if (c == '}' || c == ']') {
+                stack.poll();
+                Container owner = stack.peek();
+                if (owner != null) {
+                    owner.valueDone();
+                }
+                i++;
+            } else if (c == '"') {
+                int end = stringEnd(content, i);
+                if (parent != null && parent.object && parent.key == null) {
+                    parent.key = content.substring(i + 1, end - 1);
+                } else {
+                    consumer.accept(parent == null ? "" : parent.childPath(), new TextRange(i, end), true);
+                    if (parent != null) {
+                        parent.valueDone();
+                    }
+                }
+                i = end;
+            } else if (c == ',' || c == ':' || Character.isWhitespace(c)) {
+                i++;
+            } else {
+                // 数字、true、false、null
+                int end = i;
+                while (end < length && ",}] \t\r\n".indexOf(content.charAt(end)) < 0) {
+                    end++;
+                }
+                if (parent != null) {
+                    consumer.accept(parent.childPath(), new TextRange(i, end), false);
+                    parent.valueDone();
+                }
+                i = end;
+            }
+        }
+    }
+
+    private static int stringEnd(String content, int start) {
+        int i = start + 1;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return content.length();
+    }
+
+    private static class Container {
+        private final boolean object;
+        private final String path;
+        private String key;
+        private int index;
+
+        private Container(boolean object, String path) {
+            this.object = object;
+            this.path = path;
+        }
+
+        private String childPath() {
+            if (object) {
+                return path.isEmpty() ? String.valueOf(key) : path + "." + key;
+            }
+            return path + "[" + index + "]";
+        }
+
+        private void valueDone() {
+            if (object) {
+                key = null;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    private interface ValueConsumer {
+        void accept(String path, TextRange range, boolean isString);
+    }
+}
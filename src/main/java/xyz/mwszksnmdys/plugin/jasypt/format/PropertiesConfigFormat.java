@@ -0,0 +1,163 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Properties 格式，支持以 #--- 分隔的多文档，注释行中的 ENC( 不会被改写
+ */
+public class PropertiesConfigFormat implements ConfigFormat {
+
+    private static final Pattern DOCUMENT_SEPARATOR = Pattern.compile("(?m)^[#!]---\\s*$");
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        return fileName.toLowerCase().endsWith(".properties");
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        List<TextRange> ranges = new ArrayList<>();
+        scan(content, (keyStart, keyEnd, valueStart, valueEnd) -> ranges.add(new TextRange(valueStart, valueEnd)));
+        return ranges;
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        scan(content, (keyStart, keyEnd, valueStart, valueEnd) -> entries.add(new ConfigEntry(
+                unescapeKey(content.substring(keyStart, keyEnd)), new TextRange(valueStart, valueEnd), content.substring(valueStart, valueEnd))));
+        return entries;
+    }
+
+    /**
+     * 逐行扫描，对每个非空的值回调键和值在原文中的范围
+     */
+    private static void scan(String content, EntryConsumer consumer) {
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            // 跳过行首空白
+            while (i < length && isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            char first = content.charAt(i);
+            if (first == '\n' || first == '\r') {
+                i++;
+                continue;
+            }
+            if (first == '#' || first == '!') {
+                i = lineEnd(content, i);
+                continue;
+            }
+            // 键以未转义的 =、: 或空白结束
+            int keyStart = i;
+            while (i < length) {
+                char c = content.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                    continue;
+                }
+                if (c == '=' || c == ':' || isWhitespace(c) || c == '\n' || c == '\r') {
+                    break;
+                }
+                i++;
+            }
+            int keyEnd = Math.min(i, length);
+            while (i < length && isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            if (i < length && (content.charAt(i) == '=' || content.charAt(i) == ':')) {
+                i++;
+                while (i < length && isWhitespace(content.charAt(i))) {
+                    i++;
+                }
+            }
+            int valueStart = Math.min(i, length);
+            // 以奇数个反斜杠结尾的行延续到下一行
+            int end = lineEnd(content, valueStart);
+            while (end < length && endsWithContinuation(content, valueStart, end)) {
+                end = lineEnd(content, skipLineBreak(content, end));
+            }
+            if (end > valueStart) {
+                consumer.accept(keyStart, keyEnd, valueStart, end);
+            }
+            i = end;
+        }
+    }
+
+    private static String unescapeKey(String raw) {
+        if (raw.indexOf('\\') < 0) {
+            return raw;
+        }
+        StringBuilder key = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length()) {
+                c = raw.charAt(++i);
+            }
+            key.append(c);
+        }
+        return key.toString();
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) throws IOException {
+        List<Map<String, String>> documents = new ArrayList<>();
+        for (String part : DOCUMENT_SEPARATOR.split(content)) {
+            Properties properties = new Properties();
+            properties.load(new StringReader(part));
+            Map<String, String> document = new LinkedHashMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                document.put(key, properties.getProperty(key));
+            }
+            if (!document.isEmpty()) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static int lineEnd(String content, int from) {
+        int i = from;
+        while (i < content.length() && content.charAt(i) != '\n' && content.charAt(i) != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipLineBreak(String content, int from) {
+        if (content.startsWith("\r\n", from)) {
+            return from + 2;
+        }
+        return from + 1;
+    }
+
+    private static boolean endsWithContinuation(String content, int start, int end) {
+        int backslashes = 0;
+        for (int i = end - 1; i >= start && content.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    private interface EntryConsumer {
+        void accept(int keyStart, int keyEnd, int valueStart, int valueEnd);
+    }
+}
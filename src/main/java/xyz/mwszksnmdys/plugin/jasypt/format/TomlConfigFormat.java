@@ -0,0 +1,204 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TOML 格式，[table] 与点号键展开为属性，只改写值，注释和键中的 ENC( 保持不变。
+ * 支持基本字符串、字面量字符串、多行字符串和裸值（数字、布尔、数组等，数组整体作为一个值范围）。
+ * 只处理 Spring 配置文件名，Cargo.toml、pyproject.toml 等其他 TOML 不处理
+ */
+public class TomlConfigFormat implements ConfigFormat {
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        return fileName.toLowerCase().endsWith(".toml") && ConfigFormat.isSpringConfigName(fileName);
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        List<TextRange> ranges = new ArrayList<>();
+        scan(content, (key, range) -> ranges.add(range));
+        return ranges;
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        scan(content, (key, range) -> entries.add(new ConfigEntry(key, range, unquote(range.substring(content)))));
+        return entries;
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) {
+        Map<String, String> document = new LinkedHashMap<>();
+        scan(content, (key, range) -> document.put(key, unquote(range.substring(content))));
+        return document.isEmpty() ? Collections.emptyList() : Collections.singletonList(document);
+    }
+
+    private static String unquote(String raw) {
+        for (String quote : new String[]{"\"\"\"", "'''", "\"", "'"}) {
+            if (raw.length() >= quote.length() * 2 && raw.startsWith(quote) && raw.endsWith(quote)) {
+                return raw.substring(quote.length(), raw.length() - quote.length());
+            }
+        }
+        return raw;
+    }
+
+    private static void scan(String content, EntryConsumer consumer) {
+        int length = content.length();
+        String table = "";
+        int i = 0;
+        while (i < length) {
+            i = skipBlanks(content, i);
+            if (i >= length) {
+                break;
+            }
+            char c = content.charAt(i);
+            if (c == '\n' || c == '\r') {
+                i++;
+            } else if (c == '#') {
+                i = lineEnd(content, i);
+            } else if (c == '[') {
+                // [table] 或 [[array of tables]]
+                boolean arrayTable = content.startsWith("[[", i);
+                int start = i + (arrayTable ? 2 : 1);
+                int end = content.indexOf(arrayTable ? "]]" : "]", start);
+                end = end < 0 ? lineEnd(content, start) : end;
+                table = normalizeKey(content.substring(start, end));
+                i = lineEnd(content, end);
+            } else {
+                int separator = keyEnd(content, i);
+                if (separator >= length || content.charAt(separator) != '=') {
+                    i = lineEnd(content, i);
+                    continue;
+                }
+                String key = normalizeKey(content.substring(i, separator));
+                int valueStart = skipBlanks(content, separator + 1);
+                int valueEnd = valueEnd(content, valueStart);
+                if (valueEnd > valueStart) {
+                    consumer.accept(table.isEmpty() ? key : table + "." + key, new TextRange(valueStart, valueEnd));
+                }
+                i = valueEnd;
+            }
+        }
+    }
+
+    /**
+     * 键在引号外的 = 处结束
+     */
+    private static int keyEnd(String content, int from) {
+        int i = from;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (c == '"' || c == '\'') {
+                int close = content.indexOf(c, i + 1);
+                i = close < 0 ? content.length() : close + 1;
+            } else if (c == '=' || c == '\n') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int valueEnd(String content, int start) {
+        if (content.startsWith("\"\"\"", start) || content.startsWith("'''", start)) {
+            String quote = content.substring(start, start + 3);
+            int close = content.indexOf(quote, start + 3);
+            return close < 0 ? content.length() : close + 3;
+        }
+        if (start < content.length() && content.charAt(start) == '"') {
+            int i = start + 1;
+            while (i < content.length() && content.charAt(i) != '"' && content.charAt(i) != '\n') {
+                i += content.charAt(i) == '\\' ? 2 : 1;
+            }
+            return Math.min(content.length(), i + 1);
+        }
+        if (start < content.length() && content.charAt(start) == '\'') {
+            int close = content.indexOf('\'', start + 1);
+            return close < 0 ? lineEnd(content, start) : close + 1;
+        }
+        if (start < content.length() && (content.charAt(start) == '[' || content.charAt(start) == '{')) {
+            return bracketEnd(content, start);
+        }
+        int end = lineEnd(content, start);
+        int comment = content.indexOf('#', start);
+        if (comment >= 0 && comment < end) {
+            end = comment;
+        }
+        while (end > start && Character.isWhitespace(content.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * 数组和内联表可以跨行，按括号配对找到结尾，忽略字符串中的括号
+     */
+    private static int bracketEnd(String content, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (c == '"' || c == '\'') {
+                int close = content.indexOf(c, i + 1);
+                i = close < 0 ? content.length() : close + 1;
+                continue;
+            }
+            if (c == '#') {
+                i = lineEnd(content, i);
+                continue;
+            }
+            if (c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ']' || c == '}') && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return content.length();
+    }
+
+    /**
+     * 去掉点号键中各段的空白和引号
+     */
+    private static String normalizeKey(String key) {
+        StringBuilder normalized = new StringBuilder();
+        for (String part : key.split("\\.(?=(?:[^\"']*[\"'][^\"']*[\"'])*[^\"']*$)")) {
+            String trimmed = part.trim();
+            if (trimmed.length() >= 2 && (trimmed.startsWith("\"") || trimmed.startsWith("'"))) {
+                trimmed = trimmed.substring(1, trimmed.length() - 1);
+            }
+            if (normalized.length() > 0) {
+                normalized.append('.');
+            }
+            normalized.append(trimmed);
+        }
+        return normalized.toString();
+    }
+
+    private static int skipBlanks(String content, int from) {
+        int i = from;
+        while (i < content.length() && (content.charAt(i) == ' ' || content.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lineEnd(String content, int from) {
+        int end = content.indexOf('\n', from);
+        return end < 0 ? content.length() : end;
+    }
+
+    private interface EntryConsumer {
+        void accept(String key, TextRange valueRange);
+    }
+}
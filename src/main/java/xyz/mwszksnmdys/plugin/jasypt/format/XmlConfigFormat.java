@@ -0,0 +1,237 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XML 格式，只改写元素文本、CDATA 和属性值，注释、标签名和属性名中的 ENC( 保持不变。
+ * 属性按根元素以下的元素路径展开（如 &lt;jasypt&gt;&lt;encryptor&gt;&lt;password&gt; 对应 jasypt.encryptor.password），
+ * 同时支持 Properties XML 格式的 &lt;entry key="..."&gt;。
+ * 只处理 Spring 配置文件名和 *.properties.xml，pom.xml、.idea 下的工程文件等其他 XML 不处理
+ */
+public class XmlConfigFormat implements ConfigFormat {
+    private static final String CDATA_START = "<![CDATA[";
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        String name = fileName.toLowerCase();
+        if (!name.endsWith(".xml")) {
+            return false;
+        }
+        return name.endsWith(".properties.xml") || ConfigFormat.isSpringConfigName(name);
+    }
+
+    /**
+     * CDATA 段中的内容不转义，值范围紧跟在 &lt;![CDATA[ 之后
+     */
+    @Override
+    public boolean isVerbatim(@NotNull String content, @NotNull TextRange range) {
+        int start = range.getStartOffset() - CDATA_START.length();
+        return start >= 0 && content.startsWith(CDATA_START, start);
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        List<TextRange> ranges = new ArrayList<>();
+        scan(content, (path, range, cdata) -> ranges.add(range));
+        return ranges;
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        scan(content, (path, range, cdata) -> {
+            if (!path.isEmpty()) {
+                String raw = range.substring(content);
+                entries.add(new ConfigEntry(path, range, cdata ? raw : decodeValue(raw)));
+            }
+        });
+        return entries;
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) {
+        Map<String, String> document = new LinkedHashMap<>();
+        scan(content, (path, range, cdata) -> {
+            if (!path.isEmpty()) {
+                String raw = range.substring(content);
+                document.put(path, cdata ? raw : decodeValue(raw));
+            }
+        });
+        return document.isEmpty() ? Collections.emptyList() : Collections.singletonList(document);
+    }
+
+    @Override
+    public @NotNull String decodeValue(@NotNull String raw) {
+        if (raw.indexOf('&') < 0) {
+            return raw;
+        }
+        StringBuilder value = new StringBuilder(raw.length());
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int semicolon = c == '&' ? raw.indexOf(';', i) : -1;
+            if (semicolon < 0) {
+                value.append(c);
+                i++;
+                continue;
+            }
+            String entity = raw.substring(i + 1, semicolon);
+            switch (entity) {
+                case "lt": value.append('<'); break;
+                case "gt": value.append('>'); break;
+                case "amp": value.append('&'); break;
+                case "quot": value.append('"'); break;
+                case "apos": value.append('\''); break;
+                default:
+                    if (entity.startsWith("#x")) {
+                        value.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+                    } else if (entity.startsWith("#")) {
+                        value.appendCodePoint(Integer.parseInt(entity.substring(1)));
+                    } else {
+                        value.append(raw, i, semicolon + 1);
+                    }
+            }
+            i = semicolon + 1;
+        }
+        return value.toString();
+    }
+
+    @Override
+    public @NotNull String encodeValue(@NotNull String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * 单遍扫描 XML，对元素文本、CDATA 和属性值回调其属性路径和原文范围
+     */
+    private static void scan(String content, ValueConsumer consumer) {
+        List<String> path = new ArrayList<>();
+        // 与 path 对应，记录 <entry key="..."> 等元素自身指定的属性名
+        List<String> explicitKeys = new ArrayList<>();
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            if (content.startsWith("<!--", i)) {
+                i = skipTo(content, i, "-->");
+            } else if (content.startsWith(CDATA_START, i)) {
+                int start = i + CDATA_START.length();
+                int end = content.indexOf("]]>", start);
+                end = end < 0 ? length : end;
+                consumer.accept(propertyPath(path, explicitKeys), new TextRange(start, end), true);
+                i = Math.min(length, end + 3);
+            } else if (content.startsWith("<?", i)) {
+                i = skipTo(content, i, "?>");
+            } else if (content.startsWith("<!", i)) {
+                i = skipTo(content, i, ">");
+            } else if (content.startsWith("</", i)) {
+                if (!path.isEmpty()) {
+                    path.remove(path.size() - 1);
+                    explicitKeys.remove(explicitKeys.size() - 1);
+                }
+                i = skipTo(content, i, ">");
+            } else if (content.charAt(i) == '<') {
+                i = scanStartTag(content, i + 1, path, explicitKeys, consumer);
+            } else {
+                int end = content.indexOf('<', i);
+                end = end < 0 ? length : end;
+                int start = i;
+                int trimmedEnd = end;
+                while (start < trimmedEnd && Character.isWhitespace(content.charAt(start))) {
+                    start++;
+                }
+                while (trimmedEnd > start && Character.isWhitespace(content.charAt(trimmedEnd - 1))) {
+                    trimmedEnd--;
+                }
+                if (trimmedEnd > start) {
+                    consumer.accept(propertyPath(path, explicitKeys), new TextRange(start, trimmedEnd), false);
+                }
+                i = end;
+            }
+        }
+    }
+
+    private static int scanStartTag(String content, int from, List<String> path, List<String> explicitKeys, ValueConsumer consumer) {
+        int length = content.length();
+        int i = from;
+        while (i < length && !Character.isWhitespace(content.charAt(i)) && content.charAt(i) != '>' && content.charAt(i) != '/') {
+            i++;
+        }
+        String name = content.substring(from, i);
+        path.add(name);
+        explicitKeys.add(null);
+        String elementPath = propertyPath(path, explicitKeys);
+
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '>') {
+                return i + 1;
+            }
+            if (c == '/' && i + 1 < length && content.charAt(i + 1) == '>') {
+                path.remove(path.size() - 1);
+                explicitKeys.remove(explicitKeys.size() - 1);
+                return i + 2;
+            }
+            if (c == '"' || c == '\'') {
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int nameStart = i;
+            while (i < length && content.charAt(i) != '=' && !Character.isWhitespace(content.charAt(i))
+                    && content.charAt(i) != '>' && content.charAt(i) != '/') {
+                i++;
+            }
+            if (i == nameStart) {
+                i++;
+                continue;
+            }
+            String attribute = content.substring(nameStart, i);
+            while (i < length && (Character.isWhitespace(content.charAt(i)) || content.charAt(i) == '=')) {
+                i++;
+            }
+            if (i < length && (content.charAt(i) == '"' || content.charAt(i) == '\'')) {
+                int valueStart = i + 1;
+                int valueEnd = content.indexOf(content.charAt(i), valueStart);
+                valueEnd = valueEnd < 0 ? length : valueEnd;
+                if ("key".equals(attribute) && "entry".equals(name)) {
+                    explicitKeys.set(explicitKeys.size() - 1, content.substring(valueStart, valueEnd));
+                } else {
+                    String attributePath = elementPath.isEmpty() ? attribute : elementPath + "." + attribute;
+                    consumer.accept(attributePath, new TextRange(valueStart, valueEnd), false);
+                }
+                i = valueEnd + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 根元素以下的元素路径，元素指定了 key 时直接使用该 key
+     */
+    private static String propertyPath(List<String> path, List<String> explicitKeys) {
+        String explicitKey = explicitKeys.isEmpty() ? null : explicitKeys.get(explicitKeys.size() - 1);
+        if (explicitKey != null) {
+            return explicitKey;
+        }
+        return path.size() <= 1 ? "" : String.join(".", path.subList(1, path.size()));
+    }
+
+    private static int skipTo(String content, int from, String terminator) {
+        int end = content.indexOf(terminator, from);
+        return end < 0 ? content.length() : end + terminator.length();
+    }
+
+    private interface ValueConsumer {
+        void accept(String path, TextRange range, boolean cdata);
+    }
+}
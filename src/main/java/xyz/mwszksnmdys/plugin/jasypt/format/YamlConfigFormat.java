@@ -0,0 +1,35 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.util.YamlScanner;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * YAML 格式，基于 SnakeYAML 事件流，只返回包含 ENC( 的标量值
+ */
+public class YamlConfigFormat implements ConfigFormat {
+
+    @Override
+    public boolean accepts(@NotNull String fileName) {
+        String name = fileName.toLowerCase();
+        return name.endsWith(".yml") || name.endsWith(".yaml");
+    }
+
+    @Override
+    public @NotNull List<TextRange> findValueRanges(@NotNull String content) {
+        return YamlScanner.scan(content).getEncRanges();
+    }
+
+    @Override
+    public @NotNull List<ConfigEntry> findEntries(@NotNull String content) {
+        return YamlScanner.scanEntries(content);
+    }
+
+    @Override
+    public @NotNull List<Map<String, String>> parseDocuments(@NotNull String content) {
+        return YamlScanner.scanDocuments(content);
+    }
+}
@@ -0,0 +1,31 @@
+package xyz.mwszksnmdys.plugin.jasypt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 一次批处理，从收集文件到全部写回
+ */
+@Name("xyz.mwszksnmdys.jasypt.Batch")
+@Label("Jasypt Batch")
+@Category("Jasypt")
+@Description("A batch run over the selected config files")
+public final class BatchEvent extends Event {
+    @Label("Files")
+    public int files;
+
+    @Label("Processed Files")
+    public int processedFiles;
+
+    @Label("Failed Files")
+    public int failedFiles;
+
+    @Label("Encrypted Values")
+    public int encryptedValues;
+
+    @Label("Decrypted Values")
+    public int decryptedValues;
+}
@@ -0,0 +1,22 @@
+package xyz.mwszksnmdys.plugin.jasypt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 按 Spring Boot 优先级解析一个配置文件生效的 jasypt 配置
+ */
+@Name("xyz.mwszksnmdys.jasypt.ConfigResolution")
+@Label("Jasypt Config Resolution")
+@Category("Jasypt")
+@Description("Resolution of the effective jasypt configuration of a config file")
+public final class ConfigResolutionEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,37 @@
+package xyz.mwszksnmdys.plugin.jasypt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 单个值的加密或解密，PBE 模式下包含一次完整的密钥派生
+ * 调用频繁，不记录调用栈
+ */
+@Name("xyz.mwszksnmdys.jasypt.Crypto")
+@Label("Jasypt Encrypt/Decrypt")
+@Category("Jasypt")
+@Description("Encryption or decryption of a single value")
+@StackTrace(false)
+public final class CryptoEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Input Size")
+    @DataAmount
+    public long inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    public long outputBytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
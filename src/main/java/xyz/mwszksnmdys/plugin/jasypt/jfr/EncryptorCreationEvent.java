@@ -0,0 +1,25 @@
+package xyz.mwszksnmdys.plugin.jasypt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 按配置创建加密器，包括解析 ${KEY} 占位符密钥和读取密钥文件
+ */
+@Name("xyz.mwszksnmdys.jasypt.EncryptorCreation")
+@Label("Jasypt Encryptor Creation")
+@Category("Jasypt")
+@Description("Creation of an encryptor from a jasypt configuration, including secret resolution")
+public final class EncryptorCreationEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Algorithm")
+    public String algorithm;
+}
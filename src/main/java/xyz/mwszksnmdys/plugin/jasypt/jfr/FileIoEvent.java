@@ -0,0 +1,31 @@
+package xyz.mwszksnmdys.plugin.jasypt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 配置文件的读取或写回
+ */
+@Name("xyz.mwszksnmdys.jasypt.FileIo")
+@Label("Jasypt File I/O")
+@Category("Jasypt")
+@Description("Reading or writing a config file, through the editor document or directly on disk")
+public final class FileIoEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("File")
+    public String file;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Through Document")
+    @Description("Whether the content was read from or written through an open editor document")
+    public boolean document;
+}
@@ -0,0 +1,161 @@
+package xyz.mwszksnmdys.plugin.jasypt.scan;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+import xyz.mwszksnmdys.plugin.jasypt.util.BatchNotifications;
+import xyz.mwszksnmdys.plugin.jasypt.util.BatchResult;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigFileProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.FileResult;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptEncryptor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 将明文密钥替换为 ENC(密文)
+ * 在后台按各文件生效的 jasypt 配置加密，再在 EDT 中按键和值重新定位并一次性写入文档，
+ * 结束后与批处理一样以一条通知汇总结果
+ */
+public final class SecretEncryptFix {
+
+    private SecretEncryptFix() {
+    }
+
+    /**
+     * 加密选中的结果
+     * @param project 当前项目
+     * @param findings 要加密的结果
+     */
+    public static void apply(@NotNull Project project, @NotNull List<SecretFinding> findings) {
+        Map<Path, List<SecretFinding>> byFile = new LinkedHashMap<>();
+        for (SecretFinding finding : findings) {
+            byFile.computeIfAbsent(finding.getFile(), file -> new ArrayList<>()).add(finding);
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, JasyptBundle.message("scan.fix.task.title"), true) {
+            private final Map<Path, List<String>> replacements = new LinkedHashMap<>();
+            private final List<FileResult> results = new ArrayList<>();
+            private long start;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                start = System.nanoTime();
+                for (Map.Entry<Path, List<SecretFinding>> entry : byFile.entrySet()) {
+                    Path file = entry.getKey();
+                    indicator.checkCanceled();
+                    indicator.setText(JasyptBundle.message("popup.task.background.indicator.text", file.getFileName()));
+                    long fileStart = System.nanoTime();
+                    try {
+                        replacements.put(file, encrypt(file, entry.getValue()));
+                    } catch (ProcessCanceledException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        results.add(FileResult.failed(file, System.nanoTime() - fileStart, e));
+                    }
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                for (Map.Entry<Path, List<String>> entry : replacements.entrySet()) {
+                    results.add(write(project, entry.getKey(), byFile.get(entry.getKey()), entry.getValue()));
+                }
+                BatchNotifications.notify(project, new BatchResult(results, System.nanoTime() - start));
+            }
+        });
+    }
+
+    /**
+     * 使用文件生效的 jasypt 配置加密各个值，jasypt.* 本身的配置无法用自己加密
+     */
+    private static List<String> encrypt(Path file, List<SecretFinding> findings) {
+        for (SecretFinding finding : findings) {
+            if (finding.getKey().startsWith("jasypt.")) {
+                throw new IllegalArgumentException(JasyptBundle.message("scan.fix.jasyptKey", finding.getKey()));
+            }
+        }
+        ConfigFormat format = ConfigFormat.forPath(file);
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported config file: " + file);
+        }
+        StringEncryptor encryptor = JasyptEncryptor.getEncryptor(ConfigFileProcessor.getJasyptConfig(file), SecretSession.shared(), file);
+        List<String> encrypted = new ArrayList<>(findings.size());
+        for (SecretFinding finding : findings) {
+            encrypted.add("ENC(" + format.encodeValue(JasyptEncryptor.encrypt(encryptor, finding.getValue())) + ")");
+        }
+        return encrypted;
+    }
+
+    /**
+     * 按键和值重新定位后写入文档，扫描后文件被修改时范围可能已经偏移
+     */
+    private static FileResult write(Project project, Path file, List<SecretFinding> findings, List<String> encrypted) {
+        long start = System.nanoTime();
+        VirtualFile virtualFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(file);
+        Document document = virtualFile == null ? null : FileDocumentManager.getInstance().getDocument(virtualFile);
+        ConfigFormat format = ConfigFormat.forPath(file);
+        if (document == null || format == null) {
+            return FileResult.failed(file, System.nanoTime() - start, new IOException("Cannot open " + file));
+        }
+
+        List<ConfigEntry> entries;
+        try {
+            entries = format.findEntries(document.getText());
+        } catch (Exception e) {
+            return FileResult.failed(file, System.nanoTime() - start, e);
+        }
+        List<TextRange> ranges = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        Set<ConfigEntry> used = new HashSet<>();
+        for (int i = 0; i < findings.size(); i++) {
+            SecretFinding finding = findings.get(i);
+            for (ConfigEntry entry : entries) {
+                if (!used.contains(entry) && entry.getKey().equals(finding.getKey()) && entry.getValue().trim().equals(finding.getValue())) {
+                    used.add(entry);
+                    ranges.add(entry.getRange());
+                    texts.add(encrypted.get(i));
+                    break;
+                }
+            }
+        }
+        if (ranges.isEmpty()) {
+            return FileResult.unchanged(file, System.nanoTime() - start);
+        }
+
+        // 从后往前替换，前面的范围不受影响
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt((Integer i) -> ranges.get(i).getStartOffset()).reversed());
+        WriteCommandAction.runWriteCommandAction(project, JasyptBundle.message("scan.fix.task.title"), null, () -> {
+            for (int i : order) {
+                document.replaceString(ranges.get(i).getStartOffset(), ranges.get(i).getEndOffset(), texts.get(i));
+            }
+        });
+        FileDocumentManager.getInstance().saveDocument(document);
+        return FileResult.processed(file, ranges.size(), 0, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,87 @@
+package xyz.mwszksnmdys.plugin.jasypt.scan;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * 配置文件中疑似明文密钥的值
+ */
+public final class SecretFinding {
+
+    /**
+     * 判定为密钥的原因
+     */
+    public enum Reason {
+        /** 键名包含 password、secret、token、key 等 */
+        KEY_NAME,
+        /** 值的香农熵较高，类似随机生成的令牌 */
+        ENTROPY
+    }
+
+    private final Path file;
+    private final String key;
+    private final TextRange range;
+    private final String value;
+    private final int line;
+    private final Reason reason;
+    private final double entropy;
+
+    SecretFinding(Path file, String key, TextRange range, String value, int line, Reason reason, double entropy) {
+        this.file = file;
+        this.key = key;
+        this.range = range;
+        this.value = value;
+        this.line = line;
+        this.reason = reason;
+        this.entropy = entropy;
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    /**
+     * @return 扫描时值在磁盘内容中的范围，文件修改后可能失效
+     */
+    public @NotNull TextRange getRange() {
+        return range;
+    }
+
+    public @NotNull String getValue() {
+        return value;
+    }
+
+    /**
+     * @return 从 1 开始的行号
+     */
+    public int getLine() {
+        return line;
+    }
+
+    public @NotNull Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return 每个字符的香农熵（比特）
+     */
+    public double getEntropy() {
+        return entropy;
+    }
+
+    /**
+     * @return 只显示首尾字符的值，避免在界面中泄露完整的密钥
+     */
+    public @NotNull String getMaskedValue() {
+        if (value.length() <= 4) {
+            return "****";
+        }
+        return value.charAt(0) + "****" + value.charAt(value.length() - 1);
+    }
+}
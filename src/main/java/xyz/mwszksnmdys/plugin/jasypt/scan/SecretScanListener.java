@@ -0,0 +1,68 @@
+package xyz.mwszksnmdys.plugin.jasypt.scan;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 将本地文件的 VFS 事件转发给 {@link SecretScanService}，只重新扫描变化的文件
+ * VFS 事件是应用级的，是否属于本项目的内容、是否符合遍历规则由服务在后台判断
+ */
+public class SecretScanListener implements BulkFileListener {
+    private final Project project;
+
+    public SecretScanListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        Set<VirtualFile> changed = new LinkedHashSet<>();
+        Set<Path> removed = new LinkedHashSet<>();
+        for (VFileEvent event : events) {
+            if (!(event.getFileSystem() instanceof LocalFileSystem)) {
+                continue;
+            }
+            if (event instanceof VFileDeleteEvent) {
+                addRemoved(removed, event.getPath());
+                continue;
+            }
+            if (event instanceof VFileMoveEvent) {
+                addRemoved(removed, ((VFileMoveEvent) event).getOldPath());
+            } else if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                addRemoved(removed, ((VFilePropertyChangeEvent) event).getOldPath());
+            }
+            VirtualFile file = event instanceof VFileCopyEvent ? ((VFileCopyEvent) event).findCreatedFile() : event.getFile();
+            // 目录可能带入多个配置文件，交给服务展开
+            if (file != null && (file.isDirectory() || SecretScanner.isScanned(file.getName()))) {
+                changed.add(file);
+            }
+        }
+        SecretScanService.getInstance(project).filesChanged(changed, removed);
+    }
+
+    /**
+     * 删除或移走的路径，可能是目录，其下的结果都会被移除
+     */
+    private static void addRemoved(Set<Path> removed, String path) {
+        try {
+            removed.add(Path.of(FileUtilRt.toSystemDependentName(path)));
+        } catch (InvalidPathException e) {
+            // 不是本地路径，忽略
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package xyz.mwszksnmdys.plugin.jasypt.scan;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigFileCollector;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptExecutors;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 项目级的明文密钥扫描结果缓存
+ * 首次扫描时在共享线程池中并行扫描内容根目录下的 YAML 和 Properties 文件，
+ * 之后按修改时间和大小判断，只重新扫描变化的文件；VFS 事件（见 {@link SecretScanListener}）会触发增量更新
+ */
+public final class SecretScanService implements Disposable {
+    private static final Logger logger = LoggerFactory.getLogger(SecretScanService.class);
+
+    private final Project project;
+    /** 文件 -> 扫描时的状态及结果 */
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    /** 增量更新串行执行，避免与自身交错 */
+    private final ExecutorService updater = AppExecutorUtil.createBoundedApplicationPoolExecutor("Jasypt Secret Scan", 1);
+    private volatile boolean scanned;
+
+    public SecretScanService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static SecretScanService getInstance(@NotNull Project project) {
+        return project.getService(SecretScanService.class);
+    }
+
+    /**
+     * 扫描项目的内容根目录，遍历规则与批处理一致，未变化的文件直接使用缓存
+     * @param indicator 进度指示器
+     * @return 全部结果
+     * @throws IOException 扫描任务失败
+     */
+    public @NotNull List<SecretFinding> scanProject(@NotNull ProgressIndicator indicator) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path file : ConfigFileCollector.collect(project, ProjectRootManager.getInstance(project).getContentRoots(), indicator)) {
+            if (file.getFileName() != null && SecretScanner.isScanned(file.getFileName().toString())) {
+                files.add(file);
+            }
+        }
+        entries.keySet().retainAll(new HashSet<>(files));
+
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(JasyptExecutors.getExecutor().submit(() -> refresh(file)));
+        }
+        JasyptExecutors.awaitAll(futures, indicator);
+        scanned = true;
+        return getFindings();
+    }
+
+    /**
+     * 文件发生变化，已经完成过首次扫描时在后台只重新扫描这些文件，并通知监听器
+     * 变化的文件按 {@link ConfigFileCollector} 的规则过滤，不在本项目内容中或被排除、忽略的文件不会加入结果
+     * @param files 新增、修改、移入或重命名后的文件和目录
+     * @param removed 删除、移走或重命名前的路径，可能是目录
+     */
+    public void filesChanged(@NotNull Collection<VirtualFile> files, @NotNull Collection<Path> removed) {
+        if (!scanned || (files.isEmpty() && removed.isEmpty())) {
+            return;
+        }
+        updater.execute(() -> {
+            boolean changed = false;
+            for (Path path : removed) {
+                changed |= entries.keySet().removeIf(file -> file.startsWith(path));
+            }
+            for (VirtualFile file : files) {
+                if (project.isDisposed()) {
+                    return;
+                }
+                Set<Path> collected = new HashSet<>();
+                for (Path path : ConfigFileCollector.collectInContent(project, file, null)) {
+                    if (path.getFileName() != null && SecretScanner.isScanned(path.getFileName().toString())) {
+                        collected.add(path);
+                        changed |= refresh(path);
+                    }
+                }
+                // 文件不再符合规则（例如被排除）时移除旧结果
+                if (!file.isDirectory() && file.isInLocalFileSystem()) {
+                    Path path = file.toNioPath();
+                    if (!collected.contains(path)) {
+                        changed |= entries.remove(path) != null;
+                    }
+                }
+            }
+            if (changed) {
+                ApplicationManager.getApplication().invokeLater(() -> listeners.forEach(Runnable::run), project.getDisposed());
+            }
+        });
+    }
+
+    /**
+     * @return 按文件和行号排序的全部结果
+     */
+    public @NotNull List<SecretFinding> getFindings() {
+        List<SecretFinding> findings = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            findings.addAll(entry.findings);
+        }
+        findings.sort(Comparator.comparing((SecretFinding finding) -> finding.getFile().toString())
+                .thenComparingInt(finding -> finding.getRange().getStartOffset()));
+        return findings;
+    }
+
+    /**
+     * 结果增量更新后在 EDT 中回调
+     * @param listener 监听器
+     * @param parent 监听器的生命周期
+     */
+    public void addListener(@NotNull Runnable listener, @NotNull Disposable parent) {
+        listeners.add(listener);
+        Disposer.register(parent, () -> listeners.remove(listener));
+    }
+
+    /**
+     * 文件的修改时间或大小变化时重新扫描
+     * @return 结果是否可能发生变化
+     */
+    private boolean refresh(Path file) {
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+            Entry cached = entries.get(file);
+            if (cached != null && cached.modified == modified && cached.size == size) {
+                return false;
+            }
+            entries.put(file, new Entry(modified, size, SecretScanner.scan(file, Files.readString(file))));
+            return true;
+        } catch (IOException e) {
+            logger.debug("Cannot scan {} for secrets", file, e);
+            return entries.remove(file) != null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        updater.shutdownNow();
+        listeners.clear();
+    }
+
+    private static class Entry {
+        private final long modified;
+        private final long size;
+        private final List<SecretFinding> findings;
+
+        private Entry(long modified, long size, List<SecretFinding> findings) {
+            this.modified = modified;
+            this.size = size;
+            this.findings = findings;
+        }
+    }
+}
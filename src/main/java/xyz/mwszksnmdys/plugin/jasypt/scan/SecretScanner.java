@@ -0,0 +1,141 @@
+package xyz.mwszksnmdys.plugin.jasypt.scan;
+
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 查找 YAML 和 Properties 文件中未加密的疑似密钥：键名匹配 password、secret、token、key 等，
+ * 或者值的香农熵足够高。已经是 ENC()/DEC() 或 ${...} 占位符的值不会被标记
+ */
+public final class SecretScanner {
+    private static final Logger logger = LoggerFactory.getLogger(SecretScanner.class);
+
+    /** 键的最后一段以这些词结尾时视为密钥，如 password、db-password、clientSecret、apiKey */
+    private static final Pattern SECRET_KEY = Pattern.compile("(?i)(password|passwd|pwd|secret|token|credentials?|key)$");
+    /** 熵检查只针对足够长的值，短值的熵没有区分度 */
+    static final int ENTROPY_MIN_LENGTH = 20;
+    /** 每字符的熵阈值（比特），随机 Base64 令牌通常在 4.5 以上，普通单词和路径在 3.5 以下 */
+    static final double ENTROPY_THRESHOLD = 4.0;
+    private static final Set<String> IGNORED_VALUES = Set.of("true", "false", "null", "yes", "no", "on", "off", "none", "changeit");
+    private static final Set<String> SCANNED_EXTENSIONS = Set.of("yml", "yaml", "properties");
+
+    private SecretScanner() {
+    }
+
+    /**
+     * @param fileName 文件名
+     * @return 是否扫描该文件
+     */
+    public static boolean isScanned(@NotNull String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && SCANNED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+    }
+
+    /**
+     * 扫描一个配置文件的内容
+     * @param file 文件路径
+     * @param content 文件内容
+     * @return 按文档顺序排列的疑似明文密钥，内容无法解析时返回空列表
+     */
+    public static @NotNull List<SecretFinding> scan(@NotNull Path file, @NotNull String content) {
+        List<SecretFinding> findings = new ArrayList<>();
+        ConfigFormat format = ConfigFormat.forPath(file);
+        if (format == null || file.getFileName() == null || !isScanned(file.getFileName().toString())) {
+            return findings;
+        }
+        List<ConfigEntry> entries;
+        try {
+            entries = format.findEntries(content);
+        } catch (Exception e) {
+            logger.debug("Cannot parse {} for secret scanning", file, e);
+            return findings;
+        }
+        for (ConfigEntry entry : entries) {
+            String value = entry.getValue().trim();
+            if (!isCandidate(value)) {
+                continue;
+            }
+            double entropy = entropy(value);
+            SecretFinding.Reason reason = null;
+            if (SECRET_KEY.matcher(lastSegment(entry.getKey())).find()) {
+                reason = SecretFinding.Reason.KEY_NAME;
+            } else if (looksRandom(value, entropy)) {
+                reason = SecretFinding.Reason.ENTROPY;
+            }
+            if (reason != null) {
+                int line = StringUtil.offsetToLineNumber(content, entry.getRange().getStartOffset()) + 1;
+                findings.add(new SecretFinding(file, entry.getKey(), entry.getRange(), value, line, reason, entropy));
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * 计算每个字符的香农熵
+     * @param value 值
+     * @return 熵（比特）
+     */
+    static double entropy(@NotNull String value) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        int[] counts = new int[128];
+        int other = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                counts[c]++;
+            } else {
+                other++;
+            }
+        }
+        double entropy = 0;
+        for (int count : counts) {
+            entropy -= term(count, value.length());
+        }
+        return entropy - term(other, value.length());
+    }
+
+    private static double term(int count, int length) {
+        if (count == 0) {
+            return 0;
+        }
+        double p = (double) count / length;
+        return p * Math.log(p) / Math.log(2);
+    }
+
+    private static boolean isCandidate(String value) {
+        return !value.isEmpty()
+                && !value.contains("ENC(") && !value.contains("DEC(") && !value.contains("${")
+                && !IGNORED_VALUES.contains(value.toLowerCase());
+    }
+
+    private static boolean looksRandom(String value, double entropy) {
+        if (value.length() < ENTROPY_MIN_LENGTH || entropy < ENTROPY_THRESHOLD) {
+            return false;
+        }
+        // URL、路径和句子即使熵较高也不是令牌
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return !value.contains("://") && !value.startsWith("/") && !value.startsWith("classpath:");
+    }
+
+    private static String lastSegment(String key) {
+        String segment = key.substring(key.lastIndexOf('.') + 1);
+        int bracket = segment.indexOf('[');
+        return bracket >= 0 ? segment.substring(0, bracket) : segment;
+    }
+}
@@ -0,0 +1,72 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.format.DotEnvConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 从本地 .env 文件解析密钥
+ * 从配置文件所在目录向上查找到模块根目录，离配置文件最近的 .env 中定义的变量优先。
+ * 解析结果按文件时间戳缓存
+ */
+public class DotEnvSecretResolver implements SecretResolver {
+
+    private static final String FILE_NAME = ".env";
+    private static final Map<Path, DotEnvFile> FILES = new ConcurrentHashMap<>();
+
+    @Override
+    public @Nullable String resolve(@NotNull String key, @Nullable Path configFile) throws IOException {
+        if (configFile == null) {
+            return null;
+        }
+        List<Path> chain = ConfigResolver.directoryChain(configFile.toAbsolutePath().getParent());
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            String value = variables(chain.get(i).resolve(FILE_NAME)).get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> variables(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            FILES.remove(file);
+            return Map.of();
+        }
+        if (!attributes.isRegularFile()) {
+            return Map.of();
+        }
+        long stamp = attributes.lastModifiedTime().toMillis() * 31 + attributes.size();
+        DotEnvFile cached = FILES.get(file);
+        if (cached != null && cached.stamp == stamp) {
+            return cached.variables;
+        }
+        DotEnvFile parsed = new DotEnvFile(stamp, DotEnvConfigFormat.parseVariables(Files.readString(file, StandardCharsets.UTF_8)));
+        FILES.put(file, parsed);
+        return parsed.variables;
+    }
+
+    private static class DotEnvFile {
+        private final long stamp;
+        private final Map<String, String> variables;
+
+        private DotEnvFile(long stamp, Map<String, String> variables) {
+            this.stamp = stamp;
+            this.variables = variables;
+        }
+    }
+}
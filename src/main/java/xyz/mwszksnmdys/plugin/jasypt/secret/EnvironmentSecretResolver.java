@@ -0,0 +1,17 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * 从 IDE 进程的环境变量解析密钥
+ */
+public class EnvironmentSecretResolver implements SecretResolver {
+
+    @Override
+    public @Nullable String resolve(@NotNull String key, @Nullable Path configFile) {
+        return System.getenv(key);
+    }
+}
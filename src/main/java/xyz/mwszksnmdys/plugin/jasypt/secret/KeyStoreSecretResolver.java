@@ -0,0 +1,89 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import com.intellij.ide.passwordSafe.PasswordSafe;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.KeyStore;
+
+/**
+ * 从设置中指定的 PKCS12 密钥库解析密钥
+ * 密钥以别名等于占位符键的 SecretKeyEntry 保存，例如
+ * keytool -importpass -storetype PKCS12 -keystore jasypt.p12 -alias JASYPT_PASSWORD。
+ * 密钥库密码保存在 IDE 密码库中，密钥库按文件时间戳缓存
+ */
+public class KeyStoreSecretResolver implements SecretResolver {
+
+    /** 密钥库密码在密码库中的条目名 */
+    public static final String STORE_PASSWORD_KEY = "KeyStore password";
+
+    private static volatile LoadedKeyStore cached;
+
+    @Override
+    public @Nullable String resolve(@NotNull String key, @Nullable Path configFile) throws Exception {
+        String location = JasyptSettings.getInstance().keyStorePath;
+        if (StringUtil.isEmptyOrSpaces(location)) {
+            return null;
+        }
+        Path path = Path.of(location.trim());
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        char[] password = storePassword();
+        LoadedKeyStore keyStore = load(path, password);
+        KeyStore.Entry entry = keyStore.keyStore.getEntry(key, new KeyStore.PasswordProtection(password));
+        if (entry instanceof KeyStore.SecretKeyEntry) {
+            SecretKey secretKey = ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+            return new String(secretKey.getEncoded(), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static char[] storePassword() {
+        String password = PasswordSafe.getInstance().getPassword(PasswordSafeSecretResolver.credentialAttributes(STORE_PASSWORD_KEY));
+        return password == null ? new char[0] : password.toCharArray();
+    }
+
+    private static LoadedKeyStore load(Path path, char[] password) throws Exception {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long stamp = attributes.lastModifiedTime().toMillis() * 31 + attributes.size();
+        LoadedKeyStore current = cached;
+        if (current != null && current.path.equals(path) && current.stamp == stamp) {
+            return current;
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream input = Files.newInputStream(path)) {
+            keyStore.load(input, password);
+        }
+        current = new LoadedKeyStore(path, stamp, keyStore);
+        cached = current;
+        return current;
+    }
+
+    /**
+     * 清除已加载的密钥库，修改密钥库设置后调用
+     */
+    public static void clearCache() {
+        cached = null;
+    }
+
+    private static class LoadedKeyStore {
+        private final Path path;
+        private final long stamp;
+        private final KeyStore keyStore;
+
+        private LoadedKeyStore(Path path, long stamp, KeyStore keyStore) {
+            this.path = path;
+            this.stamp = stamp;
+            this.keyStore = keyStore;
+        }
+    }
+}
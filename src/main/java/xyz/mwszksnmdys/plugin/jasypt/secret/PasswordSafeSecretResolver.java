@@ -0,0 +1,32 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import com.intellij.credentialStore.CredentialAttributes;
+import com.intellij.credentialStore.CredentialAttributesKt;
+import com.intellij.ide.passwordSafe.PasswordSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * 从 IDE 密码库（PasswordSafe，即系统钥匙串或 KeePass）解析密钥
+ * 条目的服务名为 JasyptTool — KEY，例如 ${JASYPT_PASSWORD} 对应 JasyptTool — JASYPT_PASSWORD
+ */
+public class PasswordSafeSecretResolver implements SecretResolver {
+
+    /** 密码库中的服务名前缀 */
+    public static final String SERVICE_NAME = "JasyptTool";
+
+    @Override
+    public @Nullable String resolve(@NotNull String key, @Nullable Path configFile) {
+        return PasswordSafe.getInstance().getPassword(credentialAttributes(key));
+    }
+
+    /**
+     * @param key 密钥名
+     * @return 该密钥在密码库中的条目
+     */
+    public static CredentialAttributes credentialAttributes(@NotNull String key) {
+        return new CredentialAttributes(CredentialAttributesKt.generateServiceName(SERVICE_NAME, key));
+    }
+}
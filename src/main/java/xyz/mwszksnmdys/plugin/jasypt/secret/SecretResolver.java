@@ -0,0 +1,28 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import com.intellij.openapi.extensions.ExtensionPointName;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * 密钥解析器扩展点
+ * 配置中的 ${KEY} / ${KEY:default} 占位符按注册顺序依次交给解析器，第一个返回非空值的解析器生效。
+ * 内置顺序为 JVM 系统属性、环境变量、.env 文件、PKCS12 密钥库和 IDE 密码库，
+ * 其他插件可以通过 xyz.mwszksnmdys.demo-plugin.secretResolver 扩展点注册新的来源。
+ * 解析结果由 {@link SecretSession} 按会话缓存，解析器本身无需缓存
+ */
+public interface SecretResolver {
+
+    ExtensionPointName<SecretResolver> EP_NAME = ExtensionPointName.create("xyz.mwszksnmdys.demo-plugin.secretResolver");
+
+    /**
+     * 解析密钥
+     * @param key 占位符中的键
+     * @param configFile 引用该占位符的配置文件，可为空
+     * @return 密钥，找不到时返回 null
+     * @throws Exception 来源存在但无法读取
+     */
+    @Nullable String resolve(@NotNull String key, @Nullable Path configFile) throws Exception;
+}
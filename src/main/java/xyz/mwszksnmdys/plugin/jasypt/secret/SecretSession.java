@@ -0,0 +1,118 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 密钥解析会话
+ * 解析 ${KEY} / ${KEY:default} 占位符并缓存结果，同一会话内每个键（按配置文件所在目录区分）只查询一次解析器链。
+ * 批处理为每个批次创建一个会话；编辑器中的操作使用 {@link #shared()}，其结果在一段时间后过期
+ */
+public final class SecretSession {
+    private static final Logger logger = LoggerFactory.getLogger(SecretSession.class);
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^:}]*)(?::(.*))?}");
+    /** 共享会话中解析结果的有效期，其他保存了解析后密钥的缓存也按此过期 */
+    public static final long SHARED_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final SecretSession SHARED = new SecretSession(SHARED_TTL_NANOS);
+
+    private final long ttlNanos;
+    private final Map<String, Resolved> values = new ConcurrentHashMap<>();
+
+    /**
+     * 创建不过期的会话，用于单个批次
+     */
+    public SecretSession() {
+        this(0);
+    }
+
+    private SecretSession(long ttlNanos) {
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * @return 编辑器操作共享的会话，缓存 5 分钟
+     */
+    public static SecretSession shared() {
+        return SHARED;
+    }
+
+    /**
+     * 清除共享会话的缓存，修改密钥来源设置后调用
+     */
+    public static void clearShared() {
+        SHARED.values.clear();
+    }
+
+    /**
+     * @param value 配置值
+     * @return 占位符中的键，不是占位符时返回 null
+     */
+    public static @Nullable String placeholderKey(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 解析配置值
+     * @param value 配置值，不是占位符时原样返回
+     * @param configFile 引用该值的配置文件，可为空
+     * @return 解析结果；所有解析器都找不到且没有默认值时返回 null
+     */
+    public @Nullable String resolve(@NotNull String value, @Nullable Path configFile) {
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        if (!matcher.matches()) {
+            return value;
+        }
+        String key = matcher.group(1);
+        String defaultValue = matcher.group(2);
+        Path directory = configFile == null ? null : configFile.toAbsolutePath().getParent();
+        String cacheKey = directory + "\n" + key;
+
+        Resolved resolved = values.get(cacheKey);
+        if (resolved != null && resolved.isExpired(ttlNanos)) {
+            values.remove(cacheKey, resolved);
+        }
+        resolved = values.computeIfAbsent(cacheKey, k -> new Resolved(lookup(key, configFile)));
+        return resolved.value != null ? resolved.value : defaultValue;
+    }
+
+    private static @Nullable String lookup(String key, @Nullable Path configFile) {
+        for (SecretResolver resolver : SecretResolver.EP_NAME.getExtensionList()) {
+            try {
+                String value = resolver.resolve(key, configFile);
+                if (value != null) {
+                    logger.debug("Secret {} resolved by {}", key, resolver.getClass().getSimpleName());
+                    return value;
+                }
+            } catch (Exception e) {
+                logger.warn("Secret resolver {} failed for {}", resolver.getClass().getSimpleName(), key, e);
+            }
+        }
+        return null;
+    }
+
+    private static class Resolved {
+        private final String value;
+        private final long createdNanos = System.nanoTime();
+
+        private Resolved(@Nullable String value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return ttlNanos > 0 && System.nanoTime() - createdNanos > ttlNanos;
+        }
+    }
+}
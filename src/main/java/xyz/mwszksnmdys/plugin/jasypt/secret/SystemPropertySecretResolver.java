@@ -0,0 +1,17 @@
+package xyz.mwszksnmdys.plugin.jasypt.secret;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * 从 JVM 系统属性解析密钥，例如通过 Help | Edit Custom VM Options 添加的 -DJASYPT_PASSWORD=...
+ */
+public class SystemPropertySecretResolver implements SecretResolver {
+
+    @Override
+    public @Nullable String resolve(@NotNull String key, @Nullable Path configFile) {
+        return System.getProperty(key);
+    }
+}
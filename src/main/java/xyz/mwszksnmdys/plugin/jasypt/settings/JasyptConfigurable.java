@@ -0,0 +1,156 @@
+package xyz.mwszksnmdys.plugin.jasypt.settings;
+
+import com.intellij.ide.passwordSafe.PasswordSafe;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.ui.TextFieldWithBrowseButton;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBPasswordField;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.KeyStoreSecretResolver;
+import xyz.mwszksnmdys.plugin.jasypt.secret.PasswordSafeSecretResolver;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+import xyz.mwszksnmdys.plugin.jasypt.util.AsymmetricStringEncryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.DecryptionCache;
+import xyz.mwszksnmdys.plugin.jasypt.util.EncryptOnSaveVetoer;
+import xyz.mwszksnmdys.plugin.jasypt.util.GcmStringEncryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.IntentionConfigResolver;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import java.util.Objects;
+
+/**
+ * 设置页：Settings | Tools | Jasypt
+ */
+public class JasyptConfigurable implements Configurable {
+
+    private JBTextField includeGlobsField;
+    private JBTextField excludeGlobsField;
+    private JBCheckBox respectGitIgnoreCheckBox;
+    private JBCheckBox encryptOnSaveCheckBox;
+    private JBCheckBox verifyBeforeCommitCheckBox;
+    private TextFieldWithBrowseButton keyStorePathField;
+    private JBPasswordField keyStorePasswordField;
+    private boolean keyStorePasswordModified;
+    private JBIntSpinner parallelValueThresholdSpinner;
+    private JBIntSpinner targetValueLatencySpinner;
+
+    @Override
+    public @Nls String getDisplayName() {
+        return JasyptBundle.message("settings.displayName");
+    }
+
+    @Override
+    public @Nullable JComponent createComponent() {
+        includeGlobsField = new JBTextField();
+        includeGlobsField.getEmptyText().setText("application*.yml, **/config/*.properties");
+        excludeGlobsField = new JBTextField();
+        excludeGlobsField.getEmptyText().setText("**/test/**");
+        respectGitIgnoreCheckBox = new JBCheckBox(JasyptBundle.message("settings.respectGitIgnore"));
+        encryptOnSaveCheckBox = new JBCheckBox(JasyptBundle.message("settings.encryptOnSave"));
+        verifyBeforeCommitCheckBox = new JBCheckBox(JasyptBundle.message("settings.verifyBeforeCommit"));
+        parallelValueThresholdSpinner = new JBIntSpinner(JasyptSettings.getInstance().parallelValueThreshold, 1, 1_000_000);
+        targetValueLatencySpinner = new JBIntSpinner(JasyptSettings.getInstance().targetValueLatencyMillis, 1, 10_000);
+        keyStorePathField = new TextFieldWithBrowseButton();
+        keyStorePathField.addBrowseFolderListener(JasyptBundle.message("settings.keyStorePath"), null, null,
+                FileChooserDescriptorFactory.createSingleFileDescriptor());
+        keyStorePasswordField = new JBPasswordField();
+        // 密码库读取较慢且可能弹出系统授权，只在用户修改时写入，不回显已保存的密码
+        keyStorePasswordField.getEmptyText().setText(JasyptBundle.message("settings.keyStorePassword.empty"));
+        keyStorePasswordField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                keyStorePasswordModified = true;
+            }
+        });
+
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent(JasyptBundle.message("settings.includeGlobs"), includeGlobsField)
+                .addLabeledComponent(JasyptBundle.message("settings.excludeGlobs"), excludeGlobsField)
+                .addComponent(respectGitIgnoreCheckBox)
+                .addComponent(encryptOnSaveCheckBox)
+                .addComponent(verifyBeforeCommitCheckBox)
+                .addLabeledComponent(JasyptBundle.message("settings.parallelValueThreshold"), parallelValueThresholdSpinner)
+                .addLabeledComponent(JasyptBundle.message("settings.targetValueLatency"), targetValueLatencySpinner)
+                .addLabeledComponent(JasyptBundle.message("settings.keyStorePath"), keyStorePathField)
+                .addLabeledComponent(JasyptBundle.message("settings.keyStorePassword"), keyStorePasswordField)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        JasyptSettings settings = JasyptSettings.getInstance();
+        return !Objects.equals(includeGlobsField.getText(), settings.includeGlobs)
+                || !Objects.equals(excludeGlobsField.getText(), settings.excludeGlobs)
+                || respectGitIgnoreCheckBox.isSelected() != settings.respectGitIgnore
+                || encryptOnSaveCheckBox.isSelected() != settings.encryptOnSave
+                || verifyBeforeCommitCheckBox.isSelected() != settings.verifyBeforeCommit
+                || !Objects.equals(keyStorePathField.getText(), settings.keyStorePath)
+                || keyStorePasswordModified
+                || parallelValueThresholdSpinner.getNumber() != settings.parallelValueThreshold
+                || targetValueLatencySpinner.getNumber() != settings.targetValueLatencyMillis;
+    }
+
+    @Override
+    public void apply() {
+        JasyptSettings settings = JasyptSettings.getInstance();
+        settings.includeGlobs = includeGlobsField.getText().trim();
+        settings.excludeGlobs = excludeGlobsField.getText().trim();
+        settings.respectGitIgnore = respectGitIgnoreCheckBox.isSelected();
+        settings.encryptOnSave = encryptOnSaveCheckBox.isSelected();
+        settings.verifyBeforeCommit = verifyBeforeCommitCheckBox.isSelected();
+        settings.keyStorePath = keyStorePathField.getText().trim();
+        settings.parallelValueThreshold = parallelValueThresholdSpinner.getNumber();
+        settings.targetValueLatencyMillis = targetValueLatencySpinner.getNumber();
+        if (keyStorePasswordModified) {
+            char[] password = keyStorePasswordField.getPassword();
+            PasswordSafe.getInstance().setPassword(PasswordSafeSecretResolver.credentialAttributes(KeyStoreSecretResolver.STORE_PASSWORD_KEY),
+                    password.length == 0 ? null : new String(password));
+            keyStorePasswordModified = false;
+        }
+        KeyStoreSecretResolver.clearCache();
+        SecretSession.clearShared();
+        DecryptionCache.getInstance().purge();
+        IntentionConfigResolver.clearCache();
+        EncryptOnSaveVetoer.clearCache();
+        GcmStringEncryptor.clearKeyCache();
+        AsymmetricStringEncryptor.clearKeyCache();
+    }
+
+    @Override
+    public void reset() {
+        JasyptSettings settings = JasyptSettings.getInstance();
+        includeGlobsField.setText(settings.includeGlobs);
+        excludeGlobsField.setText(settings.excludeGlobs);
+        respectGitIgnoreCheckBox.setSelected(settings.respectGitIgnore);
+        encryptOnSaveCheckBox.setSelected(settings.encryptOnSave);
+        verifyBeforeCommitCheckBox.setSelected(settings.verifyBeforeCommit);
+        keyStorePathField.setText(settings.keyStorePath);
+        parallelValueThresholdSpinner.setNumber(settings.parallelValueThreshold);
+        targetValueLatencySpinner.setNumber(settings.targetValueLatencyMillis);
+        keyStorePasswordField.setText("");
+        keyStorePasswordModified = false;
+    }
+
+    @Override
+    public void disposeUIResources() {
+        includeGlobsField = null;
+        excludeGlobsField = null;
+        respectGitIgnoreCheckBox = null;
+        encryptOnSaveCheckBox = null;
+        verifyBeforeCommitCheckBox = null;
+        keyStorePathField = null;
+        keyStorePasswordField = null;
+        parallelValueThresholdSpinner = null;
+        targetValueLatencySpinner = null;
+    }
+}
@@ -0,0 +1,76 @@
+package xyz.mwszksnmdys.plugin.jasypt.settings;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 插件的全局设置
+ */
+@State(name = "JasyptToolSettings", storages = @Storage("jasypt-tool.xml"))
+public class JasyptSettings implements PersistentStateComponent<JasyptSettings> {
+
+    /** 遍历目录时只处理匹配的文件，逗号分隔的 glob，为空时处理所有支持的配置文件 */
+    public String includeGlobs = "";
+    /** 遍历目录时跳过匹配的文件和目录，逗号分隔的 glob */
+    public String excludeGlobs = "";
+    /** 遍历目录时是否跳过 .gitignore 忽略的文件 */
+    public boolean respectGitIgnore = true;
+    /** 保存 ${KEY} 占位符密钥的 PKCS12 密钥库路径，密钥库密码保存在 IDE 密码库中 */
+    public String keyStorePath = "";
+    /** 单个文件中 ENC() 值不少于该数量时，并行加解密这些值 */
+    public int parallelValueThreshold = 256;
+    /** 迭代次数校准的目标单值耗时（毫秒） */
+    public int targetValueLatencyMillis = 5;
+    /** 保存配置文件时是否把 DEC(明文) 加密为 ENC(密文) */
+    public boolean encryptOnSave = false;
+    /** 提交前是否检查配置文件中的明文标记、明文密钥和无法解密的值 */
+    public boolean verifyBeforeCommit = true;
+
+    public static JasyptSettings getInstance() {
+        return ApplicationManager.getApplication().getService(JasyptSettings.class);
+    }
+
+    @Override
+    public @NotNull JasyptSettings getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull JasyptSettings state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+
+    /**
+     * @return 包含规则列表
+     */
+    public List<String> getIncludeGlobList() {
+        return splitGlobs(includeGlobs);
+    }
+
+    /**
+     * @return 排除规则列表
+     */
+    public List<String> getExcludeGlobList() {
+        return splitGlobs(excludeGlobs);
+    }
+
+    private static List<String> splitGlobs(String globs) {
+        List<String> result = new ArrayList<>();
+        if (globs == null) {
+            return result;
+        }
+        for (String glob : globs.split(",")) {
+            if (!glob.isBlank()) {
+                result.add(glob.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jasypt.encryption.StringEncryptor;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSA 非对称字符串加密器，与 jasypt-spring-boot 的 public-key-* / private-key-* 配置兼容
+ * 公钥加密、私钥解密，密文为 Base64 编码。
+ * PEM/DER 密钥按指纹解析一次后缓存，Cipher 按线程复用，批量加密时不会为每个值重新解析密钥。
+ * 缓存容量有上限，按最近使用淘汰，过期后重新解析
+ */
+public class AsymmetricStringEncryptor implements StringEncryptor {
+
+    /** 密钥格式 */
+    public enum KeyFormat {
+        DER, PEM;
+
+        public static KeyFormat of(@Nullable String value) {
+            return value != null && "PEM".equalsIgnoreCase(value.trim()) ? PEM : DER;
+        }
+    }
+
+    private static final String ALGORITHM = "RSA";
+    private static final KeyCache<PublicKey> PUBLIC_KEYS = new KeyCache<>(64, TimeUnit.MINUTES.toMillis(30));
+    private static final KeyCache<PrivateKey> PRIVATE_KEYS = new KeyCache<>(64, TimeUnit.MINUTES.toMillis(30));
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("RSA is not available", e);
+        }
+    });
+
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    private AsymmetricStringEncryptor(@Nullable PublicKey publicKey, @Nullable PrivateKey privateKey) {
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+    }
+
+    /**
+     * 创建加密器，公钥和私钥至少提供一个
+     * @param publicKey 公钥内容，可为空
+     * @param publicKeyFormat 公钥格式
+     * @param privateKey 私钥内容，可为空
+     * @param privateKeyFormat 私钥格式
+     * @return 加密器
+     */
+    public static AsymmetricStringEncryptor create(@Nullable String publicKey, KeyFormat publicKeyFormat,
+                                                   @Nullable String privateKey, KeyFormat privateKeyFormat) {
+        PublicKey parsedPublicKey = publicKey == null ? null
+                : PUBLIC_KEYS.get(fingerprint(publicKey), () -> parsePublicKey(publicKey, publicKeyFormat));
+        PrivateKey parsedPrivateKey = privateKey == null ? null
+                : PRIVATE_KEYS.get(fingerprint(privateKey), () -> parsePrivateKey(privateKey, privateKeyFormat));
+        return new AsymmetricStringEncryptor(parsedPublicKey, parsedPrivateKey);
+    }
+
+    /**
+     * 清空已解析的密钥缓存
+     */
+    public static void clearKeyCache() {
+        PUBLIC_KEYS.clear();
+        PRIVATE_KEYS.clear();
+    }
+
+    private static PublicKey parsePublicKey(String material, KeyFormat format) {
+        try {
+            return KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(decode(material, format)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid public key: " + e.getMessage(), e);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(String material, KeyFormat format) {
+        try {
+            return KeyFactory.getInstance(ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(decode(material, format)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid private key: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * PEM 去掉 -----BEGIN/END----- 行后按 Base64 解码，DER 直接按 Base64 解码
+     */
+    private static byte[] decode(String material, KeyFormat format) {
+        String base64 = material;
+        if (format == KeyFormat.PEM || material.contains("-----BEGIN")) {
+            base64 = material.replaceAll("-----(BEGIN|END)[^-]*-----", "");
+        }
+        return Base64.getMimeDecoder().decode(base64.replaceAll("\\s", ""));
+    }
+
+    private static String fingerprint(String material) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.trim().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return 是否配置了私钥，没有私钥时无法解密
+     */
+    public boolean canDecrypt() {
+        return privateKey != null;
+    }
+
+    /**
+     * 判断值是否像本加密器输出的密文：Base64 解码后的长度等于 RSA 模长。
+     * 只配置公钥时无法解密，批处理用它避免把已加密的值再加密一次
+     * @param value 值
+     * @return 是否像密文
+     */
+    public boolean isCiphertext(String value) {
+        if (!(publicKey instanceof RSAKey)) {
+            return false;
+        }
+        try {
+            int length = Base64.getDecoder().decode(value.trim()).length;
+            return length == (((RSAKey) publicKey).getModulus().bitLength() + 7) / 8;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String encrypt(String message) {
+        if (publicKey == null) {
+            throw new IllegalStateException("No public key configured, cannot encrypt");
+        }
+        byte[] encrypted = doFinal(Cipher.ENCRYPT_MODE, publicKey, message.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(encrypted);
+    }
+
+    @Override
+    public String decrypt(String encryptedMessage) {
+        if (privateKey == null) {
+            // 不能抛出 EncryptionOperationNotPossibleException，否则批处理会把已加密的值当作明文再次加密
+            throw new IllegalStateException("No private key configured, cannot decrypt");
+        }
+        byte[] input;
+        try {
+            input = Base64.getDecoder().decode(encryptedMessage.trim());
+        } catch (IllegalArgumentException e) {
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+        return new String(doFinal(Cipher.DECRYPT_MODE, privateKey, input), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] doFinal(int mode, Key key, byte[] input) {
+        try {
+            Cipher cipher = CIPHER.get();
+            cipher.init(mode, key);
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 批处理上下文
+ * 预先统计待处理的文件及 ENC() 值数量，按值汇报进度和剩余时间，并在值之间响应取消
+ */
+public class BatchContext {
+    private static final String ENC_REGEX = "ENC\\((.*?)\\)";
+    private static final Pattern ENC_PATTERN = Pattern.compile(ENC_REGEX);
+    private static final Logger logger = LoggerFactory.getLogger(BatchContext.class);
+
+    private final ProgressIndicator indicator;
+    private final List<Path> files;
+    private final int totalValues;
+    private final AtomicInteger processedValues = new AtomicInteger();
+    private final Set<Path> pendingRefresh;
+    private final SecretSession secrets = new SecretSession();
+    private final long startNanos = System.nanoTime();
+    private volatile int currentFileIndex;
+
+    private BatchContext(@Nullable ProgressIndicator indicator, @NotNull List<Path> files, int totalValues) {
+        this.indicator = indicator;
+        this.files = files;
+        this.totalValues = totalValues;
+        this.pendingRefresh = indicator == null ? null : ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * 不汇报进度的上下文，用于单文件等无需进度的场景
+     * @return 空上下文
+     */
+    public static BatchContext empty() {
+        return new BatchContext(null, Collections.emptyList(), 0);
+    }
+
+    /**
+     * 预扫描选中的文件和目录，统计需要处理的文件及 ENC() 值数量
+     * 目录遍历跳过被排除、被忽略的目录和构建输出目录，见 {@link ConfigFileCollector}
+     * @param project 当前项目，可为空
+     * @param indicator 进度指示器
+     * @param selectedFiles 选中的文件或目录
+     * @return 批处理上下文
+     */
+    public static BatchContext prepare(@Nullable Project project, @NotNull ProgressIndicator indicator, @NotNull VirtualFile[] selectedFiles) {
+        indicator.setIndeterminate(true);
+        indicator.setText(JasyptBundle.message("popup.task.background.indicator.scanning"));
+
+        List<Path> files = ConfigFileCollector.collect(project, selectedFiles, indicator);
+
+        // 统计前统一保存一次文档，避免逐个文件切换到 EDT
+        ApplicationManager.getApplication().invokeAndWait(() -> FileDocumentManager.getInstance().saveAllDocuments());
+
+        int totalValues = 0;
+        for (Path file : files) {
+            indicator.checkCanceled();
+            totalValues += countEncValues(file);
+        }
+
+        indicator.setIndeterminate(false);
+        indicator.setFraction(0);
+        return new BatchContext(indicator, files, totalValues);
+    }
+
+    /**
+     * 判断文件是否为支持的配置文件
+     * @param path 文件路径
+     * @return 是否为已注册的配置文件格式
+     */
+    public static boolean isConfigFile(Path path) {
+        return ConfigFormat.forPath(path) != null;
+    }
+
+    /**
+     * 统计文件中 ENC() 值的数量，与处理时一样只统计格式给出的值范围内的 ENC()，键和注释中的不计入
+     * @param file 文件路径
+     * @return ENC() 值数量，格式不支持、文件无法读取或解析时返回 0
+     */
+    static int countEncValues(Path file) {
+        ConfigFormat format = ConfigFormat.forPath(file);
+        if (format == null) {
+            return 0;
+        }
+        try {
+            String content = Files.readString(file);
+            int count = 0;
+            for (TextRange range : format.findValueRanges(content)) {
+                Matcher matcher = ENC_PATTERN.matcher(content).region(range.getStartOffset(), range.getEndOffset());
+                while (matcher.find()) {
+                    count++;
+                }
+            }
+            return count;
+        } catch (Exception e) {
+            logger.warn("Cannot pre-count ENC() values in {}", file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return 预扫描得到的待处理文件
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * @return 预扫描得到的 ENC() 值总数
+     */
+    public int getTotalValues() {
+        return totalValues;
+    }
+
+    /**
+     * 批处理中经 NIO 写入、等待统一刷新 VFS 的文件
+     * @return 待刷新文件集合，空上下文返回 null，表示写入后立即刷新
+     */
+    public @Nullable Set<Path> getPendingRefresh() {
+        return pendingRefresh;
+    }
+
+    /**
+     * @return 进度指示器，空上下文返回 null
+     */
+    public @Nullable ProgressIndicator getIndicator() {
+        return indicator;
+    }
+
+    /**
+     * 本批次共用的密钥解析会话，密码等占位符每批只解析一次
+     * @return 密钥解析会话
+     */
+    public SecretSession getSecrets() {
+        return secrets;
+    }
+
+    /**
+     * 开始处理某个文件
+     * @param index 文件序号
+     * @param file 文件路径
+     */
+    public void startFile(int index, Path file) {
+        currentFileIndex = index;
+        if (indicator == null) {
+            return;
+        }
+        indicator.checkCanceled();
+        indicator.setText(JasyptBundle.message("popup.task.background.indicator.text", file.getFileName()));
+        updateFraction();
+    }
+
+    /**
+     * 检查是否已取消，取消时抛出 {@link ProcessCanceledException}
+     */
+    public void checkCanceled() {
+        if (indicator != null) {
+            indicator.checkCanceled();
+        }
+    }
+
+    /**
+     * 一个 ENC() 值处理完毕，更新进度及剩余时间，可以在工作线程中调用
+     */
+    public void valueProcessed() {
+        int done = processedValues.incrementAndGet();
+        if (indicator == null) {
+            return;
+        }
+        updateFraction();
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (totalValues > 0 && done < totalValues) {
+            long remainingMillis = elapsedMillis * (totalValues - done) / done;
+            indicator.setText2(JasyptBundle.message("popup.task.background.indicator.details",
+                    done, totalValues, StringUtil.formatDuration(remainingMillis)));
+        } else {
+            indicator.setText2(null);
+        }
+    }
+
+    private void updateFraction() {
+        if (totalValues > 0) {
+            indicator.setFraction(Math.min(1.0, (double) processedValues.get() / totalValues));
+        } else if (!files.isEmpty()) {
+            indicator.setFraction((double) currentFileIndex / files.size());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+
+import java.util.List;
+
+/**
+ * 批处理结束后汇总通知，整个批次只弹出一条通知，不阻塞后台线程
+ */
+public final class BatchNotifications {
+    /** 通知中最多列出的失败文件数量，其余的写入日志 */
+    private static final int MAX_LISTED_FAILURES = 10;
+
+    private BatchNotifications() {
+    }
+
+    /**
+     * 发送批处理结果通知，有失败时以错误级别列出失败的文件及原因
+     * @param project 当前项目，可为空
+     * @param result 批处理结果
+     */
+    public static void notify(@Nullable Project project, @NotNull BatchResult result) {
+        String summary = JasyptBundle.message("batch.result.summary", result.getProcessedCount(), result.getFiles().size(),
+                result.getEncryptedCount(), result.getDecryptedCount(), StringUtil.formatDuration(result.getDurationMillis()));
+        List<FileResult> failures = result.getFailures();
+        if (failures.isEmpty()) {
+            NotificationGroupManager.getInstance()
+                    .getNotificationGroup("Config Processing")
+                    .createNotification(JasyptBundle.message("popup.task.process.directory.success"), summary, NotificationType.INFORMATION)
+                    .notify(project);
+            return;
+        }
+
+        StringBuilder content = new StringBuilder(StringUtil.escapeXmlEntities(summary)).append("<br/>");
+        for (int i = 0; i < Math.min(MAX_LISTED_FAILURES, failures.size()); i++) {
+            FileResult failure = failures.get(i);
+            content.append("<br/><b>").append(StringUtil.escapeXmlEntities(failure.getFile().getFileName().toString())).append("</b>: ")
+                    .append(StringUtil.escapeXmlEntities(StringUtil.notNullize(failure.getErrorMessage())));
+        }
+        if (failures.size() > MAX_LISTED_FAILURES) {
+            content.append("<br/>").append(JasyptBundle.message("batch.result.moreFailures", failures.size() - MAX_LISTED_FAILURES));
+        }
+        NotificationGroupManager.getInstance()
+                .getNotificationGroup("Config Processing")
+                .createNotification(JasyptBundle.message("batch.result.failed", failures.size()), content.toString(), NotificationType.ERROR)
+                .notify(project);
+    }
+}
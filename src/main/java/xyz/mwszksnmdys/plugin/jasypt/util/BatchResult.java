@@ -0,0 +1,52 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 一次批处理的汇总结果，按处理顺序保存每个文件的 {@link FileResult}
+ */
+public final class BatchResult {
+    private final List<FileResult> files;
+    private final long durationNanos;
+
+    public BatchResult(@NotNull List<FileResult> files, long durationNanos) {
+        this.files = Collections.unmodifiableList(files);
+        this.durationNanos = durationNanos;
+    }
+
+    public @NotNull List<FileResult> getFiles() {
+        return files;
+    }
+
+    public @NotNull List<FileResult> getFailures() {
+        return files.stream().filter(FileResult::isFailed).collect(Collectors.toList());
+    }
+
+    public boolean hasFailures() {
+        return files.stream().anyMatch(FileResult::isFailed);
+    }
+
+    /**
+     * @return 有值被加密或解密的文件数量
+     */
+    public int getProcessedCount() {
+        return (int) files.stream().filter(file -> file.getStatus() == FileResult.Status.PROCESSED).count();
+    }
+
+    public int getEncryptedCount() {
+        return files.stream().mapToInt(FileResult::getEncrypted).sum();
+    }
+
+    public int getDecryptedCount() {
+        return files.stream().mapToInt(FileResult::getDecrypted).sum();
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+}
@@ -0,0 +1,94 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.jfr.BatchEvent;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置文件批处理
+ * 先预扫描全部文件，再逐个文件、逐个值地处理，进度和取消都细化到单个 ENC() 值。
+ * 单个文件失败不会中断批次，失败原因记录在结果中，由调用方在结束后统一提示
+ */
+public class ConfigBatchProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigBatchProcessor.class);
+
+    /**
+     * 处理选中的文件和目录
+     * @param project 当前项目，可为空
+     * @param indicator 进度指示器
+     * @param selectedFiles 选中的文件或目录
+     * @return 每个文件的处理结果
+     */
+    public static @NotNull BatchResult process(@Nullable Project project, @NotNull ProgressIndicator indicator, @NotNull VirtualFile[] selectedFiles) {
+        long start = System.nanoTime();
+        BatchEvent event = new BatchEvent();
+        event.begin();
+        BatchContext context = BatchContext.prepare(project, indicator, selectedFiles);
+        List<Path> files = context.getFiles();
+        List<FileResult> results = new ArrayList<>(files.size());
+
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                context.startFile(i, file);
+                results.add(processFile(file, context));
+            }
+            indicator.setFraction(1.0);
+            BatchResult result = new BatchResult(results, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.files = files.size();
+                event.processedFiles = result.getProcessedCount();
+                event.failedFiles = result.getFailures().size();
+                event.encryptedValues = result.getEncryptedCount();
+                event.decryptedValues = result.getDecryptedCount();
+                event.commit();
+            }
+            return result;
+        } finally {
+            // 整个批次只刷新一次 VFS
+            FileUtil.refreshFiles(context.getPendingRefresh());
+        }
+    }
+
+    /**
+     * 根据文件格式处理单个文件，失败时返回失败结果而不抛出，只有取消会中断
+     * @param file 文件路径
+     * @param context 批处理上下文
+     * @return 处理结果
+     */
+    public static @NotNull FileResult processFile(@NotNull Path file, @NotNull BatchContext context) {
+        ConfigFormat format = ConfigFormat.forPath(file);
+        return format == null ? FileResult.unchanged(file, 0) : processFile(file, format, context);
+    }
+
+    /**
+     * 按指定格式处理单个文件，失败时返回失败结果而不抛出，只有取消会中断
+     * @param file 文件路径
+     * @param format 文件格式
+     * @param context 批处理上下文
+     * @return 处理结果
+     */
+    public static @NotNull FileResult processFile(@NotNull Path file, @NotNull ConfigFormat format, @NotNull BatchContext context) {
+        long start = System.nanoTime();
+        try {
+            return ConfigFileProcessor.process(file, format, context);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("Failed to process config file: {}", file, e);
+            return FileResult.failed(file, System.nanoTime() - start, e);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileTypes.FileTypeManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VFileProperty;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 收集选中文件和目录中的配置文件
+ * 通过 VFS 遍历，跳过项目中被排除或忽略的目录、.gitignore 忽略的路径以及 target、build 等常见构建输出目录，
+ * 并应用设置中的包含/排除 glob。直接选中的文件不受这些规则限制
+ */
+public final class ConfigFileCollector {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileCollector.class);
+
+    /** 没有导入为排除目录时也跳过的构建输出和工具目录 */
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(
+            "target", "build", "out", "node_modules", ".git", ".idea", ".gradle", ".svn", ".hg");
+
+    private ConfigFileCollector() {
+    }
+
+    /**
+     * 收集配置文件
+     * @param project 当前项目，可为空，为空时只按目录名和 glob 过滤
+     * @param selectedFiles 选中的文件或目录
+     * @param indicator 进度指示器，可为空
+     * @return 按遍历顺序排列、去重后的配置文件
+     */
+    public static List<Path> collect(@Nullable Project project, @NotNull VirtualFile[] selectedFiles,
+                                     @Nullable ProgressIndicator indicator) {
+        return collect(new Filter(project, true), selectedFiles, indicator);
+    }
+
+    /**
+     * 收集选中文件和目录中的所有文件，跳过的目录和排除 glob 与 {@link #collect} 相同，不限制文件格式，也不应用包含 glob
+     * @param project 当前项目，可为空
+     * @param selectedFiles 选中的文件或目录
+     * @param indicator 进度指示器，可为空
+     * @return 按遍历顺序排列、去重后的文件
+     */
+    public static List<Path> collectAll(@Nullable Project project, @NotNull VirtualFile[] selectedFiles,
+                                        @Nullable ProgressIndicator indicator) {
+        return collect(new Filter(project, false), selectedFiles, indicator);
+    }
+
+    private static List<Path> collect(Filter filter, VirtualFile[] selectedFiles, @Nullable ProgressIndicator indicator) {
+        Set<Path> files = new LinkedHashSet<>();
+        for (VirtualFile selected : selectedFiles) {
+            if (indicator != null) {
+                indicator.checkCanceled();
+            }
+            if (!selected.isDirectory()) {
+                if (!filter.configOnly || ConfigFormat.isSupported(selected.getName())) {
+                    files.add(selected.toNioPath());
+                }
+                continue;
+            }
+            walk(selected, selected, filter, indicator, files);
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * 收集项目内容中某个文件或目录下的配置文件，规则与从内容根目录遍历时一致（glob 相对内容根目录），
+     * 用于 VFS 事件的增量更新
+     * @param project 当前项目
+     * @param file 变化的文件或目录
+     * @param indicator 进度指示器，可为空
+     * @return 配置文件；不在项目内容中，或自身、上级目录被跳过时为空
+     */
+    public static List<Path> collectInContent(@NotNull Project project, @NotNull VirtualFile file,
+                                              @Nullable ProgressIndicator indicator) {
+        Filter filter = new Filter(project, true);
+        Set<Path> files = new LinkedHashSet<>();
+        VirtualFile root = ReadAction.compute(() -> {
+            if (!file.isValid() || filter.fileIndex == null) {
+                return null;
+            }
+            VirtualFile contentRoot = filter.fileIndex.getContentRootForFile(file);
+            if (contentRoot == null) {
+                return null;
+            }
+            for (VirtualFile dir = file; dir != null && !dir.equals(contentRoot); dir = dir.getParent()) {
+                if (!filter.accepts(contentRoot, dir)) {
+                    return null;
+                }
+            }
+            return contentRoot;
+        });
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        if (file.isDirectory()) {
+            walk(root, file, filter, indicator, files);
+        } else if (ReadAction.compute(() -> file.isValid() && filter.isIncluded(root, file))) {
+            files.add(file.toNioPath());
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * 收集目录中的配置文件，不区分项目
+     * @param directory 目录
+     * @return 配置文件
+     */
+    public static List<Path> collect(@NotNull Path directory) {
+        VirtualFile root = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(directory);
+        return root == null ? new ArrayList<>() : collect(null, new VirtualFile[]{root}, null);
+    }
+
+    /**
+     * 路径是否位于 target、build 等总会被跳过的目录中
+     * @param path 与系统无关的路径（以 / 分隔）
+     * @return 是否位于跳过的目录中
+     */
+    public static boolean isInSkippedDirectory(@NotNull String path) {
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (SKIPPED_DIRECTORIES.contains(segments[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 深度优先遍历 start 下的文件，glob 按相对 root 的路径匹配
+     * 每个目录在单独的读操作中处理，目录之间检查取消，大目录树不会长时间阻塞写操作
+     */
+    private static void walk(VirtualFile root, VirtualFile start, Filter filter, @Nullable ProgressIndicator indicator, Set<Path> files) {
+        Deque<VirtualFile> directories = new ArrayDeque<>();
+        directories.push(start);
+        while (!directories.isEmpty()) {
+            if (indicator != null) {
+                indicator.checkCanceled();
+            } else {
+                ProgressManager.checkCanceled();
+            }
+            VirtualFile dir = directories.pop();
+            List<VirtualFile> subdirectories = ReadAction.compute(() -> {
+                List<VirtualFile> result = new ArrayList<>();
+                if (!dir.isValid()) {
+                    return result;
+                }
+                for (VirtualFile child : dir.getChildren()) {
+                    if (!filter.accepts(root, child)) {
+                        continue;
+                    }
+                    if (child.isDirectory()) {
+                        if (!isRecursiveLink(child)) {
+                            result.add(child);
+                        }
+                    } else if (filter.isIncluded(root, child)) {
+                        files.add(child.toNioPath());
+                    }
+                }
+                return result;
+            });
+            // 逆序入栈，子目录按 getChildren() 的顺序遍历
+            for (int i = subdirectories.size() - 1; i >= 0; i--) {
+                directories.push(subdirectories.get(i));
+            }
+        }
+    }
+
+    /**
+     * 指向自身上级目录的符号链接，跟随会无限递归
+     */
+    private static boolean isRecursiveLink(VirtualFile dir) {
+        if (!dir.is(VFileProperty.SYMLINK)) {
+            return false;
+        }
+        VirtualFile target = dir.getCanonicalFile();
+        return target == null || VfsUtilCore.isAncestor(target, dir, false);
+    }
+
+    /**
+     * 从文件所在目录向上直到仓库根目录（包含 .git 的目录），检查各级 .gitignore，离文件最近且有匹配规则的一级决定结果
+     */
+    private static boolean isGitIgnored(VirtualFile file, Map<VirtualFile, GitIgnoreRules> cache) {
+        VirtualFile dir = file.getParent();
+        while (dir != null) {
+            GitIgnoreRules rules = cache.computeIfAbsent(dir, GitIgnoreRules::load);
+            String relativePath = VfsUtilCore.getRelativePath(file, dir);
+            Boolean ignored = relativePath == null ? null : rules.isIgnored(relativePath, file.getName(), file.isDirectory());
+            if (ignored != null) {
+                return ignored;
+            }
+            if (dir.findChild(".git") != null) {
+                break;
+            }
+            dir = dir.getParent();
+        }
+        return false;
+    }
+
+    private static List<GlobMatcher> toMatchers(List<String> globs) {
+        List<GlobMatcher> matchers = new ArrayList<>();
+        for (String glob : globs) {
+            try {
+                matchers.add(new GlobMatcher(glob));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid glob: {}", glob, e);
+            }
+        }
+        return matchers;
+    }
+
+    private static boolean matchesAny(List<GlobMatcher> matchers, String relativePath, String name) {
+        for (GlobMatcher matcher : matchers) {
+            if (matcher.matches(relativePath, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 遍历规则：设置中的 glob、项目的排除目录、常见构建输出目录和 .gitignore
+     */
+    private static class Filter {
+        private final @Nullable ProjectFileIndex fileIndex;
+        private final FileTypeManager fileTypeManager = FileTypeManager.getInstance();
+        private final List<GlobMatcher> includes;
+        private final List<GlobMatcher> excludes;
+        private final boolean respectGitIgnore;
+        /** 只收集配置文件并应用包含 glob */
+        private final boolean configOnly;
+        private final Map<VirtualFile, GitIgnoreRules> gitIgnoreCache = new HashMap<>();
+
+        private Filter(@Nullable Project project, boolean configOnly) {
+            JasyptSettings settings = JasyptSettings.getInstance();
+            this.fileIndex = project == null || project.isDisposed() ? null : ProjectFileIndex.getInstance(project);
+            this.includes = toMatchers(settings.getIncludeGlobList());
+            this.excludes = toMatchers(settings.getExcludeGlobList());
+            this.respectGitIgnore = settings.respectGitIgnore;
+            this.configOnly = configOnly;
+        }
+
+        /**
+         * 遍历时是否进入该文件或目录
+         */
+        private boolean accepts(VirtualFile root, VirtualFile file) {
+            if (fileTypeManager.isFileIgnored(file)) {
+                return false;
+            }
+            if (fileIndex != null && (fileIndex.isExcluded(file) || fileIndex.isUnderIgnored(file))) {
+                return false;
+            }
+            if (file.isDirectory() && SKIPPED_DIRECTORIES.contains(file.getName())) {
+                return false;
+            }
+            String relativePath = VfsUtilCore.getRelativePath(file, root);
+            if (relativePath != null && matchesAny(excludes, relativePath, file.getName())) {
+                return false;
+            }
+            return !respectGitIgnore || !isGitIgnored(file, gitIgnoreCache);
+        }
+
+        /**
+         * 已进入的文件是否为要收集的文件
+         */
+        private boolean isIncluded(VirtualFile root, VirtualFile file) {
+            if (file.isDirectory()) {
+                return false;
+            }
+            if (!configOnly) {
+                return true;
+            }
+            if (!ConfigFormat.isSupported(file.getName())) {
+                return false;
+            }
+            String relativePath = VfsUtilCore.getRelativePath(file, root);
+            return includes.isEmpty() || (relativePath != null && matchesAny(includes, relativePath, file.getName()));
+        }
+    }
+
+    /**
+     * 不含 / 的 glob 只匹配文件名，含 / 的 glob 匹配相对路径；** / 前缀同时匹配根目录下的文件
+     */
+    private static class GlobMatcher {
+        private final PathMatcher delegate;
+        private final PathMatcher rootDelegate;
+        private final boolean nameOnly;
+
+        private GlobMatcher(String glob) {
+            String pattern = glob.endsWith("/") ? glob + "**" : glob;
+            this.nameOnly = !pattern.contains("/");
+            this.delegate = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            this.rootDelegate = pattern.startsWith("**/")
+                    ? FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(3)) : null;
+        }
+
+        private boolean matches(String relativePath, String name) {
+            Path path = Path.of(nameOnly ? name : relativePath);
+            return delegate.matches(path) || (rootDelegate != null && rootDelegate.matches(path));
+        }
+    }
+
+    /**
+     * 简化的 .gitignore 规则：支持注释、目录规则（以 / 结尾）、锚定规则（包含 /）、通配符和 ! 取反，同一文件中后面的规则优先。
+     * 与 git 相同，已被忽略的目录不会再进入，其中的文件无法通过 ! 重新包含
+     */
+    private static class GitIgnoreRules {
+        private static final GitIgnoreRules EMPTY = new GitIgnoreRules(List.of());
+
+        private final List<Rule> rules;
+
+        private GitIgnoreRules(List<Rule> rules) {
+            this.rules = rules;
+        }
+
+        private static GitIgnoreRules load(VirtualFile dir) {
+            VirtualFile gitIgnore = dir.findChild(".gitignore");
+            if (gitIgnore == null || gitIgnore.isDirectory()) {
+                return EMPTY;
+            }
+            List<Rule> rules = new ArrayList<>();
+            try {
+                for (String line : new String(gitIgnore.contentsToByteArray(), StandardCharsets.UTF_8).split("\\R")) {
+                    String pattern = line.trim();
+                    if (pattern.isEmpty() || pattern.startsWith("#")) {
+                        continue;
+                    }
+                    boolean negated = pattern.startsWith("!");
+                    if (negated) {
+                        pattern = pattern.substring(1);
+                    }
+                    boolean directoryOnly = pattern.endsWith("/");
+                    if (directoryOnly) {
+                        pattern = pattern.substring(0, pattern.length() - 1);
+                    }
+                    boolean anchored = pattern.contains("/");
+                    if (pattern.startsWith("/")) {
+                        pattern = pattern.substring(1);
+                    }
+                    if (!pattern.isEmpty()) {
+                        rules.add(new Rule(FileSystems.getDefault().getPathMatcher("glob:" + pattern), anchored, directoryOnly, negated));
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Cannot read {}", gitIgnore.getPath(), e);
+            }
+            return rules.isEmpty() ? EMPTY : new GitIgnoreRules(rules);
+        }
+
+        /**
+         * @return 最后一条匹配规则的结果，没有规则匹配时返回 null
+         */
+        private @Nullable Boolean isIgnored(String relativePath, String name, boolean directory) {
+            Boolean ignored = null;
+            for (Rule rule : rules) {
+                if (rule.directoryOnly && !directory) {
+                    continue;
+                }
+                if (rule.matcher.matches(Path.of(rule.anchored ? relativePath : name))) {
+                    ignored = !rule.negated;
+                }
+            }
+            return ignored;
+        }
+    }
+
+    private static class Rule {
+        private final PathMatcher matcher;
+        private final boolean anchored;
+        private final boolean directoryOnly;
+        private final boolean negated;
+
+        private Rule(PathMatcher matcher, boolean anchored, boolean directoryOnly, boolean negated) {
+            this.matcher = matcher;
+            this.anchored = anchored;
+            this.directoryOnly = directoryOnly;
+            this.negated = negated;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.util.TextRange;
+import org.jasypt.encryption.StringEncryptor;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 配置文件处理引擎
+ * 读取文件、解析生效的 jasypt 配置、逐个值加解密并写回，所有格式共用；
+ * 各格式只通过 {@link ConfigFormat} 提供值范围和配置属性
+ */
+public class ConfigFileProcessor {
+    private static final String ENC_REGEX = "ENC\\((.*?)\\)";
+    private static final Pattern ENC_PATTERN = Pattern.compile(ENC_REGEX);
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileProcessor.class);
+
+    /**
+     * 处理单个配置文件，按值汇报进度并在值之间响应取消
+     * 先收集格式给出的值范围内的全部 ENC()，值的数量达到设置中的阈值时分块并行加解密，再按原顺序拼回文件。
+     * 取消时文件保持不变，只有全部值处理完成后才会写回
+     * @param file 文件路径
+     * @param format 文件格式
+     * @param context 批处理上下文
+     * @return 处理结果，包含加密和解密的值数量及耗时
+     * @throws Exception 解析、加解密或写入失败，配置错误为带本地化消息的 {@link IllegalArgumentException}
+     */
+    public static @NotNull FileResult process(@NotNull Path file, @NotNull ConfigFormat format, @NotNull BatchContext context) throws Exception {
+        long start = System.nanoTime();
+        String content = FileUtil.readFile(file);
+        List<EncValue> values = findEncValues(content, format, format.findValueRanges(content));
+        if (values.isEmpty()) {
+            logger.info("No ENC() content found in {}", file);
+            return FileResult.unchanged(file, System.nanoTime() - start);
+        }
+
+        // 按 Spring Boot 的优先级解析生效的 jasypt 配置，编辑器中的修改已在批次开始时保存到磁盘；密码占位符在批次内只解析一次
+        Map<String, Object> jasyptConfig = resolveJasyptConfig(file);
+        StringEncryptor encryptor = JasyptEncryptor.getEncryptor(jasyptConfig, context.getSecrets(), file);
+        // 同一配置和密钥下已解密过的密文直接取缓存的明文
+        String fingerprint = JasyptEncryptor.fingerprint(encryptor);
+
+        String[] replacements = new String[values.size()];
+        // 各值是否被解密，与 replacements 一样按位置写入，无需同步
+        boolean[] decrypted = new boolean[values.size()];
+        if (JasyptExecutors.PARALLELISM > 1 && values.size() >= JasyptSettings.getInstance().parallelValueThreshold) {
+            processParallel(values, replacements, decrypted, format, encryptor, fingerprint, context);
+        } else {
+            processRange(values, replacements, decrypted, 0, values.size(), format, encryptor, fingerprint, context);
+        }
+
+        StringBuilder processedContent = new StringBuilder(content.length());
+        int cursor = 0;
+        for (int i = 0; i < values.size(); i++) {
+            EncValue value = values.get(i);
+            processedContent.append(content, cursor, value.start).append(replacements[i]);
+            cursor = value.end;
+        }
+        processedContent.append(content, cursor, content.length());
+
+        FileUtil.writeFile(file, processedContent.toString(), context.getPendingRefresh());
+        logger.info("File processed successfully: {}", file);
+
+        int decryptedCount = 0;
+        for (boolean value : decrypted) {
+            decryptedCount += value ? 1 : 0;
+        }
+        return FileResult.processed(file, values.size() - decryptedCount, decryptedCount, System.nanoTime() - start);
+    }
+
+    /**
+     * 按文档顺序收集值范围内的 ENC()，键和注释中的 ENC( 不在范围内
+     */
+    private static List<EncValue> findEncValues(String content, ConfigFormat format, List<TextRange> ranges) {
+        List<EncValue> values = new ArrayList<>();
+        for (TextRange range : ranges) {
+            if (!range.substring(content).contains("ENC(")) {
+                continue;
+            }
+            boolean verbatim = format.isVerbatim(content, range);
+            Matcher matcher = ENC_PATTERN.matcher(content).region(range.getStartOffset(), range.getEndOffset());
+            while (matcher.find()) {
+                values.add(new EncValue(matcher.start(), matcher.end(), matcher.group(1), verbatim));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 将值分块提交到共享线程池，每块写入 replacements 中各自的位置，拼接时保持原顺序
+     */
+    private static void processParallel(List<EncValue> values, String[] replacements, boolean[] decrypted, ConfigFormat format,
+                                        StringEncryptor encryptor, String fingerprint, BatchContext context) throws Exception {
+        int chunkSize = Math.max(1, (values.size() + JasyptExecutors.PARALLELISM * 4 - 1) / (JasyptExecutors.PARALLELISM * 4));
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(values.size(), from + chunkSize);
+            futures.add(JasyptExecutors.getExecutor().submit(() -> {
+                processRange(values, replacements, decrypted, chunkStart, chunkEnd, format, encryptor, fingerprint, context);
+                return null;
+            }));
+        }
+        JasyptExecutors.awaitAll(futures, context.getIndicator());
+    }
+
+    private static void processRange(List<EncValue> values, String[] replacements, boolean[] decrypted, int from, int to, ConfigFormat format,
+                                     StringEncryptor encryptor, String fingerprint, BatchContext context) {
+        DecryptionCache cache = DecryptionCache.getInstance();
+        // 只配置了公钥的 RSA 加密器无法解密，不尝试解密，只加密还不是密文的值
+        AsymmetricStringEncryptor encryptOnly = encryptor instanceof AsymmetricStringEncryptor
+                && !((AsymmetricStringEncryptor) encryptor).canDecrypt() ? (AsymmetricStringEncryptor) encryptor : null;
+        for (int i = from; i < to; i++) {
+            context.checkCanceled();
+            EncValue encValue = values.get(i);
+            String value = encValue.verbatim ? encValue.raw : format.decodeValue(encValue.raw);
+
+            if (encryptOnly != null) {
+                replacements[i] = encryptOnly.isCiphertext(value) ? "ENC(" + encValue.raw + ")"
+                        : "ENC(" + encode(format, encValue, JasyptEncryptor.encrypt(encryptor, value)) + ")";
+                context.valueProcessed();
+                continue;
+            }
+            try {
+                // 尝试解密
+                replacements[i] = encode(format, encValue, cache.decrypt(fingerprint, value, ciphertext -> JasyptEncryptor.decrypt(encryptor, ciphertext)));
+                decrypted[i] = true;
+            } catch (EncryptionOperationNotPossibleException e) {
+                // 解密失败，说明是需要加密的值
+                replacements[i] = "ENC(" + encode(format, encValue, JasyptEncryptor.encrypt(encryptor, value)) + ")";
+            }
+            context.valueProcessed();
+        }
+    }
+
+    /**
+     * 按值所在的范围编码，CDATA 等按字面保存的值原样写回
+     */
+    private static String encode(ConfigFormat format, EncValue value, String text) {
+        return value.verbatim ? text : format.encodeValue(text);
+    }
+
+    /**
+     * 获取配置文件生效的 jasypt 配置，先保存编辑器中的修改再按 Spring Boot 的优先级解析
+     * @param file 配置文件
+     * @return jasypt 配置
+     */
+    public static Map<String, Object> getJasyptConfig(@NotNull Path file) {
+        FileUtil.saveAllDocuments();
+        return resolveJasyptConfig(file);
+    }
+
+    private static Map<String, Object> resolveJasyptConfig(Path file) {
+        try {
+            Map<String, Object> jasyptConfig = ConfigResolver.resolveJasyptConfig(file);
+            if (jasyptConfig == null) {
+                throw new RuntimeException("No jasypt configuration found");
+            }
+            return jasyptConfig;
+        } catch (Exception e) {
+            logger.error("Error loading jasypt configuration for file: {}", file, e);
+            throw new RuntimeException("Error loading jasypt configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 原文中的一个 ENC() 及其括号内的原文
+     */
+    private static class EncValue {
+        private final int start;
+        private final int end;
+        private final String raw;
+        /** 所在范围按字面保存，不经过格式的转义 */
+        private final boolean verbatim;
+
+        private EncValue(int start, int end, String raw, boolean verbatim) {
+            this.start = start;
+            this.end = end;
+            this.raw = raw;
+            this.verbatim = verbatim;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.jfr.ConfigResolutionEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按 Spring Boot 的优先级规则解析 jasypt 配置
+ * <p>
+ * 从模块根目录到配置文件所在目录逐级加载 bootstrap.* 和 application.*（以及各目录下的 config/），
+ * 同一位置 .properties 优先于 .yml/.yaml，application 优先于 bootstrap，内层目录优先于外层目录；
+ * 然后按激活的 profile 叠加多文档中的 spring.config.activate.on-profile 文档和 application-{profile}.*，
+ * spring.config.import 导入的文件优先于声明它的文件，最后叠加当前文件本身（任何 {@link ConfigFormat} 支持的格式）。
+ * <p>
+ * 每个配置源只解析一次并按文件时间戳缓存，每个目录的基础配置（不依赖 profile 的部分）缓存在目录树中，
+ * 处理成千上万个文件时每个配置源只需解析一次
+ */
+public final class ConfigResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigResolver.class);
+
+    private static final String ENCRYPTOR_PREFIX = "jasypt.encryptor.";
+    private static final String KEY_ACTIVE_PROFILES = "spring.profiles.active";
+    private static final String KEY_INCLUDE_PROFILES = "spring.profiles.include";
+    private static final String KEY_ON_PROFILE = "spring.config.activate.on-profile";
+    private static final String KEY_LEGACY_PROFILES = "spring.profiles";
+    private static final String KEY_IMPORT = "spring.config.import";
+    private static final String[] BASE_NAMES = {"bootstrap", "application"};
+    /** 同一位置内优先级从低到高 */
+    private static final String[] EXTENSIONS = {".yaml", ".yml", ".properties"};
+    private static final String[] MODULE_MARKERS = {"pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", ".git"};
+    private static final Pattern PROFILE_FILE = Pattern.compile("(?:application|bootstrap)-(.+)\\.(?:ya?ml|properties)");
+    private static final int MAX_PARENT_DEPTH = 8;
+    private static final long MISSING = -1L;
+
+    private static final Map<Path, Source> SOURCES = new ConcurrentHashMap<>();
+    private static final Map<Path, DirectoryNode> DIRECTORIES = new ConcurrentHashMap<>();
+
+    private ConfigResolver() {
+    }
+
+    /**
+     * 解析指定配置文件生效的 jasypt 配置
+     * 调用方需保证编辑器中的修改已保存，配置源从磁盘读取
+     * @param configFile 配置文件
+     * @return jasypt 配置，结构为 {encryptor: {...}}，没有任何 jasypt.encryptor 配置时返回 null
+     */
+    public static @Nullable Map<String, Object> resolveJasyptConfig(@NotNull Path configFile) {
+        ConfigResolutionEvent event = new ConfigResolutionEvent();
+        event.begin();
+        Map<String, Object> jasyptConfig = toJasyptConfig(resolve(configFile.toAbsolutePath().normalize()));
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = configFile.toString();
+            event.found = jasyptConfig != null;
+            event.commit();
+        }
+        return jasyptConfig;
+    }
+
+    private static @Nullable Map<String, Object> toJasyptConfig(Map<String, String> properties) {
+        Map<String, Object> encryptorConfig = new HashMap<>();
+        properties.forEach((key, value) -> {
+            if (key.startsWith(ENCRYPTOR_PREFIX)) {
+                encryptorConfig.put(key.substring(ENCRYPTOR_PREFIX.length()), value);
+            }
+        });
+        if (encryptorConfig.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> jasyptConfig = new HashMap<>();
+        jasyptConfig.put("encryptor", encryptorConfig);
+        return jasyptConfig;
+    }
+
+    /**
+     * 清空解析缓存
+     */
+    public static void clearCache() {
+        SOURCES.clear();
+        DIRECTORIES.clear();
+    }
+
+    private static Map<String, String> resolve(Path configFile) {
+        Path dir = configFile.getParent();
+        // ./config/ 与 ./ 属于同一层级，由上一级目录统一加载
+        Path location = dir != null && dir.getFileName() != null && "config".equals(dir.getFileName().toString())
+                ? dir.getParent() : dir;
+        List<Path> chain = directoryChain(location);
+
+        DirectoryNode node = chain.isEmpty() ? null : directoryNode(chain, chain.size() - 1);
+        Map<String, String> merged = new LinkedHashMap<>(node == null ? Collections.emptyMap() : node.properties);
+        Set<Path> applied = new HashSet<>(node == null ? Collections.emptySet() : node.sources);
+
+        Set<String> profiles = activeProfiles(merged);
+        Matcher profileFile = PROFILE_FILE.matcher(configFile.getFileName().toString());
+        if (profileFile.matches()) {
+            // 正在处理 application-{profile} 文件时视为该 profile 已激活
+            profiles.add(profileFile.group(1));
+        }
+
+        if (!profiles.isEmpty()) {
+            for (Path directory : chain) {
+                for (Path candidate : locationFiles(directory, null)) {
+                    applyDocuments(merged, candidate, profiles, true, applied, new HashSet<>());
+                }
+                for (String profile : profiles) {
+                    for (Path candidate : locationFiles(directory, profile)) {
+                        applyDocuments(merged, candidate, profiles, false, applied, new HashSet<>());
+                    }
+                }
+            }
+        }
+
+        if (!applied.contains(configFile)) {
+            applyDocuments(merged, configFile, profiles, false, applied, new HashSet<>());
+        }
+        return merged;
+    }
+
+    /**
+     * 从模块根目录（包含 pom.xml、build.gradle、.git 等）到指定目录的目录链，外层在前
+     * @param location 起始目录，可为空
+     * @return 目录链，最多向上 8 层
+     */
+    public static List<Path> directoryChain(@Nullable Path location) {
+        List<Path> chain = new ArrayList<>();
+        Path current = location;
+        while (current != null && chain.size() < MAX_PARENT_DEPTH) {
+            chain.add(0, current);
+            if (isModuleRoot(current)) {
+                break;
+            }
+            current = current.getParent();
+        }
+        return chain;
+    }
+
+    private static boolean isModuleRoot(Path dir) {
+        for (String marker : MODULE_MARKERS) {
+            if (Files.exists(dir.resolve(marker))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取目录节点，父节点和所有配置源未变化时直接复用缓存
+     */
+    private static DirectoryNode directoryNode(List<Path> chain, int index) {
+        DirectoryNode parent = index == 0 ? null : directoryNode(chain, index - 1);
+        Path dir = chain.get(index);
+        DirectoryNode cached = DIRECTORIES.get(dir);
+        if (cached != null && cached.parent == parent && cached.isUpToDate()) {
+            return cached;
+        }
+
+        Map<String, String> properties = new LinkedHashMap<>(parent == null ? Collections.emptyMap() : parent.properties);
+        Set<Path> sources = new HashSet<>(parent == null ? Collections.emptySet() : parent.sources);
+        Map<Path, Long> stamps = new HashMap<>();
+        for (Path candidate : locationFiles(dir, null)) {
+            stamps.put(candidate, stamp(candidate));
+            applyDocuments(properties, candidate, Collections.emptySet(), false, sources, new HashSet<>());
+        }
+        // 本层导入的文件也参与有效性校验，上级目录的配置源由父节点校验
+        for (Path source : sources) {
+            if (parent == null || !parent.sources.contains(source)) {
+                stamps.putIfAbsent(source, stamp(source));
+            }
+        }
+        DirectoryNode node = new DirectoryNode(parent, properties, sources, stamps);
+        DIRECTORIES.put(dir, node);
+        return node;
+    }
+
+    /**
+     * 目录下按优先级从低到高排列的候选配置文件，包括 config/ 子目录
+     * @param profile 为空时返回基础配置文件，否则返回该 profile 的配置文件
+     */
+    private static List<Path> locationFiles(Path dir, @Nullable String profile) {
+        List<Path> files = new ArrayList<>();
+        for (Path location : new Path[]{dir, dir.resolve("config")}) {
+            for (String baseName : BASE_NAMES) {
+                for (String extension : EXTENSIONS) {
+                    files.add(location.resolve(profile == null ? baseName + extension : baseName + "-" + profile + extension));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 将配置源的文档依次叠加到结果中，文档中声明的 spring.config.import 紧随其后叠加
+     * @param profiles 当前激活的 profile
+     * @param conditionalOnly 为 true 时只叠加带 profile 条件的文档，基础文档已在目录节点中叠加过
+     * @param applied 已叠加的配置源
+     * @param visiting 正在导入的配置源，防止循环导入
+     */
+    private static void applyDocuments(Map<String, String> target, Path file, Set<String> profiles, boolean conditionalOnly,
+                                       Set<Path> applied, Set<Path> visiting) {
+        Source source = source(file);
+        if (source.documents.isEmpty() || !visiting.add(file)) {
+            return;
+        }
+        applied.add(file);
+        for (Map<String, String> document : source.documents) {
+            String condition = profileCondition(document);
+            if (condition == null ? conditionalOnly : !matchesProfiles(condition, profiles)) {
+                continue;
+            }
+            target.putAll(document);
+            for (String location : listValue(document, KEY_IMPORT)) {
+                Path imported = resolveImport(file.getParent(), location);
+                if (imported != null) {
+                    applyDocuments(target, imported, profiles, false, applied, visiting);
+                }
+            }
+        }
+        visiting.remove(file);
+    }
+
+    private static @Nullable Path resolveImport(Path baseDir, String location) {
+        String path = location.trim();
+        if (path.startsWith("optional:")) {
+            path = path.substring("optional:".length());
+        }
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        } else if (path.startsWith("classpath:")) {
+            // 插件无法得知运行时 classpath，按相对当前目录处理
+            path = path.substring("classpath:".length());
+            while (path.startsWith("/")) {
+                path = path.substring(1);
+            }
+        } else if (path.contains(":") && !path.matches("^[A-Za-z]:[\\\\/].*")) {
+            // configserver: 等远程导入无法在本地解析
+            return null;
+        }
+        if (path.isEmpty()) {
+            return null;
+        }
+        return baseDir.resolve(path).normalize();
+    }
+
+    private static @Nullable String profileCondition(Map<String, String> document) {
+        String condition = document.get(KEY_ON_PROFILE);
+        return condition != null ? condition : document.get(KEY_LEGACY_PROFILES);
+    }
+
+    /**
+     * 支持逗号分隔的多个 profile 以及 !profile 取反
+     */
+    private static boolean matchesProfiles(String condition, Set<String> profiles) {
+        for (String expression : condition.split(",")) {
+            String profile = expression.trim();
+            if (profile.startsWith("!") ? !profiles.contains(profile.substring(1).trim()) : profiles.contains(profile)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> activeProfiles(Map<String, String> properties) {
+        Set<String> profiles = new LinkedHashSet<>();
+        profiles.addAll(listValue(properties, KEY_ACTIVE_PROFILES));
+        profiles.addAll(listValue(properties, KEY_INCLUDE_PROFILES));
+        String systemProfiles = System.getProperty(KEY_ACTIVE_PROFILES, System.getenv("SPRING_PROFILES_ACTIVE"));
+        if (systemProfiles != null) {
+            profiles.addAll(splitList(systemProfiles));
+        }
+        return profiles;
+    }
+
+    /**
+     * 读取逗号分隔或序列形式（key[0]、key[1]）的列表属性
+     */
+    private static List<String> listValue(Map<String, String> properties, String key) {
+        List<String> values = new ArrayList<>();
+        String value = properties.get(key);
+        if (value != null) {
+            values.addAll(splitList(value));
+        }
+        for (int i = 0; properties.containsKey(key + "[" + i + "]"); i++) {
+            values.addAll(splitList(properties.get(key + "[" + i + "]")));
+        }
+        return values;
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 获取配置源的解析结果，文件时间戳未变化时直接使用缓存
+     */
+    private static Source source(Path file) {
+        long stamp = stamp(file);
+        Source cached = SOURCES.get(file);
+        if (cached != null && cached.stamp == stamp) {
+            return cached;
+        }
+        Source source = new Source(stamp, stamp == MISSING ? Collections.emptyList() : parse(file));
+        SOURCES.put(file, source);
+        return source;
+    }
+
+    /**
+     * 按文件格式解析配置源，只保留 jasypt.* 与 spring.* 属性
+     */
+    private static List<Map<String, String>> parse(Path file) {
+        ConfigFormat format = ConfigFormat.forPath(file);
+        if (format == null) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Map<String, String>> documents = new ArrayList<>();
+            for (Map<String, String> document : format.parseDocuments(Files.readString(file, StandardCharsets.UTF_8))) {
+                Map<String, String> relevant = new LinkedHashMap<>();
+                document.forEach((key, value) -> {
+                    if (key.startsWith("jasypt.") || key.startsWith("spring.")) {
+                        relevant.put(key, value);
+                    }
+                });
+                if (!relevant.isEmpty()) {
+                    documents.add(relevant);
+                }
+            }
+            return documents;
+        } catch (Exception e) {
+            logger.warn("Failed to parse config source: {}", file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static long stamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes.lastModifiedTime().toMillis() * 31 + attributes.size() : MISSING;
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * 已解析的配置源
+     */
+    private static class Source {
+        private final long stamp;
+        private final List<Map<String, String>> documents;
+
+        private Source(long stamp, List<Map<String, String>> documents) {
+            this.stamp = stamp;
+            this.documents = documents;
+        }
+    }
+
+    /**
+     * 目录树节点：该目录及其所有上级目录合并后的基础配置
+     */
+    private static class DirectoryNode {
+        private final DirectoryNode parent;
+        private final Map<String, String> properties;
+        private final Set<Path> sources;
+        private final Map<Path, Long> stamps;
+
+        private DirectoryNode(@Nullable DirectoryNode parent, Map<String, String> properties, Set<Path> sources, Map<Path, Long> stamps) {
+            this.parent = parent;
+            this.properties = properties;
+            this.sources = sources;
+            this.stamps = stamps;
+        }
+
+        private boolean isUpToDate() {
+            for (Map.Entry<Path, Long> entry : stamps.entrySet()) {
+                if (stamp(entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.CommandProcessor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditor;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.fileEditor.TextEditor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
+import com.intellij.util.Alarm;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 配置文件的只读解密视图
+ * 在内存中的 {@link LightVirtualFile} 里把 ENC(...) 显示为 DEC(明文)，不写入磁盘。
+ * 解密在后台分块进行，编辑器可见区域内的值优先；源文档修改后延迟刷新，已解密过的密文从 {@link DecryptionCache} 中复用
+ */
+public final class DecryptedViewService implements Disposable {
+    private static final Logger logger = LoggerFactory.getLogger(DecryptedViewService.class);
+    private static final Pattern ENC_PATTERN = Pattern.compile("ENC\\((.*?)\\)");
+    /** 每次在 EDT 中写入的值数量 */
+    private static final int CHUNK_SIZE = 64;
+    private static final int REFRESH_DELAY_MILLIS = 300;
+
+    private final Project project;
+    /** 源文件 -> 打开中的视图 */
+    private final Map<VirtualFile, View> views = new ConcurrentHashMap<>();
+
+    public DecryptedViewService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static DecryptedViewService getInstance(@NotNull Project project) {
+        return project.getService(DecryptedViewService.class);
+    }
+
+    /**
+     * 打开源文件的解密视图，已经打开时切换到该视图
+     * @param source 配置文件
+     */
+    public void open(@NotNull VirtualFile source) {
+        ConfigFormat format = ConfigFormat.forFileName(source.getName());
+        Document document = FileDocumentManager.getInstance().getDocument(source);
+        if (format == null || document == null) {
+            return;
+        }
+        View view = views.get(source);
+        if (view == null) {
+            view = new View(source, document, format);
+            views.put(source, view);
+            Disposer.register(this, view);
+        }
+        FileEditorManager.getInstance(project).openFile(view.file, true);
+        view.refresh();
+    }
+
+    @Override
+    public void dispose() {
+        views.clear();
+    }
+
+    private class View implements Disposable {
+        private final VirtualFile source;
+        private final Document sourceDocument;
+        private final ConfigFormat format;
+        private final LightVirtualFile file;
+        private final Alarm alarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, this);
+        private volatile Map<String, Object> config;
+        /** 当前配置的指纹，用于 {@link DecryptionCache} */
+        private volatile String fingerprint;
+        private volatile StringEncryptor encryptor;
+        /** 每次刷新递增，旧的后台任务发现代数变化后停止 */
+        private volatile int generation;
+        /** 当前代数中各值在视图文档中的位置，只在 EDT 中访问 */
+        private List<RangeMarker> markers = new ArrayList<>();
+
+        private View(VirtualFile source, Document sourceDocument, ConfigFormat format) {
+            this.source = source;
+            this.sourceDocument = sourceDocument;
+            this.format = format;
+            this.file = new LightVirtualFile(JasyptBundle.message("view.fileName", source.getName()), source.getFileType(), sourceDocument.getText());
+            file.setOriginalFile(source);
+            file.setWritable(false);
+
+            sourceDocument.addDocumentListener(new DocumentListener() {
+                @Override
+                public void documentChanged(@NotNull DocumentEvent event) {
+                    alarm.cancelAllRequests();
+                    alarm.addRequest(View.this::refresh, REFRESH_DELAY_MILLIS);
+                }
+            }, this);
+            project.getMessageBus().connect(this).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, new FileEditorManagerListener() {
+                @Override
+                public void fileClosed(@NotNull FileEditorManager source, @NotNull VirtualFile closed) {
+                    if (closed.equals(file)) {
+                        Disposer.dispose(View.this);
+                    }
+                }
+            });
+        }
+
+        /**
+         * 用源文档的当前内容重置视图，再在后台解密其中的 ENC() 值
+         */
+        private void refresh() {
+            Document target = FileDocumentManager.getInstance().getDocument(file);
+            if (target == null) {
+                return;
+            }
+            int current = ++generation;
+            String text = sourceDocument.getText();
+            markers.forEach(RangeMarker::dispose);
+            markers = new ArrayList<>();
+            write(target, () -> target.setText(text));
+            TextRange visible = visibleRange(target.getTextLength());
+            JasyptExecutors.getExecutor().execute(() -> decryptAll(current, text, visible, target));
+        }
+
+        private void decryptAll(int current, String text, TextRange visible, Document target) {
+            try {
+                List<TextRange> values = new ArrayList<>();
+                List<String> ciphertexts = new ArrayList<>();
+                // 按字面保存的值（如 XML 的 CDATA）不经过格式的转义
+                List<Boolean> verbatim = new ArrayList<>();
+                for (TextRange range : format.findValueRanges(text)) {
+                    boolean rangeVerbatim = format.isVerbatim(text, range);
+                    Matcher matcher = ENC_PATTERN.matcher(text).region(range.getStartOffset(), range.getEndOffset());
+                    while (matcher.find()) {
+                        values.add(new TextRange(matcher.start(), matcher.end()));
+                        ciphertexts.add(rangeVerbatim ? matcher.group(1) : format.decodeValue(matcher.group(1)));
+                        verbatim.add(rangeVerbatim);
+                    }
+                }
+                if (values.isEmpty() || current != generation) {
+                    return;
+                }
+                StringEncryptor encryptor = encryptor();
+
+                // 先创建位置标记，之后各块按标记写入，前面的替换不影响后面的位置
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (current == generation) {
+                        for (TextRange value : values) {
+                            markers.add(target.createRangeMarker(value));
+                        }
+                    }
+                });
+
+                List<Integer> order = new ArrayList<>(values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    if (values.get(i).intersects(visible)) {
+                        order.add(i);
+                    }
+                }
+                for (int i = 0; i < values.size(); i++) {
+                    if (!values.get(i).intersects(visible)) {
+                        order.add(i);
+                    }
+                }
+
+                for (int from = 0; from < order.size(); from += CHUNK_SIZE) {
+                    if (current != generation) {
+                        return;
+                    }
+                    List<Integer> chunk = order.subList(from, Math.min(order.size(), from + CHUNK_SIZE));
+                    List<String> replacements = new ArrayList<>(chunk.size());
+                    for (int index : chunk) {
+                        replacements.add(decrypt(encryptor, ciphertexts.get(index), verbatim.get(index)));
+                    }
+                    ApplicationManager.getApplication().invokeLater(() -> apply(current, target, chunk, replacements));
+                }
+            } catch (Exception e) {
+                logger.warn("Cannot decrypt view of {}", source.getPath(), e);
+                NotificationGroupManager.getInstance()
+                        .getNotificationGroup("Config Processing")
+                        .createNotification(JasyptBundle.message("view.error", source.getName(), e.getMessage()), NotificationType.ERROR)
+                        .notify(project);
+            }
+        }
+
+        /**
+         * 按文件生效的 jasypt 配置创建加密器，配置不变时复用
+         */
+        private StringEncryptor encryptor() {
+            Map<String, Object> resolved = ConfigResolver.resolveJasyptConfig(source.toNioPath());
+            if (resolved == null) {
+                throw new IllegalArgumentException(JasyptBundle.message("config.error.notFound"));
+            }
+            if (encryptor == null || !resolved.equals(config)) {
+                encryptor = JasyptEncryptor.getEncryptor(resolved, SecretSession.shared(), source.toNioPath());
+                config = resolved;
+                fingerprint = JasyptEncryptor.fingerprint(encryptor);
+            }
+            return encryptor;
+        }
+
+        /**
+         * @return DEC(明文)，无法解密时返回 null，保留原来的 ENC()
+         */
+        private @Nullable String decrypt(StringEncryptor encryptor, String ciphertext, boolean verbatim) {
+            try {
+                String plaintext = DecryptionCache.getInstance().decrypt(fingerprint, ciphertext, value -> JasyptEncryptor.decrypt(encryptor, value));
+                return "DEC(" + (verbatim ? plaintext : format.encodeValue(plaintext)) + ")";
+            } catch (RuntimeException e) {
+                logger.debug("Cannot decrypt value in {}", source.getPath(), e);
+                return null;
+            }
+        }
+
+        private void apply(int current, Document target, List<Integer> chunk, List<String> replacements) {
+            if (current != generation || markers.isEmpty()) {
+                return;
+            }
+            write(target, () -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    RangeMarker marker = markers.get(chunk.get(i));
+                    if (replacements.get(i) != null && marker.isValid()) {
+                        target.replaceString(marker.getStartOffset(), marker.getEndOffset(), replacements.get(i));
+                    }
+                }
+            });
+        }
+
+        /**
+         * 视图文档对用户只读，写入时临时解除只读，且不进入撤销历史
+         */
+        private void write(Document target, Runnable change) {
+            CommandProcessor.getInstance().runUndoTransparentAction(() -> ApplicationManager.getApplication().runWriteAction(() -> {
+                target.setReadOnly(false);
+                try {
+                    change.run();
+                } finally {
+                    target.setReadOnly(true);
+                }
+            }));
+        }
+
+        /**
+         * @return 视图编辑器中可见的文本范围，编辑器尚未显示时返回文件开头
+         */
+        private TextRange visibleRange(int length) {
+            for (FileEditor fileEditor : FileEditorManager.getInstance(project).getAllEditors(file)) {
+                if (fileEditor instanceof TextEditor) {
+                    Editor editor = ((TextEditor) fileEditor).getEditor();
+                    Rectangle area = editor.getScrollingModel().getVisibleArea();
+                    if (area.height > 0) {
+                        int start = editor.logicalPositionToOffset(editor.xyToLogicalPosition(area.getLocation()));
+                        int end = editor.logicalPositionToOffset(editor.xyToLogicalPosition(
+                                new Point(area.x + area.width, area.y + area.height)));
+                        return new TextRange(Math.min(start, length), Math.min(Math.max(start, end), length));
+                    }
+                }
+            }
+            return new TextRange(0, Math.min(length, 4096));
+        }
+
+        @Override
+        public void dispose() {
+            generation++;
+            markers.forEach(RangeMarker::dispose);
+            markers = new ArrayList<>();
+            views.remove(source, this);
+        }
+    }
+}
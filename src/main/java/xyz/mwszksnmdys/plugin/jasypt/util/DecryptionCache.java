@@ -0,0 +1,176 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationActivationListener;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.wm.IdeFrame;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 会话内的解密结果缓存：加密器配置指纹 + 密文 -> 明文
+ * 每次解密都要做一次完整的 PBE 密钥派生，缓存后同一会话中重复解密（对话框预览、重复的目录处理、多个 profile 中相同的值）几乎不再耗时。
+ * 容量有上限，按最近使用淘汰；条目过期后删除；修改设置时和 IDE 失去焦点一段时间后（如锁屏、离开）清空。
+ * 指纹是解析后配置（含密码等密钥）的 HMAC-SHA256，密钥每个 IDE 会话随机生成，缓存键中不保存密码，也无法离线比对
+ */
+public final class DecryptionCache implements Disposable {
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    /** IDE 失去焦点超过该时间后清空 */
+    private static final long INACTIVE_PURGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    /** 计算指纹的密钥，每个 IDE 会话随机生成 */
+    private static final SecretKeySpec FINGERPRINT_KEY = newFingerprintKey();
+
+    /** 按访问顺序排列，最久未使用的在前 */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ScheduledFuture<?> sweeper;
+    private ScheduledFuture<?> inactivePurge;
+
+    public DecryptionCache() {
+        sweeper = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::removeExpired, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+                .subscribe(ApplicationActivationListener.TOPIC, new ApplicationActivationListener() {
+                    @Override
+                    public void applicationActivated(@NotNull IdeFrame ideFrame) {
+                        cancelInactivePurge();
+                    }
+
+                    @Override
+                    public void applicationDeactivated(@NotNull IdeFrame ideFrame) {
+                        scheduleInactivePurge();
+                    }
+                });
+    }
+
+    private static SecretKeySpec newFingerprintKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+    }
+
+    public static DecryptionCache getInstance() {
+        return ApplicationManager.getApplication().getService(DecryptionCache.class);
+    }
+
+    /**
+     * 计算加密器配置的指纹，配置相同的加密器解密结果相同
+     * 由配置创建的加密器使用 {@link JasyptEncryptor#fingerprint(org.jasypt.encryption.StringEncryptor)}，其中已包含解析后的密钥
+     * @param parts 决定加密器的内容，必须是解析后的值，如算法和密码
+     * @return 指纹
+     */
+    public static @NotNull String fingerprint(@NotNull Object... parts) {
+        StringBuilder source = new StringBuilder();
+        for (Object part : parts) {
+            source.append(part).append('\n');
+        }
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(FINGERPRINT_KEY);
+            return HexFormat.of().formatHex(mac.doFinal(source.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 返回缓存的明文，没有时调用 decryptor 解密并缓存；解密失败不缓存，异常原样抛出
+     * 解密在锁外进行，并发解密同一密文时可能重复计算，结果相同
+     * @param fingerprint 加密器配置的指纹，见 {@link #fingerprint(Object...)}
+     * @param ciphertext 密文
+     * @param decryptor 解密函数
+     * @return 明文
+     */
+    public @NotNull String decrypt(@NotNull String fingerprint, @NotNull String ciphertext, @NotNull Function<String, String> decryptor) {
+        String key = fingerprint + '\n' + ciphertext;
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    return entry.plaintext;
+                }
+                entries.remove(key);
+            }
+        }
+        String plaintext = decryptor.apply(ciphertext);
+        synchronized (entries) {
+            entries.put(key, new Entry(plaintext, now + TTL_MILLIS));
+            if (entries.size() > MAX_ENTRIES) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return plaintext;
+    }
+
+    /**
+     * 清空所有缓存的明文
+     */
+    public void purge() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return 当前缓存的条目数
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+    }
+
+    private synchronized void scheduleInactivePurge() {
+        cancelInactivePurge();
+        inactivePurge = AppExecutorUtil.getAppScheduledExecutorService().schedule(this::purge, INACTIVE_PURGE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void cancelInactivePurge() {
+        if (inactivePurge != null) {
+            inactivePurge.cancel(false);
+            inactivePurge = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        sweeper.cancel(false);
+        cancelInactivePurge();
+        purge();
+    }
+
+    private static class Entry {
+        private final String plaintext;
+        private final long expiresAt;
+
+        private Entry(String plaintext, long expiresAt) {
+            this.plaintext = plaintext;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 记录配置文件是否包含 ENC( / DEC( 标记的缓存
+ * 项目打开时在后台扫描内容根目录，之后由 VFS 事件增量维护（见 {@link EncMarkerListener}）。
+ * 同时为每个目录维护其下含标记文件的数量，菜单更新时对单个文件或目录的查询都是一次哈希查找。
+ * 所有修改都在单线程执行器中串行进行，查询可以在任意线程并发执行
+ */
+public final class EncMarkerCache {
+    private static final Logger logger = LoggerFactory.getLogger(EncMarkerCache.class);
+    private static final String[] MARKERS = {"ENC(", "DEC("};
+
+    /** 配置文件路径 -> 是否包含标记 */
+    private final Map<String, Boolean> files = new ConcurrentHashMap<>();
+    /** 目录路径 -> 其下包含标记的配置文件数量 */
+    private final Map<String, Integer> markedDescendants = new ConcurrentHashMap<>();
+    /** 已完整扫描的根目录 */
+    private final Set<String> scannedRoots = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Jasypt Marker Cache", 1);
+
+    public static EncMarkerCache getInstance() {
+        return ApplicationManager.getApplication().getService(EncMarkerCache.class);
+    }
+
+    /**
+     * 文件或目录中是否可能有需要处理的值
+     * @param file 文件或目录
+     * @return 缓存确定没有标记时返回 false；有标记或尚未扫描时返回 true
+     */
+    public boolean mayHaveWork(@NotNull VirtualFile file) {
+        String path = file.getPath();
+        if (file.isDirectory()) {
+            return !isUnderScannedRoot(path) || markedDescendants.getOrDefault(path, 0) > 0;
+        }
+        if (!ConfigFormat.isSupported(file.getName())) {
+            return false;
+        }
+        Boolean marked = files.get(path);
+        if (marked == null) {
+            fileChanged(file);
+            return true;
+        }
+        return marked;
+    }
+
+    /**
+     * 在后台扫描项目的内容根目录，遍历规则与批处理一致
+     * @param project 项目
+     */
+    public void scanProject(@NotNull Project project) {
+        executor.execute(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            VirtualFile[] roots = ProjectRootManager.getInstance(project).getContentRoots();
+            try {
+                for (Path file : ConfigFileCollector.collect(project, roots, null)) {
+                    update(FileUtilRt.toSystemIndependentName(file.toString()), containsMarker(file));
+                }
+                for (VirtualFile root : roots) {
+                    scannedRoots.add(root.getPath());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to scan ENC() markers in {}", project.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * 文件或目录被创建、修改、复制或移入，在后台重新扫描
+     * @param file 文件或目录
+     */
+    public void fileChanged(@NotNull VirtualFile file) {
+        String path = file.getPath();
+        if (ConfigFileCollector.isInSkippedDirectory(path)) {
+            return;
+        }
+        if (!file.isDirectory() && !ConfigFormat.isSupported(file.getName())) {
+            return;
+        }
+        executor.execute(() -> {
+            if (!file.isValid()) {
+                return;
+            }
+            if (file.isDirectory()) {
+                for (Path child : ConfigFileCollector.collect(null, new VirtualFile[]{file}, null)) {
+                    update(FileUtilRt.toSystemIndependentName(child.toString()), containsMarker(child));
+                }
+            } else {
+                update(path, containsMarker(file.toNioPath()));
+            }
+        });
+    }
+
+    /**
+     * 文件或目录被删除或移出，移除其自身及其下所有文件的记录
+     * @param path 与系统无关的路径
+     */
+    public void fileRemoved(@NotNull String path) {
+        executor.execute(() -> {
+            String prefix = path + "/";
+            for (String filePath : files.keySet()) {
+                if (filePath.equals(path) || filePath.startsWith(prefix)) {
+                    update(filePath, null);
+                }
+            }
+        });
+    }
+
+    /**
+     * 路径是否需要由 VFS 事件维护，只跟踪已扫描项目中的文件
+     * @param path 与系统无关的路径
+     * @return 是否需要维护
+     */
+    public boolean isTracked(@NotNull String path) {
+        return isUnderScannedRoot(path) || files.containsKey(path);
+    }
+
+    private boolean isUnderScannedRoot(String path) {
+        String current = path;
+        while (current != null) {
+            if (scannedRoots.contains(current)) {
+                return true;
+            }
+            current = parentPath(current);
+        }
+        return false;
+    }
+
+    /**
+     * 更新单个文件的记录，标记状态变化时同步调整所有上级目录的计数
+     * @param path 文件路径
+     * @param marked 是否包含标记，null 表示文件已不存在
+     */
+    private void update(String path, @Nullable Boolean marked) {
+        Boolean previous = marked == null ? files.remove(path) : files.put(path, marked);
+        int delta = (Boolean.TRUE.equals(marked) ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0);
+        if (delta == 0) {
+            return;
+        }
+        for (String dir = parentPath(path); dir != null; dir = parentPath(dir)) {
+            markedDescendants.merge(dir, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private static @Nullable String parentPath(String path) {
+        int slash = path.lastIndexOf('/');
+        if (slash < 0 || slash == path.length() - 1) {
+            return null;
+        }
+        return slash == 0 ? "/" : path.substring(0, slash);
+    }
+
+    /**
+     * 文件过大时视为包含标记，由批处理在真正处理时判断
+     */
+    private static boolean containsMarker(Path file) {
+        try {
+            if (FileUtilRt.isTooLarge(Files.size(file))) {
+                return true;
+            }
+            // 标记都是 ASCII，按单字节解码不会因编码不符而失败
+            String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            for (String marker : MARKERS) {
+                if (content.contains(marker)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            logger.debug("Cannot read {} for ENC() markers", file, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 根据 VFS 事件增量维护 {@link EncMarkerCache}，只转发事件，读取文件内容在缓存的后台执行器中进行
+ */
+public class EncMarkerListener implements BulkFileListener {
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        EncMarkerCache cache = EncMarkerCache.getInstance();
+        for (VFileEvent event : events) {
+            if (event instanceof VFileDeleteEvent) {
+                removed(cache, event.getPath());
+            } else if (event instanceof VFileMoveEvent) {
+                removed(cache, ((VFileMoveEvent) event).getOldPath());
+                changed(cache, event.getFile());
+            } else if (event instanceof VFilePropertyChangeEvent) {
+                VFilePropertyChangeEvent propertyEvent = (VFilePropertyChangeEvent) event;
+                if (propertyEvent.isRename()) {
+                    removed(cache, propertyEvent.getOldPath());
+                    changed(cache, event.getFile());
+                }
+            } else if (event instanceof VFileCopyEvent) {
+                changed(cache, ((VFileCopyEvent) event).findCreatedFile());
+            } else if (event instanceof VFileContentChangeEvent || event instanceof VFileCreateEvent) {
+                changed(cache, event.getFile());
+            }
+        }
+    }
+
+    private static void removed(EncMarkerCache cache, String path) {
+        if (cache.isTracked(path)) {
+            cache.fileRemoved(path);
+        }
+    }
+
+    private static void changed(EncMarkerCache cache, VirtualFile file) {
+        if (file != null && cache.isTracked(file.getPath())) {
+            cache.fileChanged(file);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 项目打开后在后台建立 {@link EncMarkerCache}
+ */
+public class EncMarkerStartupActivity implements StartupActivity.DumbAware {
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        EncMarkerCache.getInstance().scanProject(project);
+    }
+}
@@ -0,0 +1,184 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileDocumentSynchronizationVetoer;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.text.CharArrayUtil;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 保存配置文件时把 DEC(明文) 加密为 ENC(密文)，需在设置中开启
+ * 含有 DEC() 的文档先拒绝保存，在共享线程池中解析并加密后以一次写命令就地替换，再保存加密后的内容，明文不会写入磁盘。
+ * 加密失败时提示错误并继续拒绝保存，直到修改文档、再次手动保存时重试成功，或在设置中关闭该选项。
+ * 其余内容不改写。每个文件按生效的 jasypt 配置缓存加密器，配置不变时复用
+ */
+public class EncryptOnSaveVetoer extends FileDocumentSynchronizationVetoer {
+    private static final Logger logger = LoggerFactory.getLogger(EncryptOnSaveVetoer.class);
+    private static final Pattern DEC_PATTERN = Pattern.compile("DEC\\((.*?)\\)");
+    /** 文档当前修改对应的加密任务，只在 EDT 中读写 */
+    private static final Key<Pending> PENDING_KEY = Key.create("jasypt.encryptOnSave.pending");
+
+    /** 文件 -> 上一次使用的配置和加密器 */
+    private static final Map<Path, CachedEncryptor> ENCRYPTORS = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean maySaveDocument(@NotNull Document document, boolean isSaveExplicit) {
+        if (!JasyptSettings.getInstance().encryptOnSave || CharArrayUtil.indexOf(document.getCharsSequence(), "DEC(", 0) < 0) {
+            return true;
+        }
+        VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        ConfigFormat format = file == null || !file.isInLocalFileSystem() ? null : ConfigFormat.forFileName(file.getName());
+        if (format == null) {
+            return true;
+        }
+
+        long stamp = document.getModificationStamp();
+        Pending pending = document.getUserData(PENDING_KEY);
+        if (pending != null && pending.stamp == stamp && !(pending.failed && isSaveExplicit)) {
+            // 加密完成前和加密失败后不保存，手动保存时重试（例如修正了配置之后）；DEC( 不在值中时按原样保存
+            return pending.saveAsIs;
+        }
+        Pending next = new Pending(stamp);
+        document.putUserData(PENDING_KEY, next);
+        CharSequence text = document.getImmutableCharSequence();
+        ModalityState modality = ModalityState.defaultModalityState();
+        JasyptExecutors.getExecutor().execute(() -> encrypt(document, file, format, text.toString(), next, modality));
+        return false;
+    }
+
+    /**
+     * 在后台找出值中的 DEC() 并加密，完成后回到 EDT 替换并保存
+     */
+    private static void encrypt(Document document, VirtualFile file, ConfigFormat format, String text,
+                                Pending pending, ModalityState modality) {
+        List<TextRange> ranges = new ArrayList<>();
+        List<String> replacements = new ArrayList<>();
+        Path path = file.toNioPath();
+        boolean failed = false;
+        try {
+            StringEncryptor encryptor = null;
+            for (ConfigEntry entry : format.findEntries(text)) {
+                TextRange range = entry.getRange();
+                boolean verbatim = format.isVerbatim(text, range);
+                Matcher matcher = DEC_PATTERN.matcher(text).region(range.getStartOffset(), range.getEndOffset());
+                while (matcher.find()) {
+                    if (encryptor == null) {
+                        encryptor = getEncryptor(path);
+                    }
+                    String plaintext = verbatim ? matcher.group(1) : format.decodeValue(matcher.group(1));
+                    String ciphertext = JasyptEncryptor.encrypt(encryptor, plaintext);
+                    ranges.add(new TextRange(matcher.start(), matcher.end()));
+                    replacements.add("ENC(" + (verbatim ? ciphertext : format.encodeValue(ciphertext)) + ")");
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Cannot encrypt DEC() values in {}", path, e);
+            ranges.clear();
+            failed = true;
+            NotificationGroupManager.getInstance()
+                    .getNotificationGroup("Config Processing")
+                    .createNotification(JasyptBundle.message("encryptOnSave.error", file.getName(), e.getMessage()), NotificationType.ERROR)
+                    .notify(null);
+        }
+        boolean encryptionFailed = failed;
+        ApplicationManager.getApplication().invokeLater(() -> apply(document, pending, ranges, replacements, encryptionFailed), modality);
+    }
+
+    /**
+     * 文档在加密期间没有变化时，在一次写命令中替换所有 DEC() 范围并保存；有变化时放弃结果，下一次保存时重新加密。
+     * 加密失败时记录在任务上，不保存
+     */
+    private static void apply(Document document, Pending pending, List<TextRange> ranges, List<String> replacements, boolean failed) {
+        if (document.getUserData(PENDING_KEY) != pending) {
+            return;
+        }
+        if (document.getModificationStamp() != pending.stamp) {
+            document.putUserData(PENDING_KEY, null);
+            return;
+        }
+        if (failed) {
+            pending.failed = true;
+            return;
+        }
+        if (ranges.isEmpty()) {
+            pending.saveAsIs = true;
+        } else {
+            WriteCommandAction.runWriteCommandAction(null, JasyptBundle.message("encryptOnSave.command"), null, () -> {
+                // 从后往前替换，前面范围的偏移量不受影响
+                for (int i = ranges.size() - 1; i >= 0; i--) {
+                    TextRange range = ranges.get(i);
+                    document.replaceString(range.getStartOffset(), range.getEndOffset(), replacements.get(i));
+                }
+            });
+            document.putUserData(PENDING_KEY, null);
+        }
+        FileDocumentManager.getInstance().saveDocument(document);
+    }
+
+    /**
+     * 按文件生效的配置获取加密器，配置不变时复用上一次创建的实例
+     */
+    private static StringEncryptor getEncryptor(Path file) {
+        Map<String, Object> config = ConfigResolver.resolveJasyptConfig(file);
+        if (config == null) {
+            throw new IllegalArgumentException(JasyptBundle.message("config.error.notFound"));
+        }
+        CachedEncryptor cached = ENCRYPTORS.get(file);
+        if (cached == null || !cached.config.equals(config)) {
+            cached = new CachedEncryptor(config, JasyptEncryptor.getEncryptor(config, SecretSession.shared(), file));
+            ENCRYPTORS.put(file, cached);
+        }
+        return cached.encryptor;
+    }
+
+    /**
+     * 清空缓存的加密器
+     */
+    public static void clearCache() {
+        ENCRYPTORS.clear();
+    }
+
+    private static class Pending {
+        private final long stamp;
+        private boolean saveAsIs;
+        private boolean failed;
+
+        private Pending(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private static class CachedEncryptor {
+        private final Map<String, Object> config;
+        private final StringEncryptor encryptor;
+
+        private CachedEncryptor(Map<String, Object> config, StringEncryptor encryptor) {
+            this.config = config;
+            this.encryptor = encryptor;
+        }
+    }
+}
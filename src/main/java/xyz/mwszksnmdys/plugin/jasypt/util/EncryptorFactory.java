@@ -1,5 +1,6 @@
 package xyz.mwszksnmdys.plugin.jasypt.util;
 
+import com.intellij.openapi.progress.ProgressIndicator;
 import org.jasypt.encryption.pbe.PooledPBEByteEncryptor;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
@@ -12,17 +13,21 @@ import org.jasypt.util.text.BasicTextEncryptor;
 import org.jasypt.util.text.StrongTextEncryptor;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
 
-import javax.swing.*;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedMap;
 
 /**
  * Jasypt 加密工具工厂类
- * 提供多种类型的加密器支持，包括 PBE、标准对称加密、摘要和非对称加密
+ * 提供多种类型的加密器支持，包括 PBE、标准对称加密、摘要和非对称加密。
+ * 参数无效时抛出带有本地化消息的 {@link IllegalArgumentException}，由调用方决定如何展示
  */
 public class EncryptorFactory {
 
@@ -34,7 +39,8 @@ public class EncryptorFactory {
      * @param iterations 密钥获取迭代次数，默认1000
      * @param poolSize 池大小，默认1
      * @param outputType 输出类型，默认base64
-     * @return 配置好的 PBE 加密器，或配置失败时返回 null
+     * @return 配置好的 PBE 加密器
+     * @throws IllegalArgumentException 密钥或算法为空
      */
     public static PooledPBEStringEncryptor createPBEEncryptor(
             String key, 
@@ -44,13 +50,11 @@ public class EncryptorFactory {
             String outputType) {
             
         if (key == null || key.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.password.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
         }
         
         if (algorithm == null || algorithm.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.algorithm.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.algorithm.empty"));
         }
         
         PooledPBEStringEncryptor encryptor = new PooledPBEStringEncryptor();
@@ -97,13 +101,11 @@ public class EncryptorFactory {
             String outputType) {
             
         if (key == null || key.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.password.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
         }
         
         if (algorithm == null || algorithm.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.algorithm.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.algorithm.empty"));
         }
         
         PooledPBEStringEncryptor encryptor = new PooledPBEStringEncryptor();
@@ -132,6 +134,91 @@ public class EncryptorFactory {
         return encryptor;
     }
     
+    /**
+     * 创建使用原始密钥的 AES-GCM 加密器（对应 jasypt.encryptor.gcm-secret-key-string）
+     *
+     * @param base64Key Base64 编码的 AES 密钥
+     * @return AES-GCM 加密器
+     * @throws IllegalArgumentException 密钥无效
+     */
+    public static GcmStringEncryptor createGCMEncryptor(String base64Key) {
+        if (base64Key == null || base64Key.isEmpty()) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
+        }
+
+        try {
+            return GcmStringEncryptor.fromKey(base64Key);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.gcm.key", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 创建由密码派生密钥的 AES-GCM 加密器（对应 jasypt.encryptor.gcm-secret-key-password）
+     * 派生出的密钥按参数缓存，批量加解密时每个值只需一次 AES-GCM 运算
+     *
+     * @param password 密码
+     * @param salt Base64 编码的盐
+     * @param iterations 密钥派生迭代次数，默认1000
+     * @param keyAlgorithm 密钥派生算法，默认PBKDF2WithHmacSHA256
+     * @return AES-GCM 加密器
+     * @throws IllegalArgumentException 密钥无效
+     */
+    public static GcmStringEncryptor createGCMEncryptor(
+            String password,
+            String salt,
+            Integer iterations,
+            String keyAlgorithm) {
+
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
+        }
+
+        if (salt == null || salt.isEmpty()) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.gcm.salt.empty"));
+        }
+
+        try {
+            return GcmStringEncryptor.fromPassword(password, salt,
+                    iterations != null ? iterations : GcmStringEncryptor.DEFAULT_KEY_ITERATIONS,
+                    keyAlgorithm != null && !keyAlgorithm.isEmpty() ? keyAlgorithm : GcmStringEncryptor.DEFAULT_KEY_ALGORITHM);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.gcm.key", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 创建 RSA 非对称加密器（对应 jasypt.encryptor.public-key-* / private-key-*）
+     * 只提供公钥时只能加密，只提供私钥时只能解密
+     *
+     * @param publicKey 公钥内容
+     * @param publicKeyFormat 公钥格式，DER 或 PEM，默认DER
+     * @param privateKey 私钥内容
+     * @param privateKeyFormat 私钥格式，DER 或 PEM，默认DER
+     * @return RSA 加密器
+     * @throws IllegalArgumentException 密钥无效
+     */
+    public static AsymmetricStringEncryptor createAsymmetricEncryptor(
+            String publicKey,
+            String publicKeyFormat,
+            String privateKey,
+            String privateKeyFormat) {
+
+        if ((publicKey == null || publicKey.isEmpty()) && (privateKey == null || privateKey.isEmpty())) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.asymmetric.key.empty"));
+        }
+
+        try {
+            return AsymmetricStringEncryptor.create(
+                    publicKey == null || publicKey.isEmpty() ? null : publicKey,
+                    AsymmetricStringEncryptor.KeyFormat.of(publicKeyFormat),
+                    privateKey == null || privateKey.isEmpty() ? null : privateKey,
+                    AsymmetricStringEncryptor.KeyFormat.of(privateKeyFormat));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.asymmetric.key", e.getMessage()), e);
+        }
+    }
+
     /**
      * 创建标准的强文本加密器（使用AES算法）
      * 
@@ -140,8 +227,7 @@ public class EncryptorFactory {
      */
     public static StrongTextEncryptor createStandardEncryptor(String key) {
         if (key == null || key.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.password.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
         }
         
         StrongTextEncryptor encryptor = new StrongTextEncryptor();
@@ -157,8 +243,7 @@ public class EncryptorFactory {
      */
     public static BasicTextEncryptor createBasicEncryptor(String key) {
         if (key == null || key.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.password.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
         }
         
         BasicTextEncryptor encryptor = new BasicTextEncryptor();
@@ -169,19 +254,18 @@ public class EncryptorFactory {
 
     
     /**
-     * 创建不使用盐的简单摘要
+     * 创建不使用盐的简单摘要，MessageDigest 按线程复用
      * 
      * @param algorithm 摘要算法名称
      * @return 摘要结果
      */
     public static String createSimpleDigest(String input, String algorithm) {
         try {
-            MessageDigest md = MessageDigest.getInstance(algorithm); // "MD5", "SHA-256" 等
+            MessageDigest md = FileDigester.getDigest(algorithm); // "MD5", "SHA-256" 等
             byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(digest);
         } catch (NoSuchAlgorithmException e) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.algorithm.unsupported", algorithm), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.algorithm.unsupported", algorithm), e);
         }
     }
     
@@ -194,13 +278,11 @@ public class EncryptorFactory {
      */
     public static PooledPBEByteEncryptor createByteEncryptor(String key, String algorithm) {
         if (key == null || key.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.password.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
         }
         
         if (algorithm == null || algorithm.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.algorithm.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.algorithm.empty"));
         }
         
         PooledPBEByteEncryptor encryptor = new PooledPBEByteEncryptor();
@@ -222,6 +304,46 @@ public class EncryptorFactory {
         return encryptor;
     }
     
+    /**
+     * 创建用于大文件的流式分块加密器
+     * 与 {@link #createByteEncryptor} 不同，文件不会整体读入内存，密钥只派生一次，各分块可并行处理
+     *
+     * @param key 密钥
+     * @param chunkSize 分块大小，默认256KB
+     * @return 文件加密器
+     */
+    public static FileCryptor createFileEncryptor(String key, Integer chunkSize) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.password.empty"));
+        }
+
+        return new FileCryptor(key, chunkSize != null && chunkSize > 0 ? chunkSize : FileCryptor.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 创建文件摘要清单，流式读取并在多个文件间并行计算
+     *
+     * @param files 文件
+     * @param baseDir 清单路径的相对基准目录
+     * @param algorithm 摘要算法名称
+     * @param indicator 进度指示器，可为空
+     * @return 路径 → 摘要 的清单
+     * @throws IllegalArgumentException 算法不支持
+     * @throws IOException IO异常
+     */
+    public static SortedMap<String, String> createFileDigestManifest(
+            Collection<Path> files,
+            Path baseDir,
+            String algorithm,
+            ProgressIndicator indicator) throws IOException {
+        try {
+            FileDigester.getDigest(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.algorithm.unsupported", algorithm), e);
+        }
+        return FileDigester.digestAll(files, baseDir, algorithm, indicator);
+    }
+
     /**
      * 获取所有支持的PBE算法列表
      * 
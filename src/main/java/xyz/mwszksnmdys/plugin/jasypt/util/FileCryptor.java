@@ -0,0 +1,321 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 二进制文件流式加密工具
+ * 文件按固定大小分块，每块使用 AES-GCM 独立认证加密，通过 FileChannel 按位置并行读写，内存占用与文件大小无关。
+ * 密钥由密码经 PBKDF2 派生一次，文件头参与每块的认证，块序号写入 nonce，最后一块带结束标记，可发现篡改、换序与截断。
+ */
+public class FileCryptor {
+    private static final Logger logger = LoggerFactory.getLogger(FileCryptor.class);
+
+    /** 加密文件的默认扩展名 */
+    public static final String ENCRYPTED_EXTENSION = ".enc";
+    /** 默认分块大小 */
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private static final byte[] MAGIC = "JSYPTENC".getBytes(StandardCharsets.US_ASCII);
+    private static final byte VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int NONCE_SEED_LENGTH = 4;
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + 4 + 4 + SALT_LENGTH + NONCE_SEED_LENGTH;
+    private static final int TAG_LENGTH = 16;
+    private static final int KEY_ITERATIONS = 100_000;
+    private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    });
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final char[] password;
+    private final int chunkSize;
+
+    public FileCryptor(@NotNull String password, int chunkSize) {
+        this.password = password.toCharArray();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 判断文件是否为本工具加密的文件
+     * @param path 文件路径
+     * @return 文件头是否匹配
+     */
+    public static boolean isEncryptedFile(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            readFully(channel, magic, 0);
+            return Arrays.equals(magic.array(), MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 根据文件头计算 {@link #process} 的目标文件：已加密的文件去掉 .enc（没有时追加 .dec），其余文件追加 .enc
+     * @param source 源文件
+     * @return 同目录的目标文件
+     */
+    public static Path targetOf(Path source) {
+        String name = source.getFileName().toString();
+        if (isEncryptedFile(source)) {
+            String targetName = name.endsWith(ENCRYPTED_EXTENSION) && name.length() > ENCRYPTED_EXTENSION.length()
+                    ? name.substring(0, name.length() - ENCRYPTED_EXTENSION.length())
+                    : name + ".dec";
+            return source.resolveSibling(targetName);
+        }
+        return source.resolveSibling(name + ENCRYPTED_EXTENSION);
+    }
+
+    /**
+     * 根据文件头自动选择加密或解密，结果写入同目录的目标文件，源文件保持不变
+     * @param source 源文件
+     * @param overwrite 目标文件已存在时是否覆盖，为 false 时抛出 {@link FileAlreadyExistsException}
+     * @param indicator 进度指示器，可为空
+     * @return 生成的目标文件
+     * @throws IOException IO异常或认证失败
+     */
+    public Path process(Path source, boolean overwrite, @Nullable ProgressIndicator indicator) throws IOException {
+        Path target = targetOf(source);
+        if (isEncryptedFile(source)) {
+            decrypt(source, target, overwrite, indicator);
+        } else {
+            encrypt(source, target, overwrite, indicator);
+        }
+        return target;
+    }
+
+    /**
+     * 加密文件
+     * @param source 明文文件
+     * @param target 密文文件
+     * @param overwrite 目标文件已存在时是否覆盖，为 false 时抛出 {@link FileAlreadyExistsException}
+     * @param indicator 进度指示器，可为空
+     * @throws IOException IO异常
+     */
+    public void encrypt(Path source, Path target, boolean overwrite, @Nullable ProgressIndicator indicator) throws IOException {
+        checkTarget(target, overwrite);
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] nonceSeed = new byte[NONCE_SEED_LENGTH];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(nonceSeed);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.put(MAGIC).put(VERSION).putInt(chunkSize).putInt(KEY_ITERATIONS).put(salt).put(nonceSeed);
+        byte[] headerBytes = header.array();
+        SecretKey key = deriveKey(salt, KEY_ITERATIONS);
+
+        Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, ByteBuffer.wrap(headerBytes), 0);
+            long size = in.size();
+            long chunks = Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+            runChunks(chunks, indicator, index -> {
+                long plainOffset = index * chunkSize;
+                int plainLength = (int) Math.min(chunkSize, size - plainOffset);
+                ByteBuffer plain = ByteBuffer.allocate(plainLength);
+                readFully(in, plain, plainOffset);
+                boolean last = index == chunks - 1;
+                byte[] encrypted = crypt(Cipher.ENCRYPT_MODE, key, nonceSeed, index, headerBytes, last, plain.array());
+                writeFully(out, ByteBuffer.wrap(encrypted), HEADER_LENGTH + index * (long) (chunkSize + TAG_LENGTH));
+            });
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        moveToTarget(tempFile, target, overwrite);
+    }
+
+    /**
+     * 解密文件，任一分块认证失败时不会生成目标文件
+     * @param source 密文文件
+     * @param target 明文文件
+     * @param overwrite 目标文件已存在时是否覆盖，为 false 时抛出 {@link FileAlreadyExistsException}
+     * @param indicator 进度指示器，可为空
+     * @throws IOException IO异常或认证失败
+     */
+    public void decrypt(Path source, Path target, boolean overwrite, @Nullable ProgressIndicator indicator) throws IOException {
+        checkTarget(target, overwrite);
+        Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            readFully(in, header, 0);
+            byte[] headerBytes = header.array();
+            header.flip();
+
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || header.get() != VERSION) {
+                throw new IOException("Not a Jasypt encrypted file: " + source);
+            }
+            int fileChunkSize = header.getInt();
+            int iterations = header.getInt();
+            byte[] salt = new byte[SALT_LENGTH];
+            byte[] nonceSeed = new byte[NONCE_SEED_LENGTH];
+            header.get(salt).get(nonceSeed);
+            if (fileChunkSize <= 0) {
+                throw new IOException("Corrupted header: " + source);
+            }
+
+            SecretKey key = deriveKey(salt, iterations);
+            long bodySize = in.size() - HEADER_LENGTH;
+            long encryptedChunkSize = (long) fileChunkSize + TAG_LENGTH;
+            long chunks = (bodySize + encryptedChunkSize - 1) / encryptedChunkSize;
+            if (chunks == 0 || bodySize - (chunks - 1) * encryptedChunkSize < TAG_LENGTH) {
+                throw new IOException("Truncated encrypted file: " + source);
+            }
+
+            runChunks(chunks, indicator, index -> {
+                long offset = HEADER_LENGTH + index * encryptedChunkSize;
+                int length = (int) Math.min(encryptedChunkSize, in.size() - offset);
+                ByteBuffer encrypted = ByteBuffer.allocate(length);
+                readFully(in, encrypted, offset);
+                boolean last = index == chunks - 1;
+                byte[] plain = crypt(Cipher.DECRYPT_MODE, key, nonceSeed, index, headerBytes, last, encrypted.array());
+                writeFully(out, ByteBuffer.wrap(plain), index * (long) fileChunkSize);
+            });
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        moveToTarget(tempFile, target, overwrite);
+    }
+
+    private interface ChunkTask {
+        void run(long index) throws IOException;
+    }
+
+    /**
+     * 以有限窗口并行处理分块，同时在内存中的分块数不超过并行度的两倍
+     */
+    private void runChunks(long chunks, @Nullable ProgressIndicator indicator, ChunkTask task) throws IOException {
+        int window = JasyptExecutors.PARALLELISM * 2;
+        AtomicLong done = new AtomicLong();
+        for (long start = 0; start < chunks; start += window) {
+            if (indicator != null) {
+                indicator.checkCanceled();
+            }
+            long end = Math.min(chunks, start + window);
+            List<Future<?>> futures = new ArrayList<>();
+            for (long index = start; index < end; index++) {
+                long chunkIndex = index;
+                futures.add(JasyptExecutors.getExecutor().submit(() -> {
+                    task.run(chunkIndex);
+                    return null;
+                }));
+            }
+            JasyptExecutors.awaitAll(futures, indicator);
+            if (indicator != null) {
+                indicator.setFraction((double) done.addAndGet(end - start) / chunks);
+            }
+        }
+    }
+
+    private static byte[] crypt(int mode, SecretKey key, byte[] nonceSeed, long index, byte[] header, boolean last, byte[] input) throws IOException {
+        byte[] nonce = ByteBuffer.allocate(NONCE_SEED_LENGTH + 8).put(nonceSeed).putLong(index).array();
+        try {
+            Cipher cipher = CIPHER.get();
+            cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+            cipher.updateAAD(header);
+            cipher.updateAAD(new byte[]{(byte) (last ? 1 : 0)});
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Chunk " + index + " failed authentication or encryption", e);
+        }
+    }
+
+    private SecretKey deriveKey(byte[] salt, int iterations) throws IOException {
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance(KEY_ALGORITHM);
+            byte[] encoded = factory.generateSecret(new PBEKeySpec(password, salt, iterations, 256)).getEncoded();
+            return new SecretKeySpec(encoded, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Key derivation failed", e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static void checkTarget(Path target, boolean overwrite) throws FileAlreadyExistsException {
+        if (!overwrite && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString(), null, JasyptBundle.message("file.crypt.target.exists"));
+        }
+    }
+
+    /**
+     * 把临时文件移动到目标位置；不覆盖时目标在处理期间被创建也会失败，并删除临时文件
+     */
+    private static void moveToTarget(Path source, Path target, boolean overwrite) throws IOException {
+        if (!overwrite) {
+            try {
+                Files.move(source, target);
+            } catch (IOException e) {
+                Files.deleteIfExists(source);
+                if (e instanceof FileAlreadyExistsException) {
+                    throw new FileAlreadyExistsException(target.toString(), null, JasyptBundle.message("file.crypt.target.exists"));
+                }
+                throw e;
+            }
+            return;
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.debug("Atomic move not supported for {}", target);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 文件摘要工具
+ * 通过 NIO 流式读取文件，每个线程复用自己的 MessageDigest 与读缓冲区，多个文件并行计算，
+ * 结果汇总为 路径 → 摘要 的清单，可与上一次的清单比较以发现不同环境间的配置漂移
+ */
+public class FileDigester {
+    private static final Logger logger = LoggerFactory.getLogger(FileDigester.class);
+
+    /** 清单中记录算法的注释前缀 */
+    private static final String ALGORITHM_HEADER = "# algorithm=";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private FileDigester() {
+    }
+
+    /**
+     * 获取当前线程复用的 MessageDigest，返回前已重置
+     * @param algorithm 摘要算法名称
+     * @return MessageDigest 实例
+     * @throws NoSuchAlgorithmException 算法不支持
+     */
+    public static MessageDigest getDigest(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, MessageDigest> digests = DIGESTS.get();
+        MessageDigest md = digests.get(algorithm);
+        if (md == null) {
+            md = MessageDigest.getInstance(algorithm);
+            digests.put(algorithm, md);
+        } else {
+            md.reset();
+        }
+        return md;
+    }
+
+    /**
+     * 流式计算单个文件的摘要
+     * @param file 文件路径
+     * @param algorithm 摘要算法名称
+     * @return Base64 编码的摘要
+     * @throws IOException IO异常
+     * @throws NoSuchAlgorithmException 算法不支持
+     */
+    public static String digestFile(Path file, String algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest md = getDigest(algorithm);
+        ByteBuffer buffer = BUFFERS.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                md.update(buffer);
+                buffer.clear();
+            }
+        }
+        return Base64.getEncoder().encodeToString(md.digest());
+    }
+
+    /**
+     * 并行计算文件的摘要
+     * 目录的展开由调用方负责（见 {@link ConfigFileCollector#collectAll}），以便跳过 .git、构建输出等目录
+     * @param files 文件
+     * @param baseDir 清单路径的相对基准目录，为空时使用绝对路径
+     * @param algorithm 摘要算法名称
+     * @param indicator 进度指示器，可为空
+     * @return 按路径排序的清单
+     * @throws IOException IO异常
+     */
+    public static SortedMap<String, String> digestAll(Collection<Path> files, @Nullable Path baseDir, String algorithm,
+                                                      @Nullable ProgressIndicator indicator) throws IOException {
+        ConcurrentSkipListMap<String, String> manifest = new ConcurrentSkipListMap<>();
+        AtomicInteger done = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(JasyptExecutors.getExecutor().submit(() -> {
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                }
+                manifest.put(toManifestKey(file, baseDir), digestFile(file, algorithm));
+                if (indicator != null) {
+                    indicator.setFraction((double) done.incrementAndGet() / files.size());
+                }
+                return null;
+            }));
+        }
+        JasyptExecutors.awaitAll(futures, indicator);
+        return manifest;
+    }
+
+    /**
+     * 计算清单中使用的路径，统一使用 / 分隔，便于跨平台比较
+     * @param file 文件
+     * @param baseDir 基准目录
+     * @return 清单路径
+     */
+    public static String toManifestKey(Path file, @Nullable Path baseDir) {
+        Path path = baseDir != null && file.startsWith(baseDir) ? baseDir.relativize(file) : file.toAbsolutePath();
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * 读取清单文件
+     * @param manifestFile 清单文件
+     * @param algorithm 期望的摘要算法，算法不同时视为没有历史清单
+     * @return 清单，不存在时返回空清单
+     * @throws IOException IO异常
+     */
+    public static SortedMap<String, String> readManifest(Path manifestFile, String algorithm) throws IOException {
+        SortedMap<String, String> manifest = new TreeMap<>();
+        if (!Files.exists(manifestFile)) {
+            return manifest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ALGORITHM_HEADER)) {
+                    if (!algorithm.equalsIgnoreCase(line.substring(ALGORITHM_HEADER.length()).trim())) {
+                        logger.info("Digest manifest {} uses a different algorithm, ignoring it", manifestFile);
+                        return new TreeMap<>();
+                    }
+                    continue;
+                }
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                // Base64 摘要本身可能以 = 结尾，因此按 " = " 切分路径与摘要
+                int separator = line.lastIndexOf(" = ");
+                if (separator > 0) {
+                    manifest.put(line.substring(0, separator), line.substring(separator + 3));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 写入清单文件
+     * @param manifestFile 清单文件
+     * @param algorithm 摘要算法名称
+     * @param manifest 清单
+     * @throws IOException IO异常
+     */
+    public static void writeManifest(Path manifestFile, String algorithm, SortedMap<String, String> manifest) throws IOException {
+        Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8)) {
+            writer.write(ALGORITHM_HEADER + algorithm);
+            writer.newLine();
+            for (Map.Entry<String, String> entry : manifest.entrySet()) {
+                writer.write(entry.getKey() + " = " + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * 比较两份清单
+     * @param previous 上一次的清单
+     * @param current 本次的清单
+     * @param scope 本次计算覆盖的路径前缀，只比较该范围内的条目
+     * @return 比较结果
+     */
+    public static ManifestDiff compare(SortedMap<String, String> previous, SortedMap<String, String> current, Collection<String> scope) {
+        ManifestDiff diff = new ManifestDiff();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String old = previous.get(entry.getKey());
+            if (old == null) {
+                diff.added.add(entry.getKey());
+            } else if (!Objects.equals(old, entry.getValue())) {
+                diff.changed.add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key) && isInScope(key, scope)) {
+                diff.removed.add(key);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * 合并清单：保留历史清单中本次范围之外的条目，范围内的条目以本次结果为准
+     * @param previous 上一次的清单
+     * @param current 本次的清单
+     * @param scope 本次计算覆盖的路径前缀
+     * @return 合并后的清单
+     */
+    public static SortedMap<String, String> merge(SortedMap<String, String> previous, SortedMap<String, String> current, Collection<String> scope) {
+        SortedMap<String, String> merged = new TreeMap<>();
+        previous.forEach((key, value) -> {
+            if (!isInScope(key, scope)) {
+                merged.put(key, value);
+            }
+        });
+        merged.putAll(current);
+        return merged;
+    }
+
+    private static boolean isInScope(String key, Collection<String> scope) {
+        for (String prefix : scope) {
+            if (key.equals(prefix) || prefix.isEmpty() || key.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 清单比较结果
+     */
+    public static class ManifestDiff {
+        private final TreeSet<String> added = new TreeSet<>();
+        private final TreeSet<String> removed = new TreeSet<>();
+        private final TreeSet<String> changed = new TreeSet<>();
+
+        public @NotNull TreeSet<String> getAdded() {
+            return added;
+        }
+
+        public @NotNull TreeSet<String> getRemoved() {
+            return removed;
+        }
+
+        public @NotNull TreeSet<String> getChanged() {
+            return changed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+    }
+}
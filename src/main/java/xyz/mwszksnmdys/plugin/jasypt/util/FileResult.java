@@ -0,0 +1,108 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个配置文件的处理结果：加解密的值数量、耗时以及失败原因
+ */
+public final class FileResult {
+
+    /**
+     * 处理状态
+     */
+    public enum Status {
+        /** 至少一个值被加密或解密并已写回 */
+        PROCESSED,
+        /** 文件中没有需要处理的值 */
+        UNCHANGED,
+        /** 处理失败，文件保持不变 */
+        FAILED
+    }
+
+    private final Path file;
+    private final Status status;
+    private final int encrypted;
+    private final int decrypted;
+    private final long durationNanos;
+    private final Throwable error;
+
+    private FileResult(Path file, Status status, int encrypted, int decrypted, long durationNanos, Throwable error) {
+        this.file = file;
+        this.status = status;
+        this.encrypted = encrypted;
+        this.decrypted = decrypted;
+        this.durationNanos = durationNanos;
+        this.error = error;
+    }
+
+    public static FileResult processed(@NotNull Path file, int encrypted, int decrypted, long durationNanos) {
+        return new FileResult(file, Status.PROCESSED, encrypted, decrypted, durationNanos, null);
+    }
+
+    public static FileResult unchanged(@NotNull Path file, long durationNanos) {
+        return new FileResult(file, Status.UNCHANGED, 0, 0, durationNanos, null);
+    }
+
+    public static FileResult failed(@NotNull Path file, long durationNanos, @NotNull Throwable error) {
+        return new FileResult(file, Status.FAILED, 0, 0, durationNanos, error);
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+
+    public @NotNull Status getStatus() {
+        return status;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+
+    /**
+     * @return 被加密的值数量
+     */
+    public int getEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * @return 被解密的值数量
+     */
+    public int getDecrypted() {
+        return decrypted;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 失败原因，配置错误抛出的 {@link IllegalArgumentException} 已带有本地化消息，其余异常取最内层的消息
+     * @return 失败原因，成功时返回 null
+     */
+    public @Nullable String getErrorMessage() {
+        if (error == null) {
+            return null;
+        }
+        Throwable cause = error;
+        while (cause.getMessage() == null && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    @Override
+    public String toString() {
+        return file + " " + status + " encrypted=" + encrypted + " decrypted=" + decrypted + " " + getDurationMillis() + "ms"
+                + (error == null ? "" : " error=" + getErrorMessage());
+    }
+}
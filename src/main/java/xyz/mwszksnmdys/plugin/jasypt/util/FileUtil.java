@@ -3,39 +3,53 @@ package xyz.mwszksnmdys.plugin.jasypt.util;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
 import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
+import org.jetbrains.annotations.Nullable;
+import xyz.mwszksnmdys.plugin.jasypt.jfr.FileIoEvent;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class FileUtil {
 
+    /**
+     * 读取文件内容，有 Document 时以编辑器中的内容为准
+     * 不保存其他文档也不刷新 VFS，需要磁盘与编辑器一致时由调用方在批次开始时调用一次 {@link #saveAllDocuments()}
+     * @param filePath 文件路径
+     * @return 文件内容
+     */
     public static String readFile(Path filePath) {
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
         // 获取 VirtualFile
         VirtualFile vFile = LocalFileSystem.getInstance().findFileByPath(filePath.toString());
         if (vFile == null) {
             throw new RuntimeException("Cannot find virtual file for path: " + filePath);
         }
 
-        // 确保所有文档都保存
-        ApplicationManager.getApplication().invokeAndWait(() -> FileDocumentManager.getInstance().saveAllDocuments());
-
-        // 强制刷新文件
-        vFile.refresh(true, false);
-
-        return ApplicationManager.getApplication().runReadAction((Computable<String>) () -> {
+        boolean[] fromDocument = new boolean[1];
+        String content = ApplicationManager.getApplication().runReadAction((Computable<String>) () -> {
             try {
                 // 优先从 Document 获取内容
                 Document document = FileDocumentManager.getInstance().getCachedDocument(vFile);
                 if (document != null) {
+                    fromDocument[0] = true;
                     return document.getText();
                 }
                 // 如果没有打开的文档，则从文件读取
@@ -44,48 +58,140 @@ public class FileUtil {
                 throw new RuntimeException(e);
             }
         });
+        commit(event, "read", filePath, content, fromDocument[0]);
+        return content;
+    }
+
+    /**
+     * 保存所有未保存的文档，使磁盘内容与编辑器一致
+     */
+    public static void saveAllDocuments() {
+        ApplicationManager.getApplication().invokeAndWait(() -> FileDocumentManager.getInstance().saveAllDocuments());
     }
 
     public static void writeFile(Path filePath, String content) throws IOException {
-        CountDownLatch latch = new CountDownLatch(1);
+        writeFile(filePath, content, null);
+    }
+
+    /**
+     * 写入文件内容
+     * 只有在编辑器中打开或有未保存修改的文件才通过 Document 写入，
+     * 其余文件先写入同目录临时文件再原子重命名，避免创建 Document，也不会留下写了一半的配置
+     * @param filePath 文件路径
+     * @param content 文件内容
+     * @param pendingRefresh 不为空时，经 NIO 写入的文件加入该集合，由调用方在批处理结束后统一刷新 VFS
+     * @throws IOException IO异常
+     */
+    public static void writeFile(Path filePath, String content, @Nullable Collection<Path> pendingRefresh) throws IOException {
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
         VirtualFile vFile = LocalFileSystem.getInstance().findFileByPath(filePath.toString());
-        if (vFile == null) {
-            throw new RuntimeException("Cannot find virtual file for path: " + filePath);
+        Document document = vFile == null ? null : findOpenDocument(vFile);
+
+        if (document == null) {
+            writeAtomically(filePath, content);
+            if (pendingRefresh != null) {
+                pendingRefresh.add(filePath);
+            } else {
+                refreshFiles(List.of(filePath));
+            }
+            commit(event, "write", filePath, content, false);
+            return;
         }
 
         ApplicationManager.getApplication().invokeAndWait(() ->
                 ApplicationManager.getApplication().runWriteAction(() -> {
-                    try {
-                        // 获取或创建 Document
-                        Document document = FileDocumentManager.getInstance().getDocument(vFile);
-                        if (document != null) {
-                            document.setText(content);
-                            FileDocumentManager.getInstance().saveDocument(document);
-                        } else {
-                            Files.writeString(filePath, content);
-                        }
-                        vFile.refresh(true, false);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    } finally {
-                        latch.countDown();
-                    }
+                    document.setText(content);
+                    FileDocumentManager.getInstance().saveDocument(document);
                 }));
+        commit(event, "write", filePath, content, true);
+    }
+
+    /**
+     * 记录文件读写事件，只有录制中的 JFR 启用了该事件时才计算属性
+     */
+    private static void commit(FileIoEvent event, String operation, Path filePath, String content, boolean document) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.file = filePath.toString();
+            event.bytes = content.getBytes(StandardCharsets.UTF_8).length;
+            event.document = document;
+            event.commit();
+        }
+    }
 
+    /**
+     * 查找已在编辑器中打开或存在未保存修改的 Document，不会为文件创建新的 Document
+     * @param vFile 文件
+     * @return 打开的 Document，没有则返回 null
+     */
+    private static @Nullable Document findOpenDocument(VirtualFile vFile) {
+        return ApplicationManager.getApplication().runReadAction((Computable<Document>) () -> {
+            FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
+            Document document = fileDocumentManager.getCachedDocument(vFile);
+            if (document == null) {
+                return null;
+            }
+            if (fileDocumentManager.isDocumentUnsaved(document)) {
+                return document;
+            }
+            for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+                if (!project.isDisposed() && FileEditorManager.getInstance(project).isFileOpen(vFile)) {
+                    return document;
+                }
+            }
+            // 仅被缓存的 Document 会在 VFS 刷新时从磁盘重新加载
+            return null;
+        });
+    }
+
+    /**
+     * 先写入同目录下的临时文件并落盘，再原子重命名覆盖目标文件
+     * @param filePath 目标文件路径
+     * @param content 文件内容
+     * @throws IOException IO异常
+     */
+    private static void writeAtomically(Path filePath, String content) throws IOException {
+        Path target = filePath.toAbsolutePath();
+        Path tempFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
         try {
-            boolean ignored = latch.await(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("write operation interrupted", e);
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            copyPermissions(target, tempFile);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
+    private static void copyPermissions(Path source, Path target) {
+        try {
+            if (Files.exists(source) && Files.getFileStore(source).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // 权限复制失败不影响写入，临时文件保留默认权限
+        }
+    }
 
-    public static Map<String, Object> loadYamlFile(Path path) {
-        // 使用 FileUtil 获取最新内容
-        String content = FileUtil.readFile(path);
-        LoaderOptions loaderOptions = new LoaderOptions();
-        Yaml yaml = new Yaml(loaderOptions);
-        return yaml.load(content);
+    /**
+     * 一次性刷新通过 NIO 写入的文件，已缓存的 Document 会随之从磁盘重新加载
+     * @param paths 文件路径
+     */
+    public static void refreshFiles(Collection<Path> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        LocalFileSystem.getInstance().refreshNioFiles(new ArrayList<>(paths));
     }
 }
@@ -0,0 +1,139 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jasypt.encryption.StringEncryptor;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES-GCM 字符串加密器，与 jasypt-spring-boot 的 gcm-secret-key-* 配置兼容
+ * 密文格式为 Base64(IV(12字节) + 密文 + 认证标签)。
+ * 密钥只派生一次并按配置缓存，每个值只需一次 AES-GCM 运算，不再重复执行 PBKDF 迭代。
+ * 缓存容量有上限，按最近使用淘汰，过期后重新派生
+ */
+public class GcmStringEncryptor implements StringEncryptor {
+
+    /** 默认密钥派生算法 */
+    public static final String DEFAULT_KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+    /** 默认密钥派生迭代次数 */
+    public static final int DEFAULT_KEY_ITERATIONS = 1000;
+
+    private static final int AES_KEY_SIZE = 256;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final KeyCache<SecretKey> KEY_CACHE = new KeyCache<>(64, TimeUnit.MINUTES.toMillis(30));
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    });
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SecretKey secretKey;
+
+    private GcmStringEncryptor(@NotNull SecretKey secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    /**
+     * 使用 Base64 编码的原始密钥创建加密器
+     * @param base64Key Base64 编码的 AES 密钥
+     * @return 加密器
+     */
+    public static GcmStringEncryptor fromKey(@NotNull String base64Key) {
+        byte[] key = Base64.getDecoder().decode(base64Key.trim());
+        return new GcmStringEncryptor(new SecretKeySpec(key, "AES"));
+    }
+
+    /**
+     * 使用密码派生密钥创建加密器，相同参数的派生结果会被缓存
+     * @param password 密码
+     * @param base64Salt Base64 编码的盐
+     * @param iterations 迭代次数
+     * @param keyAlgorithm 密钥派生算法
+     * @return 加密器
+     */
+    public static GcmStringEncryptor fromPassword(@NotNull String password, @NotNull String base64Salt, int iterations, @NotNull String keyAlgorithm) {
+        String cacheKey = fingerprint(keyAlgorithm + '\0' + iterations + '\0' + base64Salt + '\0' + password);
+        SecretKey key = KEY_CACHE.get(cacheKey, () -> deriveKey(password, base64Salt, iterations, keyAlgorithm));
+        return new GcmStringEncryptor(key);
+    }
+
+    /**
+     * 清空派生密钥缓存
+     */
+    public static void clearKeyCache() {
+        KEY_CACHE.clear();
+    }
+
+    private static SecretKey deriveKey(String password, String base64Salt, int iterations, String keyAlgorithm) {
+        try {
+            byte[] salt = Base64.getDecoder().decode(base64Salt.trim());
+            SecretKeyFactory factory = SecretKeyFactory.getInstance(keyAlgorithm);
+            byte[] encoded = factory.generateSecret(new PBEKeySpec(password.toCharArray(), salt, iterations, AES_KEY_SIZE)).getEncoded();
+            return new SecretKeySpec(encoded, "AES");
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot derive GCM secret key: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 计算缓存键，避免在缓存中直接保存明文密码
+     */
+    private static String fingerprint(String material) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String encrypt(String message) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] cipherText = cipher.doFinal(message.getBytes(StandardCharsets.UTF_8));
+            byte[] output = ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array();
+            return Base64.getEncoder().encodeToString(output);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+    }
+
+    @Override
+    public String decrypt(String encryptedMessage) {
+        try {
+            byte[] input = Base64.getDecoder().decode(encryptedMessage.trim());
+            if (input.length <= IV_LENGTH) {
+                throw new EncryptionOperationNotPossibleException();
+            }
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, input, 0, IV_LENGTH));
+            byte[] plain = cipher.doFinal(input, IV_LENGTH, input.length - IV_LENGTH);
+            return new String(plain, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // 与 PBE 加密器保持一致：无法解密时抛出 EncryptionOperationNotPossibleException
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 为加密对话框异步解析当前文件生效的 jasypt 配置
+ * 解析在共享线程池中进行，对话框可以立即打开；每个文件保留上一次的结果，下次打开时先用它预填再以新结果更新。
+ * 结果中含有解析后的密码，与共享密钥会话一样在 {@link SecretSession#SHARED_TTL_NANOS} 后过期
+ */
+public final class IntentionConfigResolver {
+    private static final Logger logger = LoggerFactory.getLogger(IntentionConfigResolver.class);
+
+    /** 文件路径 -> 上一次解析的结果 */
+    private static final Map<Path, CachedConfig> CACHE = new ConcurrentHashMap<>();
+
+    private IntentionConfigResolver() {
+    }
+
+    /**
+     * @param file 当前编辑的文件
+     * @return 上一次解析的结果，尚未解析过、已过期或不是本地配置文件时返回 null
+     */
+    public static @Nullable IntentionConfig getCached(@NotNull VirtualFile file) {
+        // jar 中的源码、解密视图等非本地文件没有 NIO 路径
+        if (!file.isInLocalFileSystem() || !ConfigFormat.isSupported(file.getName())) {
+            return null;
+        }
+        Path path = file.toNioPath();
+        CachedConfig cached = CACHE.get(path);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.resolvedAt > SecretSession.SHARED_TTL_NANOS) {
+            CACHE.remove(path, cached);
+            return null;
+        }
+        return cached.config;
+    }
+
+    /**
+     * 保存当前文件在编辑器中的修改后在后台解析文件生效的配置，需在 EDT 中调用
+     * 没有 jasypt 配置或解析失败时得到 {@link IntentionConfig#EMPTY}，对话框使用已保存的凭据
+     * @param file 当前编辑的文件
+     * @return 解析结果
+     */
+    public static @NotNull CompletableFuture<IntentionConfig> resolveAsync(@NotNull VirtualFile file) {
+        if (!file.isInLocalFileSystem() || !ConfigFormat.isSupported(file.getName())) {
+            return CompletableFuture.completedFuture(IntentionConfig.EMPTY);
+        }
+        // 配置可能就在当前文件中，只保存这一个文件，不保存所有打开的文档
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        Document document = documentManager.getCachedDocument(file);
+        if (document != null && documentManager.isDocumentUnsaved(document)) {
+            documentManager.saveDocument(document);
+        }
+        Path path = file.toNioPath();
+        return CompletableFuture.supplyAsync(() -> {
+            IntentionConfig config = resolve(path);
+            CACHE.put(path, new CachedConfig(config, System.nanoTime()));
+            return config;
+        }, JasyptExecutors.getExecutor());
+    }
+
+    /**
+     * 在可取消的模态进度中等待解析完成，用于用户在解析完成前就要加解密的情况
+     * @param project 当前项目
+     * @param future 解析结果
+     * @return 解析结果，用户取消时返回 null
+     */
+    public static @Nullable IntentionConfig await(@Nullable Project project, @NotNull CompletableFuture<IntentionConfig> future) {
+        if (!future.isDone()) {
+            boolean completed = ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> {
+                while (!future.isDone()) {
+                    ProgressManager.checkCanceled();
+                    try {
+                        future.get(50, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException | ExecutionException ignored) {
+                        // 超时继续等待并检查取消，异常由下面的 getNow 处理
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, JasyptBundle.message("dialog.config.resolving"), true, project);
+            if (!completed) {
+                return null;
+            }
+        }
+        return future.getNow(null);
+    }
+
+    /**
+     * 清空缓存的结果
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static IntentionConfig resolve(Path file) {
+        try {
+            Map<String, Object> jasyptConfig = ConfigResolver.resolveJasyptConfig(file);
+            if (jasyptConfig == null) {
+                return IntentionConfig.EMPTY;
+            }
+            if (JasyptEncryptor.getMode(jasyptConfig) != JasyptEncryptor.Mode.PBE) {
+                // 非 PBE 加密（AES-GCM、RSA）由配置文件决定密钥，直接交给对话框
+                return new IntentionConfig(null, null, jasyptConfig);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> encryptorConfigMap = (Map<String, Object>) jasyptConfig.get("encryptor");
+            String password = (String) encryptorConfigMap.get("password");
+            if (password != null) {
+                password = JasyptEncryptor.resolveSecret(password, SecretSession.shared(), file);
+            }
+            return new IntentionConfig(password, (String) encryptorConfigMap.get("algorithm"), null);
+        } catch (Exception e) {
+            logger.warn("Cannot resolve jasypt configuration for {}", file, e);
+            return IntentionConfig.EMPTY;
+        }
+    }
+
+    private static class CachedConfig {
+        private final IntentionConfig config;
+        private final long resolvedAt;
+
+        private CachedConfig(IntentionConfig config, long resolvedAt) {
+            this.config = config;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    /**
+     * 对话框使用的配置：PBE 模式下的密码和算法，或非 PBE 模式下完整的 jasypt 配置
+     */
+    public static final class IntentionConfig {
+        public static final IntentionConfig EMPTY = new IntentionConfig(null, null, null);
+
+        private final String password;
+        private final String algorithm;
+        private final Map<String, Object> configFileEncryptor;
+
+        private IntentionConfig(String password, String algorithm, Map<String, Object> configFileEncryptor) {
+            this.password = password;
+            this.algorithm = algorithm;
+            this.configFileEncryptor = configFileEncryptor;
+        }
+
+        public @Nullable String getPassword() {
+            return password;
+        }
+
+        public @Nullable String getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return 非 PBE 模式的 jasypt 配置，PBE 模式下为 null
+         */
+        public @Nullable Map<String, Object> getConfigFileEncryptor() {
+            return configFileEncryptor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IntentionConfig)) {
+                return false;
+            }
+            IntentionConfig that = (IntentionConfig) o;
+            return Objects.equals(password, that.password) && Objects.equals(algorithm, that.algorithm)
+                    && Objects.equals(configFileEncryptor, that.configFileEncryptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(password, algorithm, configFileEncryptor);
+        }
+    }
+}
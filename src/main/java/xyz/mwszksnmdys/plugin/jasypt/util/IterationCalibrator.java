@@ -0,0 +1,224 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
+import org.jasypt.iv.NoIvGenerator;
+import org.jasypt.iv.RandomIvGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * key-obtention-iterations 校准
+ * 在本机上按多个迭代次数测量每个 PBE 算法单个值的加解密耗时，推荐满足目标单值耗时的最大迭代次数，并估算处理当前项目所需的时间
+ */
+public class IterationCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(IterationCalibrator.class);
+
+    /** 测量的迭代次数 */
+    public static final int[] ITERATION_COUNTS = {1_000, 10_000, 100_000, 300_000};
+
+    private static final long SAMPLE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int MAX_SAMPLES = 20;
+    private static final int ITERATION_STEP = 1_000;
+    private static final String SAMPLE_TEXT = "calibration-sample-value";
+
+    private IterationCalibrator() {
+    }
+
+    /**
+     * 测量各算法在不同迭代次数下的单值耗时
+     * 某个迭代次数的耗时已超过目标的两倍时，不再测量该算法更大的迭代次数
+     * @param algorithms 算法
+     * @param targetMillis 目标单值耗时（毫秒）
+     * @param indicator 进度指示器
+     * @return 测量结果，本机不支持的算法不包含在内
+     */
+    public static @NotNull List<Measurement> benchmark(@NotNull List<String> algorithms, double targetMillis,
+                                                       @NotNull ProgressIndicator indicator) {
+        List<Measurement> measurements = new ArrayList<>();
+        indicator.setIndeterminate(false);
+        for (int a = 0; a < algorithms.size(); a++) {
+            String algorithm = algorithms.get(a);
+            indicator.setText2(algorithm);
+            for (int iterations : ITERATION_COUNTS) {
+                indicator.checkCanceled();
+                Measurement measurement = measure(algorithm, iterations);
+                if (measurement == null) {
+                    break;
+                }
+                measurements.add(measurement);
+                if (measurement.latencyMillis > targetMillis * 2) {
+                    break;
+                }
+            }
+            indicator.setFraction((double) (a + 1) / algorithms.size());
+        }
+        return measurements;
+    }
+
+    /**
+     * 单线程测量一次加密加一次解密的平均耗时，作为单个值的耗时
+     */
+    private static @Nullable Measurement measure(String algorithm, int iterations) {
+        StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
+        encryptor.setAlgorithm(algorithm);
+        encryptor.setPassword("calibration");
+        encryptor.setKeyObtentionIterations(iterations);
+        encryptor.setIvGenerator(algorithm.contains("AES") ? new RandomIvGenerator() : new NoIvGenerator());
+        try {
+            // 预热，同时排除本机不支持的算法
+            encryptor.decrypt(encryptor.encrypt(SAMPLE_TEXT));
+
+            int samples = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                encryptor.decrypt(encryptor.encrypt(SAMPLE_TEXT));
+                samples++;
+                elapsed = System.nanoTime() - start;
+            } while (samples < MAX_SAMPLES && elapsed < SAMPLE_BUDGET_NANOS);
+            return new Measurement(algorithm, iterations, elapsed / 2.0 / samples / 1_000_000);
+        } catch (Exception e) {
+            logger.info("Algorithm {} is not available for calibration: {}", algorithm, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 按算法给出推荐的迭代次数
+     * 耗时与迭代次数近似成正比，用最大测量点的单次迭代耗时换算出满足目标的迭代次数，按 1000 向下取整，最少 1000
+     * @param measurements 测量结果
+     * @param targetMillis 目标单值耗时（毫秒）
+     * @return 每个算法一条推荐，按测量顺序排列
+     */
+    public static @NotNull List<Recommendation> recommend(@NotNull List<Measurement> measurements, double targetMillis) {
+        Map<String, Measurement> largest = new LinkedHashMap<>();
+        for (Measurement measurement : measurements) {
+            largest.merge(measurement.algorithm, measurement,
+                    (current, candidate) -> candidate.iterations > current.iterations ? candidate : current);
+        }
+        List<Recommendation> recommendations = new ArrayList<>();
+        for (Measurement measurement : largest.values()) {
+            double millisPerIteration = measurement.latencyMillis / measurement.iterations;
+            long iterations = (long) (targetMillis / millisPerIteration) / ITERATION_STEP * ITERATION_STEP;
+            iterations = Math.max(ITERATION_STEP, Math.min(Integer.MAX_VALUE, iterations));
+            double latency = millisPerIteration * iterations;
+            recommendations.add(new Recommendation(measurement.algorithm, (int) iterations, latency, latency <= targetMillis));
+        }
+        return recommendations;
+    }
+
+    /**
+     * 统计项目中待处理的 ENC() 值数量，遍历规则与批处理一致
+     * @param project 当前项目
+     * @param indicator 进度指示器
+     * @return ENC() 值数量，无法确定项目目录时返回 0
+     */
+    public static int countProjectValues(@NotNull Project project, @NotNull ProgressIndicator indicator) {
+        VirtualFile projectDir = ProjectUtil.guessProjectDir(project);
+        if (projectDir == null) {
+            return 0;
+        }
+        int values = 0;
+        for (Path file : ConfigFileCollector.collect(project, new VirtualFile[]{projectDir}, indicator)) {
+            indicator.checkCanceled();
+            values += BatchContext.countEncValues(file);
+        }
+        return values;
+    }
+
+    /**
+     * 估算批处理耗时，值在所有 CPU 核上并行处理
+     * @param values ENC() 值数量
+     * @param latencyMillis 单值耗时（毫秒）
+     * @return 估算耗时（毫秒）
+     */
+    public static long estimateBatchMillis(int values, double latencyMillis) {
+        return Math.round(values * latencyMillis / JasyptExecutors.PARALLELISM);
+    }
+
+    /**
+     * 单个测量点
+     */
+    public static class Measurement {
+        private final String algorithm;
+        private final int iterations;
+        private final double latencyMillis;
+
+        private Measurement(String algorithm, int iterations, double latencyMillis) {
+            this.algorithm = algorithm;
+            this.iterations = iterations;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+    }
+
+    /**
+     * 单个算法的推荐设置
+     */
+    public static class Recommendation {
+        private final String algorithm;
+        private final int iterations;
+        private final double latencyMillis;
+        private final boolean meetsTarget;
+
+        private Recommendation(String algorithm, int iterations, double latencyMillis, boolean meetsTarget) {
+            this.algorithm = algorithm;
+            this.iterations = iterations;
+            this.latencyMillis = latencyMillis;
+            this.meetsTarget = meetsTarget;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        /**
+         * @return 推荐迭代次数下估算的单值耗时（毫秒）
+         */
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * @return 最少 1000 次迭代时是否仍满足目标
+         */
+        public boolean isMeetsTarget() {
+            return meetsTarget;
+        }
+
+        /**
+         * @return 所有 CPU 核并行时每秒可处理的值数量
+         */
+        public long getValuesPerSecond() {
+            return Math.round(1000 / latencyMillis * JasyptExecutors.PARALLELISM);
+        }
+    }
+}
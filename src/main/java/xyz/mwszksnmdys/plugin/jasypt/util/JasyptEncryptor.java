@@ -1,56 +1,132 @@
 package xyz.mwszksnmdys.plugin.jasypt.util;
 
+import org.jasypt.encryption.StringEncryptor;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
 import org.jetbrains.annotations.NotNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.jetbrains.annotations.Nullable;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.jfr.CryptoEvent;
+import xyz.mwszksnmdys.plugin.jasypt.jfr.EncryptorCreationEvent;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
 
-import javax.swing.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 /**
  * Jasypt加密解密工具类
  */
 public class JasyptEncryptor {
-    private static final Logger logger = LoggerFactory.getLogger(JasyptEncryptor.class);
-    private static final String VARIABLE_REGEX = "\\$\\{(.*?)}";
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile(VARIABLE_REGEX);
+    /** 加密器 -> 算法名称，仅用于 JFR 事件，加密器被回收后自动移除 */
+    private static final Map<StringEncryptor, String> ALGORITHMS = Collections.synchronizedMap(new WeakHashMap<>());
+    /** 加密器 -> 解析后配置的指纹，用作解密缓存的键 */
+    private static final Map<StringEncryptor, String> FINGERPRINTS = Collections.synchronizedMap(new WeakHashMap<>());
     
+    /**
+     * 加密器模式
+     */
+    public enum Mode {
+        /** 基于密码的 PBE 加密 */
+        PBE("PBE"),
+        /** 密钥只派生一次的 AES-GCM 加密 */
+        GCM("AES-GCM"),
+        /** 公钥加密、私钥解密的 RSA 非对称加密 */
+        ASYMMETRIC("RSA");
+
+        private final String displayName;
+
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
     /**
      * 获取Jasypt加密器
+     * 配置了 gcm-secret-key-* 时返回 AES-GCM 加密器，配置了 public-key-* / private-key-* 时返回 RSA 加密器，否则返回 PBE 加密器
+     * @param jasyptConfig Jasypt配置
+     * @return 加密器实例
+     */
+    public static StringEncryptor getEncryptor(Map<String, Object> jasyptConfig) {
+        return getEncryptor(jasyptConfig, SecretSession.shared(), null);
+    }
+
+    /**
+     * 获取Jasypt加密器，配置中的 ${KEY} 占位符通过指定的会话解析
      * @param jasyptConfig Jasypt配置
-     * @return PooledPBEStringEncryptor实例
+     * @param secrets 密钥解析会话，批处理中同一批次共用
+     * @param configFile 配置文件，用于查找 .env 等与位置相关的密钥来源，可为空
+     * @return 加密器实例
+     * @throws IllegalArgumentException 配置不完整或密钥无法解析，消息已本地化
      */
-    public static PooledPBEStringEncryptor getEncryptor(Map<String, Object> jasyptConfig) {
-        Object encryptorConfig = jasyptConfig.get("encryptor");
-        Map<String, Object> encryptorConfigMap = (Map<String, Object>) encryptorConfig;
-        if (encryptorConfig == null || encryptorConfigMap.isEmpty()) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.configuration"), "Error", JOptionPane.ERROR_MESSAGE);
-            throw new RuntimeException("Jasypt Configuration Error");
+    public static StringEncryptor getEncryptor(Map<String, Object> jasyptConfig, @NotNull SecretSession secrets, @Nullable Path configFile) {
+        EncryptorCreationEvent event = new EncryptorCreationEvent();
+        event.begin();
+        // 占位符和密钥文件解析后的值，与其余配置一起计算指纹，密钥变化后不会命中旧的解密缓存
+        Map<String, String> resolvedSecrets = new TreeMap<>();
+        StringEncryptor encryptor = createEncryptor(jasyptConfig, secrets, configFile, resolvedSecrets);
+        String algorithm = describeAlgorithm(jasyptConfig);
+        ALGORITHMS.put(encryptor, algorithm);
+        FINGERPRINTS.put(encryptor, DecryptionCache.fingerprint(new TreeMap<>(getEncryptorConfig(jasyptConfig)), resolvedSecrets));
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = configFile == null ? null : configFile.toString();
+            event.mode = getMode(jasyptConfig).name();
+            event.algorithm = algorithm;
+            event.commit();
+        }
+        return encryptor;
+    }
+
+    private static StringEncryptor createEncryptor(Map<String, Object> jasyptConfig, SecretSession secrets, @Nullable Path configFile,
+                                                   Map<String, String> resolvedSecrets) {
+        Map<String, Object> encryptorConfigMap = getEncryptorConfig(jasyptConfig);
+        if (encryptorConfigMap == null || encryptorConfigMap.isEmpty()) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.configuration"));
+        }
+
+        Mode mode = getMode(jasyptConfig);
+        if (mode == Mode.GCM) {
+            return getGcmEncryptor(encryptorConfigMap, secrets, configFile, resolvedSecrets);
+        }
+        if (mode == Mode.ASYMMETRIC) {
+            return getAsymmetricEncryptor(encryptorConfigMap, secrets, configFile, resolvedSecrets);
         }
         
         PooledPBEStringEncryptor encryptor = new PooledPBEStringEncryptor();
         SimpleStringPBEConfig config = new SimpleStringPBEConfig();
 
-        String password = (String) encryptorConfigMap.get("password");
-        String algorithm = (String) encryptorConfigMap.getOrDefault("algorithm", "PBEWithHMACSHA512AndAES_256");
-        String saltGenClsName = (String) encryptorConfigMap.getOrDefault("salt-generator-classname", "org.jasypt.salt.RandomSaltGenerator");
-        String ivGenClsName = (String) encryptorConfigMap.get("iv-generator-classname");
+        String password = stringValue(encryptorConfigMap, "password");
+        String algorithm = Objects.requireNonNullElse(stringValue(encryptorConfigMap, "algorithm"), "PBEWithHMACSHA512AndAES_256");
+        String saltGenClsName = Objects.requireNonNullElse(stringValue(encryptorConfigMap, "salt-generator-classname"), "org.jasypt.salt.RandomSaltGenerator");
+        String ivGenClsName = stringValue(encryptorConfigMap, "iv-generator-classname");
 
         if (password == null) {
-            JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.configuration.readPassword.empty"), "Error", JOptionPane.ERROR_MESSAGE);
-            throw new RuntimeException("Password is null");
-        } else {
-            password = parsePasswordFromEnvironment(password);
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.configuration.readPassword.empty"));
         }
+        password = resolveSecret(password, secrets, configFile);
+        resolvedSecrets.put("password", password);
 
         config.setPassword(password);
         config.setAlgorithm(algorithm);
-        config.setKeyObtentionIterations("1000");
-        config.setPoolSize("1");
+        config.setKeyObtentionIterations(Objects.requireNonNullElse(stringValue(encryptorConfigMap, "key-obtention-iterations"), "1000").trim());
+        // 未配置 pool-size 时每个线程使用独立的加密器实例，文件内的值可以并行加解密
+        config.setPoolSize(Objects.requireNonNullElse(stringValue(encryptorConfigMap, "pool-size"),
+                String.valueOf(JasyptExecutors.PARALLELISM)).trim());
 
         try {
             Class<?> saltGenClass = Class.forName(saltGenClsName, true, JasyptEncryptor.class.getClassLoader());
@@ -70,33 +146,221 @@ public class JasyptEncryptor {
             throw new RuntimeException("Loading SaltGenerator or IvGenerator fail", e);
         }
 
-        config.setStringOutputType("base64");
+        config.setStringOutputType(Objects.requireNonNullElse(stringValue(encryptorConfigMap, "string-output-type"), "base64"));
         encryptor.setConfig(config);
         return encryptor;
     }
 
-    public static @NotNull String parsePasswordFromEnvironment(String password) {
-        if (VARIABLE_PATTERN.matcher(password).matches()) {
-            String envKey = password.substring(2, password.indexOf('}'));
-            String defaultValue = null;
+    /**
+     * 判断配置对应的加密器模式
+     * @param jasyptConfig Jasypt配置
+     * @return 加密器模式
+     */
+    public static Mode getMode(Map<String, Object> jasyptConfig) {
+        Map<String, Object> encryptorConfigMap = getEncryptorConfig(jasyptConfig);
+        if (encryptorConfigMap != null && (stringValue(encryptorConfigMap, "gcm-secret-key-string") != null
+                || stringValue(encryptorConfigMap, "gcm-secret-key-location") != null
+                || stringValue(encryptorConfigMap, "gcm-secret-key-password") != null)) {
+            return Mode.GCM;
+        }
+        if (encryptorConfigMap != null && (stringValue(encryptorConfigMap, "public-key-string") != null
+                || stringValue(encryptorConfigMap, "public-key-location") != null
+                || stringValue(encryptorConfigMap, "private-key-string") != null
+                || stringValue(encryptorConfigMap, "private-key-location") != null)) {
+            return Mode.ASYMMETRIC;
+        }
+        return Mode.PBE;
+    }
 
-            if (password.contains(":")) {
-                defaultValue = password.substring(password.indexOf(':') + 1, password.length() - 1);
-                envKey = envKey.substring(0, envKey.indexOf(':'));
-            }
+    /**
+     * 根据 gcm-secret-key-* 配置创建 AES-GCM 加密器
+     * 优先使用 gcm-secret-key-string / gcm-secret-key-location 指定的原始密钥，否则由 gcm-secret-key-password 派生
+     */
+    private static StringEncryptor getGcmEncryptor(Map<String, Object> encryptorConfigMap, SecretSession secrets, @Nullable Path configFile,
+                                                   Map<String, String> resolvedSecrets) {
+        String keyString = stringValue(encryptorConfigMap, "gcm-secret-key-string");
+        String keyLocation = stringValue(encryptorConfigMap, "gcm-secret-key-location");
+
+        if (keyString == null && keyLocation != null) {
+            keyString = readKeyLocation(keyLocation, configFile);
+        }
 
-            password = System.getenv(envKey);
+        if (keyString != null) {
+            keyString = resolveSecret(keyString, secrets, configFile);
+            resolvedSecrets.put("gcm-secret-key-string", keyString);
+            return EncryptorFactory.createGCMEncryptor(keyString);
+        }
+        String password = stringValue(encryptorConfigMap, "gcm-secret-key-password");
+        String iterations = stringValue(encryptorConfigMap, "gcm-secret-key-iterations");
+        if (password != null) {
+            password = resolveSecret(password, secrets, configFile);
+            resolvedSecrets.put("gcm-secret-key-password", password);
+        }
+        return EncryptorFactory.createGCMEncryptor(
+                password,
+                stringValue(encryptorConfigMap, "gcm-secret-key-salt"),
+                iterations == null ? null : Integer.valueOf(iterations.trim()),
+                stringValue(encryptorConfigMap, "gcm-secret-key-algorithm"));
+    }
+
+    /**
+     * 根据 public-key-* / private-key-* 配置创建 RSA 加密器，*-string 优先于 *-location
+     */
+    private static StringEncryptor getAsymmetricEncryptor(Map<String, Object> encryptorConfigMap, SecretSession secrets, @Nullable Path configFile,
+                                                          Map<String, String> resolvedSecrets) {
+        String publicKey = stringValue(encryptorConfigMap, "public-key-string");
+        String publicKeyLocation = stringValue(encryptorConfigMap, "public-key-location");
+        String privateKey = stringValue(encryptorConfigMap, "private-key-string");
+        String privateKeyLocation = stringValue(encryptorConfigMap, "private-key-location");
 
-            if (password == null && defaultValue != null) {
-                password = defaultValue;
+        if (publicKey == null && publicKeyLocation != null) {
+            publicKey = readKeyLocation(publicKeyLocation, configFile);
+        }
+        if (privateKey == null && privateKeyLocation != null) {
+            privateKey = readKeyLocation(privateKeyLocation, configFile);
+        }
+        if (publicKey != null) {
+            publicKey = resolveSecret(publicKey, secrets, configFile);
+            resolvedSecrets.put("public-key-string", publicKey);
+        }
+        if (privateKey != null) {
+            privateKey = resolveSecret(privateKey, secrets, configFile);
+            resolvedSecrets.put("private-key-string", privateKey);
+        }
+
+        return EncryptorFactory.createAsymmetricEncryptor(
+                publicKey,
+                stringValue(encryptorConfigMap, "public-key-format"),
+                privateKey,
+                stringValue(encryptorConfigMap, "private-key-format"));
+    }
+
+    /**
+     * 读取 *-location 指定的密钥文件，支持 file: 和 classpath: 前缀
+     * 文本内容（Base64、PEM）原样交给密钥格式解码，二进制内容（如 DER 密钥）先转为 Base64
+     * @throws IllegalArgumentException 文件无法读取，消息已本地化
+     */
+    private static String readKeyLocation(String location, @Nullable Path configFile) {
+        try {
+            byte[] content = Files.readAllBytes(resolveKeyLocation(location.trim(), configFile));
+            return isText(content) ? new String(content, StandardCharsets.US_ASCII).trim() : Base64.getEncoder().encodeToString(content);
+        } catch (IOException | InvalidPathException e) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.keyLocation", location, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 绝对路径直接使用；相对路径和 classpath: 依次在配置文件所在目录、上级的 resources 目录和模块的 src/main/resources 中查找，
+     * 相对路径最后按模块根目录查找。插件无法得知运行时 classpath，与导入的处理方式一致（见 {@link ConfigResolver}）
+     */
+    private static Path resolveKeyLocation(String location, @Nullable Path configFile) {
+        boolean classpath = location.startsWith("classpath:");
+        String path = location;
+        if (classpath) {
+            path = location.substring("classpath:".length()).replaceFirst("^/+", "");
+        } else if (location.startsWith("file:")) {
+            path = location.substring("file:".length());
+        }
+        Path relative = Path.of(path);
+        Path configDir = configFile == null ? null : configFile.toAbsolutePath().getParent();
+        if ((!classpath && relative.isAbsolute()) || configDir == null) {
+            return relative;
+        }
+
+        List<Path> chain = ConfigResolver.directoryChain(configDir);
+        List<Path> baseDirs = new ArrayList<>();
+        baseDirs.add(configDir);
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            Path name = chain.get(i).getFileName();
+            if (name != null && "resources".equals(name.toString())) {
+                baseDirs.add(chain.get(i));
             }
+        }
+        baseDirs.add(chain.get(0).resolve("src").resolve("main").resolve("resources"));
+        if (!classpath) {
+            baseDirs.add(chain.get(0));
+        }
+        for (Path baseDir : baseDirs) {
+            Path candidate = baseDir.resolve(relative).normalize();
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return configDir.resolve(relative).normalize();
+    }
 
-            if (password == null) {
-                JOptionPane.showMessageDialog(null, JasyptBundle.message("encryptor.error.configuration.env.empty", envKey), "Error", JOptionPane.ERROR_MESSAGE);
-                throw new RuntimeException("Environment value " + envKey + " not configured and no default value");
+    private static boolean isText(byte[] content) {
+        for (byte b : content) {
+            if ((b < 0x20 || b > 0x7E) && b != '\n' && b != '\r' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getEncryptorConfig(Map<String, Object> jasyptConfig) {
+        Object encryptorConfig = jasyptConfig == null ? null : jasyptConfig.get("encryptor");
+        return encryptorConfig instanceof Map ? (Map<String, Object>) encryptorConfig : null;
+    }
+
+    /**
+     * 获取加密器的指纹，由配置和解析后的密钥计算，用作 {@link DecryptionCache} 的键
+     * @param encryptor 由 {@link #getEncryptor(Map, SecretSession, Path)} 创建的加密器
+     * @return 指纹，不是由配置创建的加密器返回 null
+     */
+    public static @Nullable String fingerprint(StringEncryptor encryptor) {
+        return FINGERPRINTS.get(encryptor);
+    }
+
+    /**
+     * 读取配置值，兼容 Spring 宽松绑定的 kebab-case 与 camelCase 写法，非字符串值（如 YAML 数字）转为字符串
+     * @param encryptorConfigMap jasypt.encryptor 配置
+     * @param key kebab-case 形式的键
+     * @return 配置值，不存在时返回 null
+     */
+    public static String stringValue(Map<String, Object> encryptorConfigMap, String key) {
+        Object value = encryptorConfigMap.get(key);
+        if (value == null) {
+            StringBuilder camelCase = new StringBuilder();
+            boolean upper = false;
+            for (char c : key.toCharArray()) {
+                if (c == '-') {
+                    upper = true;
+                } else {
+                    camelCase.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
             }
+            value = encryptorConfigMap.get(camelCase.toString());
         }
-        return password;
+        return value == null ? null : String.valueOf(value);
+    }
+
+    /**
+     * 解析密码中的 ${KEY} / ${KEY:default} 占位符，使用编辑器共享的密钥会话
+     * @param password 配置中的密码
+     * @return 解析后的密码
+     */
+    public static @NotNull String parsePasswordFromEnvironment(String password) {
+        return resolveSecret(password, SecretSession.shared(), null);
+    }
+
+    /**
+     * 解析配置值中的 ${KEY} / ${KEY:default} 占位符
+     * 依次查找系统属性、环境变量、.env 文件、PKCS12 密钥库和 IDE 密码库，结果在会话内缓存
+     * @param value 配置值，不是占位符时原样返回
+     * @param secrets 密钥解析会话
+     * @param configFile 配置文件，可为空
+     * @return 解析后的值
+     * @throws IllegalArgumentException 占位符未配置且没有默认值
+     */
+    public static @NotNull String resolveSecret(@NotNull String value, @NotNull SecretSession secrets, @Nullable Path configFile) {
+        String resolved = secrets.resolve(value, configFile);
+        if (resolved == null) {
+            throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.configuration.env.empty", SecretSession.placeholderKey(value)));
+        }
+        return resolved;
     }
 
 
@@ -106,8 +370,16 @@ public class JasyptEncryptor {
      * @param value 原始字符串
      * @return 加密后的字符串
      */
-    public static String encrypt(PooledPBEStringEncryptor encryptor, String value) {
-        return encryptor.encrypt(value);
+    public static String encrypt(StringEncryptor encryptor, String value) {
+        CryptoEvent event = new CryptoEvent();
+        event.begin();
+        String encrypted = null;
+        try {
+            encrypted = encryptor.encrypt(value);
+            return encrypted;
+        } finally {
+            commit(event, "encrypt", encryptor, value, encrypted);
+        }
     }
     
     /**
@@ -116,7 +388,46 @@ public class JasyptEncryptor {
      * @param encryptedValue 加密的字符串
      * @return 解密后的字符串
      */
-    public static String decrypt(PooledPBEStringEncryptor encryptor, String encryptedValue) {
-        return encryptor.decrypt(encryptedValue);
+    public static String decrypt(StringEncryptor encryptor, String encryptedValue) {
+        CryptoEvent event = new CryptoEvent();
+        event.begin();
+        String decrypted = null;
+        try {
+            decrypted = encryptor.decrypt(encryptedValue);
+            return decrypted;
+        } finally {
+            commit(event, "decrypt", encryptor, encryptedValue, decrypted);
+        }
+    }
+
+    /**
+     * 记录加解密事件，只有录制中的 JFR 启用了该事件时才计算属性
+     */
+    private static void commit(CryptoEvent event, String operation, StringEncryptor encryptor, String input, @Nullable String output) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.algorithm = ALGORITHMS.get(encryptor);
+            event.inputBytes = input == null ? 0 : input.getBytes(StandardCharsets.UTF_8).length;
+            event.outputBytes = output == null ? 0 : output.getBytes(StandardCharsets.UTF_8).length;
+            event.succeeded = output != null;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return 用于 JFR 事件的算法名称
+     */
+    private static String describeAlgorithm(Map<String, Object> jasyptConfig) {
+        Mode mode = getMode(jasyptConfig);
+        if (mode == Mode.GCM) {
+            return "AES/GCM";
+        }
+        if (mode == Mode.ASYMMETRIC) {
+            return "RSA";
+        }
+        Map<String, Object> encryptorConfigMap = getEncryptorConfig(jasyptConfig);
+        String algorithm = encryptorConfigMap == null ? null : stringValue(encryptorConfigMap, "algorithm");
+        return Objects.requireNonNullElse(algorithm, "PBEWithHMACSHA512AndAES_256");
     }
 }
\ No newline at end of file
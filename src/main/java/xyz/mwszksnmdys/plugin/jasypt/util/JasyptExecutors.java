@@ -0,0 +1,87 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 插件共享的并行执行器
+ * 线程数与 CPU 核数一致，等待结果时定期响应进度取消
+ */
+public class JasyptExecutors {
+
+    /** 并行度 */
+    public static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final ExecutorService EXECUTOR =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("Jasypt Worker", PARALLELISM);
+
+    private JasyptExecutors() {
+    }
+
+    /**
+     * @return 有界的共享线程池
+     */
+    public static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * 按提交顺序等待全部任务完成，任一任务失败或进度被取消时取消其余任务
+     * @param futures 任务
+     * @param indicator 进度指示器，可为空
+     * @throws IOException 任务抛出的IO异常
+     */
+    public static void awaitAll(List<? extends Future<?>> futures, @Nullable ProgressIndicator indicator) throws IOException {
+        try {
+            for (Future<?> future : futures) {
+                await(future, indicator);
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * 等待单个任务完成，期间定期检查取消
+     * @param future 任务
+     * @param indicator 进度指示器，可为空
+     * @throws IOException 任务抛出的IO异常
+     */
+    public static void await(Future<?> future, @Nullable ProgressIndicator indicator) throws IOException {
+        while (true) {
+            try {
+                future.get(100, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 派生或解析后的密钥缓存，与 {@link DecryptionCache} 相同：容量有上限，按最近使用淘汰，条目过期后删除。
+ * 密钥在内存中保留的时间有限，配置频繁变化时也不会无限增长
+ * @param <V> 密钥类型
+ */
+final class KeyCache<V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    /** 按访问顺序排列，最久未使用的在前 */
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    KeyCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 返回缓存的密钥，没有或已过期时调用 loader 计算并缓存；计算失败不缓存，异常原样抛出
+     * 计算在锁外进行，并发计算同一密钥时可能重复计算，结果相同
+     * @param key 缓存键，不能包含明文密钥
+     * @param loader 计算密钥
+     * @return 密钥
+     */
+    @NotNull V get(@NotNull String key, @NotNull Supplier<? extends V> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                return entry.value;
+            }
+        }
+        V value = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now + ttlMillis));
+            if (entries.size() > maxEntries) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 清空所有缓存的密钥
+     */
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,74 +1,60 @@
 package xyz.mwszksnmdys.plugin.jasypt.util;
 
-import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
-import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.format.PropertiesConfigFormat;
 import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
 
-import javax.swing.*;
-import java.io.IOException;
-import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Properties文件处理工具类
+ * 不弹出任何对话框，处理结果和失败原因通过 {@link FileResult} / {@link BatchResult} 返回
  */
 public class PropertiesProcessor {
-    private static final String ENC_REGEX = "ENC\\((.*?)\\)";
-    private static final Pattern ENC_PATTERN = Pattern.compile(ENC_REGEX);
+    private static final ConfigFormat FORMAT = new PropertiesConfigFormat();
     private static final Logger logger = LoggerFactory.getLogger(PropertiesProcessor.class);
-    private static final String DEFAULT_CONFIG_FILENAME = "application.properties";
-    private static final String YML_CONFIG_FILENAME = "application.yml";
 
     /**
      * 处理Properties文件或目录
      * @param path 文件或目录路径
+     * @return 处理结果，选中的不是Properties文件时包含一个失败结果
      */
-    public static void processPropertiesFile(Path path) {
-        try {
-            if (Files.isDirectory(path)) {
-                processPropertiesDirectory(path);
-            } else if (isPropertiesFile(path)) {
-                processSinglePropertiesFile(path);
-            } else {
-                logger.error("Selected file is not a Properties file: {}", path);
-                JOptionPane.showMessageDialog(null,
-                        JasyptBundle.message("properties.processor.error.notProperties", path),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                throw new RuntimeException("Selected file is not a Properties file: " + path);
-            }
-        } catch (Exception e) {
-            logger.error("Error processing path: {}", path, e);
-            JOptionPane.showMessageDialog(null,
-                    JasyptBundle.message("properties.processor.error.processPath", path),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            throw new RuntimeException(e.getMessage(), e);
+    public static BatchResult processPropertiesFile(Path path) {
+        if (Files.isDirectory(path)) {
+            return processPropertiesDirectory(path);
+        }
+        long start = System.nanoTime();
+        if (!isPropertiesFile(path)) {
+            logger.error("Selected file is not a Properties file: {}", path);
+            FileResult failed = FileResult.failed(path, 0,
+                    new IllegalArgumentException(JasyptBundle.message("properties.processor.error.notProperties", path)));
+            return new BatchResult(Collections.singletonList(failed), 0);
         }
-        JOptionPane.showMessageDialog(null, JasyptBundle.message("properties.processor.operationSuccess"), "Success", JOptionPane.INFORMATION_MESSAGE);
+        return new BatchResult(Collections.singletonList(processSinglePropertiesFile(path)), System.nanoTime() - start);
     }
 
     /**
-     * 处理目录中的所有Properties文件
+     * 处理目录中的所有Properties文件，单个文件失败不影响其余文件
      * @param directory 目录路径
-     * @throws IOException IO异常
+     * @return 每个文件的处理结果
      */
-    public static void processPropertiesDirectory(Path directory) throws IOException {
-        try (Stream<Path> paths = Files.walk(directory)) {
-            paths.filter(PropertiesProcessor::isPropertiesFile)
-                    .forEach(PropertiesProcessor::processSinglePropertiesFile);
-        } catch (Exception e) {
-            logger.error("Error processing directory: {}", directory, e);
-            throw e;
+    public static BatchResult processPropertiesDirectory(Path directory) {
+        long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>();
+        FileUtil.saveAllDocuments();
+        for (Path file : ConfigFileCollector.collect(directory)) {
+            if (isPropertiesFile(file)) {
+                results.add(processSinglePropertiesFile(file, BatchContext.empty()));
+            }
         }
+        return new BatchResult(results, System.nanoTime() - start);
     }
 
     /**
@@ -84,161 +70,30 @@ public class PropertiesProcessor {
     /**
      * 处理单个Properties文件
      * @param propertiesPath Properties文件路径
+     * @return 处理结果
      */
-    public static void processSinglePropertiesFile(Path propertiesPath) {
-        try {
-
-            // 使用 ReadAction 确保在正确的线程中读取文件内容
-            String content = FileUtil.readFile(propertiesPath);
-
-            Map<String, Object> jasyptConfig = getJasyptConfig(propertiesPath);
-
-            if (jasyptConfig == null) {
-                logger.error("No Jasypt configuration found for: {}", propertiesPath);
-                return;
-            }
-
-            PooledPBEStringEncryptor encryptor = JasyptEncryptor.getEncryptor(jasyptConfig);
-
-            StringBuilder processedContentBuilder = new StringBuilder();
-            boolean hasEncValues = false;
-            int lastEnd = 0;
-
-            // 使用正则匹配所有ENC()值
-            Matcher matcher = ENC_PATTERN.matcher(content);
-            while (matcher.find()) {
-                hasEncValues = true;
-                // 添加ENC()前的内容
-                processedContentBuilder.append(content, lastEnd, matcher.start());
-
-                String encValue = matcher.group(1);
-                String replacement;
-
-                try {
-                    // 尝试解密
-                    replacement = JasyptEncryptor.decrypt(encryptor, encValue);
-                    // 解密成功，直接使用解密后的值
-                    processedContentBuilder.append(replacement);
-                } catch (EncryptionOperationNotPossibleException e) {
-                    // 解密失败，说明是需要加密的值
-                    replacement = "ENC(" + encryptor.encrypt(encValue) + ")";
-                    processedContentBuilder.append(replacement);
-                } catch (Exception e) {
-                    logger.error("Error while processing value: {}", encValue, e);
-                    throw e;
-                }
-
-                lastEnd = matcher.end();
-            }
-
-            if (!hasEncValues) {
-                logger.info("No ENC() content found in {}", propertiesPath);
-                return;
-            }
-
-            // 添加剩余的内容
-            processedContentBuilder.append(content.substring(lastEnd));
-
-            FileUtil.writeFile(propertiesPath, processedContentBuilder.toString());
-            logger.info("File processed successfully: {}", propertiesPath);
-
-        } catch (Exception e) {
-            logger.error("Failed to process Properties file: {}", propertiesPath, e);
-            JOptionPane.showMessageDialog(null,
-                    JasyptBundle.message("properties.processor.error.processFile", propertiesPath),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            throw new RuntimeException(e.getMessage(), e);
-        }
+    public static FileResult processSinglePropertiesFile(Path propertiesPath) {
+        FileUtil.saveAllDocuments();
+        return processSinglePropertiesFile(propertiesPath, BatchContext.empty());
     }
 
-
-
     /**
-     * 获取Jasypt配置
+     * 处理单个Properties文件，按值汇报进度并在值之间响应取消
+     * 取消时文件保持不变，只有全部值处理完成后才会写回
      * @param propertiesPath Properties文件路径
-     * @return Jasypt配置Map
-     */
-    public static Map<String, Object> getJasyptConfig(Path propertiesPath) {
-        try {
-            // 首先尝试从当前properties文件获取配置
-            Properties currentProperties = loadPropertiesFile(propertiesPath);
-            Map<String, Object> jasyptConfig = convertPropertiesToJasyptConfig(currentProperties);
-
-            if (jasyptConfig != null) {
-                return jasyptConfig;
-            }
-
-            // 如果当前文件没有配置，尝试从同目录下的application.properties获取
-            Path parentDir = propertiesPath.getParent();
-            Path defaultPropertiesPath = parentDir.resolve(DEFAULT_CONFIG_FILENAME);
-
-            if (Files.exists(defaultPropertiesPath)) {
-                Properties defaultProperties = loadPropertiesFile(defaultPropertiesPath);
-                jasyptConfig = convertPropertiesToJasyptConfig(defaultProperties);
-
-                if (jasyptConfig != null) {
-                    logger.info("Using jasypt configuration from application.properties");
-                    return jasyptConfig;
-                }
-            }
-
-            // 如果properties文件中没有找到配置，尝试从application.yml获取
-            Path ymlConfigPath = parentDir.resolve(YML_CONFIG_FILENAME);
-
-            if (Files.exists(ymlConfigPath)) {
-                Map<String, Object> ymlConfig = FileUtil.loadYamlFile(ymlConfigPath);
-
-                if (ymlConfig != null && ymlConfig.containsKey("jasypt")) {
-                    logger.info("Using jasypt configuration from {}", YML_CONFIG_FILENAME);
-                    return (Map<String, Object>) ymlConfig.get("jasypt");
-                }
-            }
-
-            throw new RuntimeException("Error loading jasypt configuration: ");
-        } catch (Exception e) {
-            logger.error("Error loading jasypt configuration for file: {}", propertiesPath, e);
-            throw new RuntimeException(e.getMessage(), e);
-        }
-    }
-
-    /**
-     * 加载Properties文件
-     * @param path 文件路径
-     * @return Properties对象
-     * @throws IOException IO异常
+     * @param context 批处理上下文
+     * @return 处理结果，失败时包含失败原因
      */
-    private static Properties loadPropertiesFile(Path path) throws IOException {
-        String content = FileUtil.readFile(path);
-        Properties properties = new Properties();
-        properties.load(new StringReader(content));
-        return properties;
+    public static FileResult processSinglePropertiesFile(Path propertiesPath, BatchContext context) {
+        return ConfigBatchProcessor.processFile(propertiesPath, FORMAT, context);
     }
 
     /**
-     * 将Properties转换为Jasypt配置Map
-     * @param properties Properties对象
-     * @return Jasypt配置Map，如果没有配置则返回null
+     * 获取Jasypt配置，先保存编辑器中的修改再按 Spring Boot 的优先级解析
+     * @param propertiesPath Properties文件路径
+     * @return Jasypt配置Map
      */
-    private static Map<String, Object> convertPropertiesToJasyptConfig(Properties properties) {
-        // 检查是否包含jasypt.encryptor.password属性
-        if (!properties.containsKey("jasypt.encryptor.password")) {
-            return null;
-        }
-
-        // 创建jasypt配置结构
-        java.util.HashMap<String, Object> jasyptConfig = new java.util.HashMap<>();
-        java.util.HashMap<String, Object> encryptorConfig = new java.util.HashMap<>();
-        jasyptConfig.put("encryptor", encryptorConfig);
-
-        // 解析所有jasypt.encryptor.*属性
-        for (String key : properties.stringPropertyNames()) {
-            if (key.startsWith("jasypt.encryptor.")) {
-                String configKey = key.substring("jasypt.encryptor.".length());
-                encryptorConfig.put(configKey, properties.getProperty(key));
-            }
-        }
-
-        return jasyptConfig;
+    public static Map<String, Object> getJasyptConfig(Path propertiesPath) {
+        return ConfigFileProcessor.getJasyptConfig(propertiesPath);
     }
-}
\ No newline at end of file
+}
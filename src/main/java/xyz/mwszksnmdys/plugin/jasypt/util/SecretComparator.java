@@ -0,0 +1,245 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 比较多个配置文件中加密值的明文是否相同
+ * 由于随机盐，同一明文在不同环境中的密文总是不同。这里按各文件自己生效的 jasypt 配置并行解密，只比较明文是否相等，
+ * 结果中不包含明文，也不会写入磁盘。解密结果缓存在 {@link DecryptionCache} 中
+ */
+public final class SecretComparator {
+    private static final Logger logger = LoggerFactory.getLogger(SecretComparator.class);
+    private static final Pattern ENC_VALUE = Pattern.compile("^ENC\\((.*)\\)$", Pattern.DOTALL);
+
+    private SecretComparator() {
+    }
+
+    /**
+     * 比较各文件中的加密值，至少一个文件中为 ENC() 的键都会参与比较
+     * @param files 配置文件，至少两个
+     * @param secrets 本次比较共用的密钥解析会话
+     * @param indicator 进度指示器，可为空
+     * @return 比较结果
+     * @throws IOException 比较任务失败
+     */
+    public static @NotNull Comparison compare(@NotNull List<Path> files, @NotNull SecretSession secrets,
+                                              @Nullable ProgressIndicator indicator) throws IOException {
+        FileUtil.saveAllDocuments();
+        FileValues[] values = new FileValues[files.size()];
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            int index = i;
+            futures.add(JasyptExecutors.getExecutor().submit(() -> {
+                values[index] = decryptFile(files.get(index), secrets, indicator);
+                return null;
+            }));
+        }
+        JasyptExecutors.awaitAll(futures, indicator);
+
+        Set<String> keys = new TreeSet<>();
+        for (FileValues fileValues : values) {
+            keys.addAll(fileValues.encryptedKeys);
+        }
+        List<Row> rows = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rows.add(compareKey(key, values));
+        }
+        List<String> errors = new ArrayList<>(values.length);
+        for (FileValues fileValues : values) {
+            errors.add(fileValues.error);
+        }
+        return new Comparison(files, errors, rows);
+    }
+
+    private static FileValues decryptFile(Path file, SecretSession secrets, @Nullable ProgressIndicator indicator) {
+        FileValues result = new FileValues();
+        try {
+            ConfigFormat format = ConfigFormat.forPath(file);
+            if (format == null) {
+                throw new IllegalArgumentException("Unsupported config file: " + file);
+            }
+            // 同一键在多文档或多 profile 中出现多次时以最后一次为准，与 Spring 的覆盖顺序一致
+            Map<String, String> raw = new LinkedHashMap<>();
+            for (ConfigEntry entry : format.findEntries(Files.readString(file))) {
+                raw.put(entry.getKey(), entry.getValue().trim());
+            }
+            StringEncryptor encryptor = null;
+            String fingerprint = null;
+            for (Map.Entry<String, String> entry : raw.entrySet()) {
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                }
+                Matcher matcher = ENC_VALUE.matcher(entry.getValue());
+                if (!matcher.matches()) {
+                    result.plain.put(entry.getKey(), entry.getValue());
+                    continue;
+                }
+                result.encryptedKeys.add(entry.getKey());
+                if (encryptor == null) {
+                    Map<String, Object> config = ConfigResolver.resolveJasyptConfig(file);
+                    if (config == null) {
+                        throw new IllegalArgumentException(JasyptBundle.message("encryptor.error.configuration"));
+                    }
+                    encryptor = JasyptEncryptor.getEncryptor(config, secrets, file);
+                    fingerprint = JasyptEncryptor.fingerprint(encryptor);
+                }
+                // 条目的值已经还原，不再转义
+                String ciphertext = matcher.group(1);
+                try {
+                    StringEncryptor fileEncryptor = encryptor;
+                    result.plain.put(entry.getKey(), DecryptionCache.getInstance().decrypt(fingerprint, ciphertext,
+                            value -> JasyptEncryptor.decrypt(fileEncryptor, value)));
+                } catch (RuntimeException e) {
+                    logger.debug("Cannot decrypt {} in {}", entry.getKey(), file, e);
+                    result.failedKeys.add(entry.getKey());
+                }
+            }
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("Cannot compare secrets of {}", file, e);
+            result.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        return result;
+    }
+
+    private static Row compareKey(String key, FileValues[] values) {
+        int[] groups = new int[values.length];
+        Map<String, Integer> distinct = new HashMap<>();
+        boolean missing = false;
+        boolean failed = false;
+        for (int i = 0; i < values.length; i++) {
+            FileValues fileValues = values[i];
+            String plain = fileValues.plain.get(key);
+            if (fileValues.error != null || fileValues.failedKeys.contains(key)) {
+                groups[i] = Row.FAILED;
+                failed = true;
+            } else if (plain == null) {
+                groups[i] = Row.MISSING;
+                missing = true;
+            } else {
+                groups[i] = distinct.computeIfAbsent(plain, value -> distinct.size());
+            }
+        }
+        Status status = failed ? Status.FAILED
+                : missing ? Status.MISSING
+                : distinct.size() == 1 ? Status.SAME : Status.DIFFERENT;
+        return new Row(key, status, groups);
+    }
+
+    /**
+     * 单个键的比较结论
+     */
+    public enum Status {
+        /** 所有文件中的明文相同 */
+        SAME,
+        /** 至少两个文件中的明文不同 */
+        DIFFERENT,
+        /** 某些文件中没有该键 */
+        MISSING,
+        /** 某些文件无法解密该键 */
+        FAILED
+    }
+
+    private static class FileValues {
+        private final Map<String, String> plain = new HashMap<>();
+        private final Set<String> encryptedKeys = new TreeSet<>();
+        private final Set<String> failedKeys = new TreeSet<>();
+        private String error;
+    }
+
+    /**
+     * 一个键在各文件中的比较结果，明文按首次出现的顺序编号，相同编号表示明文相同
+     */
+    public static final class Row {
+        /** 文件中没有该键 */
+        public static final int MISSING = -1;
+        /** 文件中的值无法解密 */
+        public static final int FAILED = -2;
+
+        private final String key;
+        private final Status status;
+        private final int[] groups;
+
+        private Row(String key, Status status, int[] groups) {
+            this.key = key;
+            this.status = status;
+            this.groups = groups;
+        }
+
+        public @NotNull String getKey() {
+            return key;
+        }
+
+        public @NotNull Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @param fileIndex 文件序号
+         * @return 明文编号，或 {@link #MISSING} / {@link #FAILED}
+         */
+        public int getGroup(int fileIndex) {
+            return groups[fileIndex];
+        }
+    }
+
+    /**
+     * 比较结果
+     */
+    public static final class Comparison {
+        private final List<Path> files;
+        private final List<String> fileErrors;
+        private final List<Row> rows;
+
+        private Comparison(List<Path> files, List<String> fileErrors, List<Row> rows) {
+            this.files = Collections.unmodifiableList(files);
+            this.fileErrors = Collections.unmodifiableList(fileErrors);
+            this.rows = Collections.unmodifiableList(rows);
+        }
+
+        public @NotNull List<Path> getFiles() {
+            return files;
+        }
+
+        /**
+         * @param fileIndex 文件序号
+         * @return 文件整体无法解密的原因，例如找不到 jasypt 配置；成功时返回 null
+         */
+        public @Nullable String getFileError(int fileIndex) {
+            return fileErrors.get(fileIndex);
+        }
+
+        /**
+         * @return 按键排序的比较结果
+         */
+        public @NotNull List<Row> getRows() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 SnakeYAML 事件流的 YAML 扫描器
+ * 只解析一次，不构建完整的 Map 树：同时提取 jasypt.encryptor 配置，并记录包含 ENC( 的标量值在原文中的范围，
+ * 注释和键中的 ENC( 不会被改写。只需要配置时，jasypt 节点结束后立即停止解析
+ */
+public final class YamlScanner {
+
+    private static final String JASYPT_PREFIX = "jasypt.";
+    private static final String ENCRYPTOR_PREFIX = "jasypt.encryptor.";
+    private static final String SPRING_PREFIX = "spring.";
+    private static final String ENC_MARKER = "ENC(";
+
+    private YamlScanner() {
+    }
+
+    /**
+     * 扫描 YAML 内容，提取 jasypt 配置和 ENC 值范围
+     * @param content YAML 内容
+     * @return 扫描结果
+     */
+    public static Result scan(String content) {
+        return scan(content, false);
+    }
+
+    /**
+     * 只提取 jasypt 配置，jasypt 节点结束后立即停止解析
+     * @param content YAML 内容
+     * @return jasypt 配置，没有时返回 null
+     */
+    public static @Nullable Map<String, Object> scanJasyptConfig(String content) {
+        return scan(content, true).getJasyptConfig();
+    }
+
+    /**
+     * 扫描多文档 YAML，按文档返回 jasypt.* 与 spring.* 的扁平化属性，用于按 profile 解析配置
+     * 序列元素的键形如 spring.config.import[0]
+     * @param content YAML 内容
+     * @return 每个文档的属性，按文档顺序排列
+     */
+    public static List<Map<String, String>> scanDocuments(String content) {
+        List<Map<String, String>> documents = new ArrayList<>();
+        walk(content, new Handler() {
+            private Map<String, String> current;
+
+            @Override
+            public void documentStart() {
+                current = new LinkedHashMap<>();
+                documents.add(current);
+            }
+
+            @Override
+            public boolean value(String path, ScalarEvent scalar) {
+                if (path.startsWith(JASYPT_PREFIX) || path.startsWith(SPRING_PREFIX)) {
+                    current.put(path.replace(".[", "["), scalar.getValue());
+                }
+                return true;
+            }
+        });
+        documents.removeIf(Map::isEmpty);
+        return documents;
+    }
+
+    /**
+     * 扫描所有标量值，返回完整的键和值在原文中的范围，引号包含在范围内
+     * @param content YAML 内容
+     * @return 按文档顺序排列的键值对
+     */
+    public static List<ConfigEntry> scanEntries(String content) {
+        List<ConfigEntry> entries = new ArrayList<>();
+        OffsetConverter offsets = new OffsetConverter(content);
+        walk(content, (path, scalar) -> {
+            int start = offsets.toCharOffset(scalar.getStartMark().getIndex());
+            int end = offsets.toCharOffset(scalar.getEndMark().getIndex());
+            entries.add(new ConfigEntry(path.replace(".[", "["), new TextRange(start, end), scalar.getValue()));
+            return true;
+        });
+        return entries;
+    }
+
+    private static Result scan(String content, boolean configOnly) {
+        Map<String, Object> encryptorConfig = new HashMap<>();
+        boolean[] jasyptFound = new boolean[1];
+        List<TextRange> encRanges = new ArrayList<>();
+        OffsetConverter offsets = new OffsetConverter(content);
+
+        walk(content, new Handler() {
+            @Override
+            public boolean value(String path, ScalarEvent scalar) {
+                String value = scalar.getValue();
+                if (path.startsWith(JASYPT_PREFIX)) {
+                    jasyptFound[0] = true;
+                    if (path.startsWith(ENCRYPTOR_PREFIX)) {
+                        encryptorConfig.put(path.substring(ENCRYPTOR_PREFIX.length()), value);
+                    }
+                }
+                if (!configOnly && value.contains(ENC_MARKER)) {
+                    int start = offsets.toCharOffset(scalar.getStartMark().getIndex());
+                    int end = offsets.toCharOffset(scalar.getEndMark().getIndex());
+                    encRanges.add(new TextRange(start, end));
+                }
+                return true;
+            }
+
+            @Override
+            public boolean nodeEnd(String path) {
+                // 顶层的 jasypt 节点已经结束，只需要配置时无需继续解析
+                return !(configOnly && jasyptFound[0] && "jasypt".equals(path));
+            }
+        });
+        return new Result(jasyptFound[0] ? wrap(encryptorConfig) : null, encRanges);
+    }
+
+    /**
+     * 遍历事件流，跟踪每个标量值的完整路径，处理器返回 false 时停止解析
+     */
+    private static void walk(String content, Handler handler) {
+        // 每层集合的状态：映射中交替出现键和值，序列中只有值
+        Deque<Node> stack = new ArrayDeque<>();
+        Iterator<Event> events = new Yaml(new LoaderOptions()).parse(new StringReader(content)).iterator();
+        while (events.hasNext()) {
+            Event event = events.next();
+            Node parent = stack.peek();
+            switch (event.getEventId()) {
+                case DocumentStart:
+                    stack.clear();
+                    handler.documentStart();
+                    break;
+                case MappingStart:
+                    stack.push(new Node(true, parent == null ? "" : parent.childPath()));
+                    break;
+                case SequenceStart:
+                    stack.push(new Node(false, parent == null ? "" : parent.childPath()));
+                    break;
+                case MappingEnd:
+                case SequenceEnd:
+                    Node done = stack.pop();
+                    Node owner = stack.peek();
+                    if (owner != null) {
+                        owner.valueDone();
+                        if (!handler.nodeEnd(done.path)) {
+                            return;
+                        }
+                    }
+                    break;
+                case Scalar:
+                    ScalarEvent scalar = (ScalarEvent) event;
+                    if (parent == null) {
+                        break;
+                    }
+                    if (parent.mapping && parent.expectingKey) {
+                        parent.key = scalar.getValue();
+                        parent.expectingKey = false;
+                        break;
+                    }
+                    boolean proceed = handler.value(parent.childPath(), scalar);
+                    parent.valueDone();
+                    if (!proceed) {
+                        return;
+                    }
+                    break;
+                case Alias:
+                    if (parent != null) {
+                        if (parent.mapping && parent.expectingKey) {
+                            parent.expectingKey = false;
+                        } else {
+                            parent.valueDone();
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 事件处理器
+     */
+    private interface Handler {
+        default void documentStart() {
+        }
+
+        boolean value(String path, ScalarEvent scalar);
+
+        default boolean nodeEnd(String path) {
+            return true;
+        }
+    }
+
+    private static Map<String, Object> wrap(Map<String, Object> encryptorConfig) {
+        // 与 Properties 解析结果保持一致的结构：{encryptor: {password: ..., algorithm: ...}}
+        Map<String, Object> jasyptConfig = new HashMap<>();
+        jasyptConfig.put("encryptor", encryptorConfig);
+        return jasyptConfig;
+    }
+
+    /**
+     * 集合节点的解析状态
+     */
+    private static class Node {
+        private final boolean mapping;
+        private final String path;
+        private boolean expectingKey = true;
+        private String key;
+        private int index;
+
+        private Node(boolean mapping, String path) {
+            this.mapping = mapping;
+            this.path = path;
+        }
+
+        /**
+         * 当前值的完整路径，支持 jasypt.encryptor.password 这种点号写法的键
+         */
+        private String childPath() {
+            String name = mapping ? String.valueOf(key) : "[" + index + "]";
+            return path.isEmpty() ? name : path + "." + name;
+        }
+
+        private void valueDone() {
+            if (mapping) {
+                expectingKey = true;
+                key = null;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * SnakeYAML 的 Mark 按码点计数，而 Java 字符串按 UTF-16 字符计数。
+     * 事件按文档顺序产生，因此从上一次的位置继续换算，整体只需一次线性扫描
+     */
+    private static class OffsetConverter {
+        private final String content;
+        private int codePoint;
+        private int charOffset;
+
+        private OffsetConverter(String content) {
+            this.content = content;
+        }
+
+        private int toCharOffset(int codePointIndex) {
+            if (codePointIndex < codePoint) {
+                codePoint = 0;
+                charOffset = 0;
+            }
+            while (codePoint < codePointIndex && charOffset < content.length()) {
+                charOffset += Character.charCount(content.codePointAt(charOffset));
+                codePoint++;
+            }
+            return charOffset;
+        }
+    }
+
+    /**
+     * 扫描结果
+     */
+    public static class Result {
+        private final Map<String, Object> jasyptConfig;
+        private final List<TextRange> encRanges;
+
+        private Result(@Nullable Map<String, Object> jasyptConfig, List<TextRange> encRanges) {
+            this.jasyptConfig = jasyptConfig;
+            this.encRanges = Collections.unmodifiableList(encRanges);
+        }
+
+        /**
+         * @return jasypt 配置，结构为 {encryptor: {...}}，没有时返回 null
+         */
+        public @Nullable Map<String, Object> getJasyptConfig() {
+            return jasyptConfig;
+        }
+
+        /**
+         * @return 包含 ENC( 的标量值在原文中的范围，按文档顺序排列，引号包含在范围内
+         */
+        public List<TextRange> getEncRanges() {
+            return encRanges;
+        }
+    }
+}
@@ -1,118 +1,70 @@
 package xyz.mwszksnmdys.plugin.jasypt.util;
 
-import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
-import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.format.YamlConfigFormat;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class YmlProcessor {
-    private static final String ENC_REGEX = "ENC\\((.*?)\\)";
-    private static final Pattern ENC_PATTERN = Pattern.compile(ENC_REGEX);
+    private static final ConfigFormat FORMAT = new YamlConfigFormat();
     private static final Logger logger = LoggerFactory.getLogger(YmlProcessor.class);
-    private static final String DEFAULT_CONFIG_FILENAME = "application.yml";
 
     private static boolean isYamlFile(Path path) {
         return path.toString().endsWith(".yml") || path.toString().endsWith(".yaml");
     }
 
-    public static void processYmlFileOrDirectory(Path path) {
-        try {
-            if (Files.isDirectory(path)) {
-                Files.walk(path)
-                        .filter(YmlProcessor::isYamlFile)
-                        .forEach(YmlProcessor::processSingleYmlFile);
-            } else if (isYamlFile(path)) {
-                processSingleYmlFile(path);
-            } else {
-                logger.error("Selected file is not a YML file: {}", path);
-                throw new RuntimeException("Selected file is not a YML file: " + path);
+    /**
+     * 处理YAML文件或目录，单个文件失败不影响其余文件
+     * @param path 文件或目录路径
+     * @return 每个文件的处理结果，选中的不是YAML文件时包含一个失败结果
+     */
+    public static BatchResult processYmlFileOrDirectory(Path path) {
+        long start = System.nanoTime();
+        FileUtil.saveAllDocuments();
+        List<FileResult> results = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            for (Path file : ConfigFileCollector.collect(path)) {
+                if (isYamlFile(file)) {
+                    results.add(processSingleYmlFile(file, BatchContext.empty()));
+                }
             }
-        } catch (Exception e) {
-            logger.error("Error processing path: {}", path, e);
-            throw new RuntimeException(e.getMessage(), e);
+        } else if (isYamlFile(path)) {
+            results.add(processSingleYmlFile(path, BatchContext.empty()));
+        } else {
+            logger.error("Selected file is not a YML file: {}", path);
+            results.add(FileResult.failed(path, 0, new IllegalArgumentException("Selected file is not a YML file: " + path)));
         }
+        return new BatchResult(results, System.nanoTime() - start);
     }
 
-    public static void processSingleYmlFile(Path ymlPath) {
-        try {
-            String content = FileUtil.readFile(ymlPath);
-            // Get jasypt configuration, either from the current file or from application.yml
-            Map<String, Object> jasyptConfig = getJasyptConfig(ymlPath);
-
-            if (jasyptConfig == null) {
-                logger.error("No Jasypt configuration found for: {}", ymlPath);
-                return;
-            }
-
-            PooledPBEStringEncryptor encryptor = JasyptEncryptor.getEncryptor(jasyptConfig);
-            Matcher matcher = ENC_PATTERN.matcher(content);
-
-            if (!matcher.find()) {
-                logger.error("No ENC() content found in {}", ymlPath);
-                return;
-            }
-
-            matcher.reset();
-            StringBuilder processedContent = new StringBuilder();
-
-            while (matcher.find()) {
-                String encValue = matcher.group(1);
-                String replacement;
-
-                try {
-                    // Try to decrypt
-                    replacement = JasyptEncryptor.decrypt(encryptor, encValue);
-                } catch (EncryptionOperationNotPossibleException e) {
-                    // 解密失败，进行加密
-                    replacement = "ENC(" + JasyptEncryptor.encrypt(encryptor,encValue) + ")";
-                }catch (Exception e) {
-                    logger.error("Error processing property:", e);
-                    throw e;
-                }
-
-                matcher.appendReplacement(processedContent, Matcher.quoteReplacement(replacement));
-            }
-            matcher.appendTail(processedContent);
-
-            FileUtil.writeFile(ymlPath, processedContent.toString());
-            logger.info("File processed successfully: {}", ymlPath);
+    public static FileResult processSingleYmlFile(Path ymlPath) {
+        FileUtil.saveAllDocuments();
+        return processSingleYmlFile(ymlPath, BatchContext.empty());
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to process YAML file: {}", ymlPath, e);
-        }
+    /**
+     * 处理单个YAML文件，按值汇报进度并在值之间响应取消
+     * 注释和键中的 ENC( 保持不变，取消时文件保持不变，只有全部值处理完成后才会写回
+     * @param ymlPath YAML文件路径
+     * @param context 批处理上下文
+     * @return 处理结果，失败时包含失败原因
+     */
+    public static FileResult processSingleYmlFile(Path ymlPath, BatchContext context) {
+        return ConfigBatchProcessor.processFile(ymlPath, FORMAT, context);
     }
 
+    /**
+     * 获取 jasypt 配置，先保存编辑器中的修改再按 Spring Boot 的优先级解析
+     * @param ymlPath YAML文件路径
+     * @return jasypt 配置
+     */
     public static Map<String, Object> getJasyptConfig(Path ymlPath) {
-        try {
-            // First try to get config from the current file
-            Map<String, Object> yamlContent = FileUtil.loadYamlFile(ymlPath);
-
-            if (yamlContent != null && yamlContent.containsKey("jasypt")) {
-                return (Map<String, Object>) yamlContent.get("jasypt");
-            }
-
-            // If not found, try to get from application.yml in the same directory
-            Path parentDir = ymlPath.getParent();
-            Path defaultConfigPath = parentDir.resolve(DEFAULT_CONFIG_FILENAME);
-
-            if (Files.exists(defaultConfigPath)) {
-                Map<String, Object> defaultConfig = FileUtil.loadYamlFile(defaultConfigPath);
-                if (defaultConfig != null && defaultConfig.containsKey("jasypt")) {
-                    logger.info("Using jasypt configuration from {}", DEFAULT_CONFIG_FILENAME);
-                    return (Map<String, Object>) defaultConfig.get("jasypt");
-                }
-            }
-
-            throw new RuntimeException("Error loading jasypt configuration: ");
-        } catch (Exception e) {
-            logger.error("Error loading jasypt configuration for file: {}", ymlPath, e);
-            throw new RuntimeException("Error loading jasypt configuration: " + e.getMessage(), e);
-        }
+        return ConfigFileProcessor.getJasyptConfig(ymlPath);
     }
-}
\ No newline at end of file
+}
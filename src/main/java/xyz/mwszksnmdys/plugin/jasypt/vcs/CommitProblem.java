@@ -0,0 +1,54 @@
+package xyz.mwszksnmdys.plugin.jasypt.vcs;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * 提交前检查发现的一个问题
+ */
+public final class CommitProblem {
+
+    public enum Kind {
+        /** 仍是明文标记 DEC(...) */
+        PLAINTEXT_MARKER,
+        /** ENC(...) 无法用文件生效的配置解密，通常是密钥不对 */
+        UNDECRYPTABLE,
+        /** 疑似未加密的密钥 */
+        PLAINTEXT_SECRET
+    }
+
+    private final Path file;
+    private final int line;
+    private final Kind kind;
+    private final String key;
+
+    public CommitProblem(@NotNull Path file, int line, @NotNull Kind kind, @NotNull String key) {
+        this.file = file;
+        this.line = line;
+        this.kind = kind;
+        this.key = key;
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return 从 1 开始的行号
+     */
+    public int getLine() {
+        return line;
+    }
+
+    public @NotNull Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return 所在的属性名，找不到时为空字符串
+     */
+    public @NotNull String getKey() {
+        return key;
+    }
+}
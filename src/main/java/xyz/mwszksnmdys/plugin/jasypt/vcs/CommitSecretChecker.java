@@ -0,0 +1,235 @@
+package xyz.mwszksnmdys.plugin.jasypt.vcs;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jasypt.encryption.StringEncryptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.scan.SecretFinding;
+import xyz.mwszksnmdys.plugin.jasypt.scan.SecretScanner;
+import xyz.mwszksnmdys.plugin.jasypt.secret.SecretSession;
+import xyz.mwszksnmdys.plugin.jasypt.util.AsymmetricStringEncryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigResolver;
+import xyz.mwszksnmdys.plugin.jasypt.util.DecryptionCache;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptEncryptor;
+import xyz.mwszksnmdys.plugin.jasypt.util.JasyptExecutors;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 检查将要提交的配置文件：不能残留 DEC(...) 明文标记和疑似明文密钥，每个 ENC(...) 都能用文件生效的配置解密（只配置了 RSA 公钥时只检查密文格式）
+ * 各文件在共享线程池中并行检查，超过时间预算后停止，未检查完的文件不报告问题，不阻塞提交
+ */
+public final class CommitSecretChecker {
+    private static final Logger logger = LoggerFactory.getLogger(CommitSecretChecker.class);
+    private static final Pattern ENC_PATTERN = Pattern.compile("ENC\\((.*?)\\)");
+    private static final long POLL_NANOS = 50_000_000L;
+
+    private CommitSecretChecker() {
+    }
+
+    /**
+     * 检查文件，调用方需保证编辑器中的修改已保存
+     * @param files 将要提交的文件，不支持的格式会被忽略
+     * @param budgetMillis 时间预算（毫秒）
+     * @param indicator 进度指示器，可为空
+     * @return 检查结果
+     */
+    public static @NotNull Result check(@NotNull Collection<Path> files, long budgetMillis, @Nullable ProgressIndicator indicator) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        SecretSession secrets = SecretSession.shared();
+        // 同一配置只创建一次加密器
+        Map<Map<String, Object>, StringEncryptor> encryptors = new ConcurrentHashMap<>();
+        List<Future<List<CommitProblem>>> futures = new ArrayList<>();
+        for (Path file : files) {
+            ConfigFormat format = ConfigFormat.forPath(file);
+            if (format != null && Files.isRegularFile(file)) {
+                futures.add(JasyptExecutors.getExecutor().submit(() -> checkFile(file, format, secrets, encryptors, deadline)));
+            }
+        }
+
+        List<CommitProblem> problems = new ArrayList<>();
+        boolean complete = true;
+        try {
+            for (Future<List<CommitProblem>> future : futures) {
+                List<CommitProblem> fileProblems = awaitUntil(future, deadline, indicator);
+                if (fileProblems == null) {
+                    complete = false;
+                } else {
+                    problems.addAll(fileProblems);
+                }
+            }
+        } finally {
+            // 超出预算或取消时不再等待其余文件
+            futures.forEach(future -> future.cancel(true));
+        }
+        problems.sort(Comparator.comparing(CommitProblem::getFile).thenComparingInt(CommitProblem::getLine));
+        return new Result(problems, complete);
+    }
+
+    /**
+     * 在截止时间前等待单个文件的结果，期间定期检查取消
+     * @return 文件中的问题，超出时间预算或检查失败时返回 null
+     */
+    private static @Nullable List<CommitProblem> awaitUntil(Future<List<CommitProblem>> future, long deadline,
+                                                           @Nullable ProgressIndicator indicator) {
+        while (true) {
+            if (indicator != null) {
+                indicator.checkCanceled();
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return future.isDone() ? getNow(future) : null;
+            }
+            try {
+                return future.get(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // 继续等待并检查取消
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException | CancellationException e) {
+                logger.warn("Commit check failed", e);
+                return null;
+            }
+        }
+    }
+
+    private static @Nullable List<CommitProblem> getNow(Future<List<CommitProblem>> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 文件中的问题，超出时间预算时返回 null
+     */
+    private static @Nullable List<CommitProblem> checkFile(Path file, ConfigFormat format, SecretSession secrets,
+                                                           Map<Map<String, Object>, StringEncryptor> encryptors, long deadline) throws Exception {
+        String content = Files.readString(file);
+        if (!content.contains("ENC(") && !content.contains("DEC(") && !SecretScanner.isScanned(file.getFileName().toString())) {
+            return List.of();
+        }
+        List<CommitProblem> problems = new ArrayList<>();
+        StringEncryptor encryptor = null;
+        String fingerprint = null;
+        boolean encryptorResolved = false;
+        for (ConfigEntry entry : format.findEntries(content)) {
+            if (System.nanoTime() > deadline) {
+                return null;
+            }
+            String value = entry.getValue();
+            int line = StringUtil.offsetToLineNumber(content, entry.getRange().getStartOffset()) + 1;
+            if (value.contains("DEC(")) {
+                problems.add(new CommitProblem(file, line, CommitProblem.Kind.PLAINTEXT_MARKER, entry.getKey()));
+            }
+            Matcher matcher = ENC_PATTERN.matcher(value);
+            while (matcher.find()) {
+                if (!encryptorResolved) {
+                    Map<String, Object> config = resolveConfig(file);
+                    encryptor = config == null ? null : getEncryptor(file, config, secrets, encryptors);
+                    fingerprint = encryptor == null ? null : JasyptEncryptor.fingerprint(encryptor);
+                    encryptorResolved = true;
+                }
+                if (!canDecrypt(encryptor, fingerprint, matcher.group(1))) {
+                    problems.add(new CommitProblem(file, line, CommitProblem.Kind.UNDECRYPTABLE, entry.getKey()));
+                    break;
+                }
+            }
+        }
+        for (SecretFinding finding : SecretScanner.scan(file, content)) {
+            problems.add(new CommitProblem(file, finding.getLine(), CommitProblem.Kind.PLAINTEXT_SECRET, finding.getKey()));
+        }
+        return problems;
+    }
+
+    /**
+     * @return 文件生效的 jasypt 配置，没有配置或解析失败时返回 null，此时所有 ENC() 都视为无法解密
+     */
+    private static @Nullable Map<String, Object> resolveConfig(Path file) {
+        try {
+            return ConfigResolver.resolveJasyptConfig(file);
+        } catch (RuntimeException e) {
+            logger.debug("Cannot resolve jasypt configuration for {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return 配置对应的加密器，无法创建时返回 null
+     */
+    private static @Nullable StringEncryptor getEncryptor(Path file, Map<String, Object> config, SecretSession secrets,
+                                                          Map<Map<String, Object>, StringEncryptor> encryptors) {
+        try {
+            return encryptors.computeIfAbsent(config, c -> JasyptEncryptor.getEncryptor(c, secrets, file));
+        } catch (RuntimeException e) {
+            logger.debug("Cannot create encryptor for {}", file, e);
+            return null;
+        }
+    }
+
+    private static boolean canDecrypt(@Nullable StringEncryptor encryptor, @Nullable String fingerprint, String ciphertext) {
+        if (encryptor == null || fingerprint == null) {
+            return false;
+        }
+        if (encryptor instanceof AsymmetricStringEncryptor && !((AsymmetricStringEncryptor) encryptor).canDecrypt()) {
+            // 只配置了公钥时无法解密，只检查值是否像该公钥生成的密文
+            return ((AsymmetricStringEncryptor) encryptor).isCiphertext(ciphertext);
+        }
+        try {
+            // 之前解密成功过的密文不再重复派生密钥
+            DecryptionCache.getInstance().decrypt(fingerprint, ciphertext, value -> JasyptEncryptor.decrypt(encryptor, value));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 检查结果
+     */
+    public static final class Result {
+        private final List<CommitProblem> problems;
+        private final boolean complete;
+
+        private Result(List<CommitProblem> problems, boolean complete) {
+            this.problems = problems;
+            this.complete = complete;
+        }
+
+        /**
+         * @return 按文件和行号排序的问题
+         */
+        public @NotNull List<CommitProblem> getProblems() {
+            return problems;
+        }
+
+        /**
+         * @return 是否在时间预算内检查完所有文件
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
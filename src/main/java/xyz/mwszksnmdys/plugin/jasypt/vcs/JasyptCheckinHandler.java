@@ -0,0 +1,95 @@
+package xyz.mwszksnmdys.plugin.jasypt.vcs;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vcs.CheckinProjectPanel;
+import com.intellij.openapi.vcs.checkin.CheckinHandler;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.util.text.StringUtil;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigFormat;
+import xyz.mwszksnmdys.plugin.jasypt.i18n.JasyptBundle;
+import xyz.mwszksnmdys.plugin.jasypt.settings.JasyptSettings;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 提交前检查本次提交中的配置文件，发现明文标记、疑似明文密钥或无法解密的 ENC() 时询问是否继续提交
+ * 检查有时间预算，超时只提示未检查完，不阻塞提交
+ */
+public class JasyptCheckinHandler extends CheckinHandler {
+    /** 检查的时间预算（毫秒） */
+    private static final long BUDGET_MILLIS = 1500;
+    /** 对话框中最多列出的问题数量 */
+    private static final int MAX_LISTED = 15;
+
+    private final CheckinProjectPanel panel;
+
+    public JasyptCheckinHandler(CheckinProjectPanel panel) {
+        this.panel = panel;
+    }
+
+    @Override
+    public ReturnResult beforeCheckin() {
+        if (!JasyptSettings.getInstance().verifyBeforeCommit) {
+            return ReturnResult.COMMIT;
+        }
+        List<Path> files = new ArrayList<>();
+        for (VirtualFile file : panel.getVirtualFiles()) {
+            if (file.isInLocalFileSystem() && !file.isDirectory() && ConfigFormat.isSupported(file.getName())) {
+                files.add(file.toNioPath());
+            }
+        }
+        if (files.isEmpty()) {
+            return ReturnResult.COMMIT;
+        }
+
+        Project project = panel.getProject();
+        FileDocumentManager.getInstance().saveAllDocuments();
+        CommitSecretChecker.Result[] result = new CommitSecretChecker.Result[1];
+        boolean finished = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> result[0] = CommitSecretChecker.check(files, BUDGET_MILLIS, ProgressManager.getInstance().getProgressIndicator()),
+                JasyptBundle.message("checkin.progress"), true, project);
+        if (!finished || result[0] == null) {
+            // 用户取消检查时照常提交
+            return ReturnResult.COMMIT;
+        }
+        if (result[0].getProblems().isEmpty()) {
+            if (!result[0].isComplete()) {
+                NotificationGroupManager.getInstance()
+                        .getNotificationGroup("Config Processing")
+                        .createNotification(JasyptBundle.message("checkin.incomplete"), NotificationType.WARNING)
+                        .notify(project);
+            }
+            return ReturnResult.COMMIT;
+        }
+
+        int choice = Messages.showOkCancelDialog(project, buildMessage(project, result[0]), JasyptBundle.message("checkin.title"),
+                JasyptBundle.message("checkin.commitAnyway"), JasyptBundle.message("checkin.review"), Messages.getWarningIcon());
+        return choice == Messages.OK ? ReturnResult.COMMIT : ReturnResult.CLOSE_WINDOW;
+    }
+
+    private static String buildMessage(Project project, CommitSecretChecker.Result result) {
+        List<CommitProblem> problems = result.getProblems();
+        StringBuilder message = new StringBuilder(JasyptBundle.message("checkin.found", problems.size())).append("\n\n");
+        Path base = project.getBasePath() == null ? null : Path.of(project.getBasePath());
+        for (int i = 0; i < Math.min(problems.size(), MAX_LISTED); i++) {
+            CommitProblem problem = problems.get(i);
+            Path file = base != null && problem.getFile().startsWith(base) ? base.relativize(problem.getFile()) : problem.getFile();
+            message.append(JasyptBundle.message("checkin.problem", file, String.valueOf(problem.getLine()), problem.getKey(),
+                    JasyptBundle.message("checkin.kind." + problem.getKind().name().toLowerCase()))).append('\n');
+        }
+        if (problems.size() > MAX_LISTED) {
+            message.append(JasyptBundle.message("checkin.more", problems.size() - MAX_LISTED)).append('\n');
+        }
+        if (!result.isComplete()) {
+            message.append('\n').append(JasyptBundle.message("checkin.incomplete"));
+        }
+        return StringUtil.trimTrailing(message.toString());
+    }
+}
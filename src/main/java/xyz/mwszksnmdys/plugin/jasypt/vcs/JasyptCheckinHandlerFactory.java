@@ -0,0 +1,18 @@
+package xyz.mwszksnmdys.plugin.jasypt.vcs;
+
+import com.intellij.openapi.vcs.CheckinProjectPanel;
+import com.intellij.openapi.vcs.changes.CommitContext;
+import com.intellij.openapi.vcs.checkin.CheckinHandler;
+import com.intellij.openapi.vcs.checkin.CheckinHandlerFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 注册提交前检查，仅在 IDE 带有 VCS 支持时加载（见 jasypt-vcs.xml）
+ */
+public class JasyptCheckinHandlerFactory extends CheckinHandlerFactory {
+
+    @Override
+    public @NotNull CheckinHandler createHandler(@NotNull CheckinProjectPanel panel, @NotNull CommitContext commitContext) {
+        return new JasyptCheckinHandler(panel);
+    }
+}
@@ -0,0 +1,55 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON 格式的文件名、转义与键路径
+ */
+public class JsonConfigFormatTest extends TestCase {
+    private final JsonConfigFormat format = new JsonConfigFormat();
+
+    public void testAcceptsOnlySpringConfigNames() {
+        assertTrue(format.accepts("application.json"));
+        assertTrue(format.accepts("application-dev.JSON"));
+        assertTrue(format.accepts("bootstrap.json"));
+        assertFalse(format.accepts("package.json"));
+        assertFalse(format.accepts("tsconfig.json"));
+        assertFalse(format.accepts("application.yml"));
+    }
+
+    public void testRangesExcludeQuotesAndEntriesDecodeEscapes() {
+        String content = "{\"spring\": {\"datasource\": {\"password\": \"ENC(a\\\"b\\\\c)\", \"port\": 5432}},\n"
+                + " \"note\": \"line\\nnext\\t\\u00e9\"}";
+        List<TextRange> ranges = format.findValueRanges(content);
+        assertEquals(2, ranges.size());
+        assertEquals("ENC(a\\\"b\\\\c)", ranges.get(0).substring(content));
+
+        List<ConfigEntry> entries = format.findEntries(content);
+        assertEquals(3, entries.size());
+        assertEquals("spring.datasource.password", entries.get(0).getKey());
+        assertEquals("ENC(a\"b\\c)", entries.get(0).getValue());
+        assertEquals("spring.datasource.port", entries.get(1).getKey());
+        assertEquals("5432", entries.get(1).getValue());
+        assertEquals("note", entries.get(2).getKey());
+        assertEquals("line\nnext\té", entries.get(2).getValue());
+    }
+
+    public void testArrayElementsAreIndexed() {
+        List<Map<String, String>> documents = format.parseDocuments("{\"spring\": {\"config\": {\"import\": [\"a.yml\", \"b.yml\"]}}}");
+        assertEquals(1, documents.size());
+        assertEquals("a.yml", documents.get(0).get("spring.config.import[0]"));
+        assertEquals("b.yml", documents.get(0).get("spring.config.import[1]"));
+    }
+
+    public void testEncodeRoundTrip() {
+        String value = "quote\" slash\\ newline\n tab\t control\u0001";
+        String raw = format.encodeValue(value);
+        assertFalse(raw.contains("\n"));
+        assertFalse(raw.contains("\u0001"));
+        assertEquals(value, format.decodeValue(raw));
+    }
+}
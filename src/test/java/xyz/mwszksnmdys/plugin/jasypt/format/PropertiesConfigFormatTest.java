@@ -0,0 +1,59 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * properties 格式的值范围与多文档解析
+ */
+public class PropertiesConfigFormatTest extends TestCase {
+    private final PropertiesConfigFormat format = new PropertiesConfigFormat();
+
+    public void testValueRangesSkipKeysAndComments() {
+        String content = "# password=ENC(comment)\n"
+                + "spring.datasource.password = ENC(abc)\n"
+                + "! ENC(bang)\n"
+                + "jasypt.encryptor.password:secret\n"
+                + "empty=\n";
+        List<TextRange> ranges = format.findValueRanges(content);
+        assertEquals(2, ranges.size());
+        assertEquals("ENC(abc)", ranges.get(0).substring(content));
+        assertEquals("secret", ranges.get(1).substring(content));
+    }
+
+    public void testEntriesUnescapeKeysAndFollowContinuations() {
+        String content = "my\\ key=ENC(a\\\n    b)\r\nnext=value";
+        List<ConfigEntry> entries = format.findEntries(content);
+        assertEquals(2, entries.size());
+        assertEquals("my key", entries.get(0).getKey());
+        assertEquals("ENC(a\\\n    b)", entries.get(0).getValue());
+        assertEquals("next", entries.get(1).getKey());
+        assertEquals("value", entries.get(1).getRange().substring(content));
+    }
+
+    public void testDocumentSeparators() throws Exception {
+        String content = "jasypt.encryptor.password=one\n"
+                + "#---\n"
+                + "spring.config.activate.on-profile=dev\n"
+                + "jasypt.encryptor.password=two\n"
+                + "!---\n"
+                + "# 空文档\n"
+                + "#---\n"
+                + "key=three\n";
+        List<Map<String, String>> documents = format.parseDocuments(content);
+        assertEquals(3, documents.size());
+        assertEquals("one", documents.get(0).get("jasypt.encryptor.password"));
+        assertEquals("dev", documents.get(1).get("spring.config.activate.on-profile"));
+        assertEquals("two", documents.get(1).get("jasypt.encryptor.password"));
+        assertEquals("three", documents.get(2).get("key"));
+    }
+
+    public void testSeparatorMustBeWholeLine() throws Exception {
+        List<Map<String, String>> documents = format.parseDocuments("a=1\n#--- not a separator\nb=2\n");
+        assertEquals(1, documents.size());
+        assertEquals("2", documents.get(0).get("b"));
+    }
+}
@@ -0,0 +1,58 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TOML 格式的文件名、表、键和值范围
+ */
+public class TomlConfigFormatTest extends TestCase {
+    private final TomlConfigFormat format = new TomlConfigFormat();
+
+    public void testAcceptsOnlySpringConfigNames() {
+        assertTrue(format.accepts("application.toml"));
+        assertTrue(format.accepts("bootstrap-prod.toml"));
+        assertFalse(format.accepts("Cargo.toml"));
+        assertFalse(format.accepts("pyproject.toml"));
+    }
+
+    public void testTablesAndDottedKeys() {
+        String content = "# password = \"ENC(comment)\"\n"
+                + "[spring.datasource]\n"
+                + "password = \"ENC(abc)\" # 注释\n"
+                + "\"user-name\" = 'root'\n"
+                + "[jasypt]\n"
+                + "encryptor.algorithm = \"PBEWithMD5AndDES\"\n"
+                + "pool = 2\n";
+        List<ConfigEntry> entries = format.findEntries(content);
+        assertEquals(4, entries.size());
+        assertEquals("spring.datasource.password", entries.get(0).getKey());
+        assertEquals("\"ENC(abc)\"", entries.get(0).getRange().substring(content));
+        assertEquals("ENC(abc)", entries.get(0).getValue());
+        assertEquals("spring.datasource.user-name", entries.get(1).getKey());
+        assertEquals("root", entries.get(1).getValue());
+        assertEquals("jasypt.encryptor.algorithm", entries.get(2).getKey());
+        assertEquals("PBEWithMD5AndDES", entries.get(2).getValue());
+        assertEquals("jasypt.pool", entries.get(3).getKey());
+        assertEquals("2", entries.get(3).getValue());
+    }
+
+    public void testMultilineStringsAndArrays() {
+        String content = "text = \"\"\"\nENC(multi)\n\"\"\"\n"
+                + "imports = [\n  \"a.toml\", # 注释\n  \"b.toml\"\n]\n"
+                + "after = \"ENC(x)\"\n";
+        List<TextRange> ranges = format.findValueRanges(content);
+        assertEquals(3, ranges.size());
+        assertEquals("\"\"\"\nENC(multi)\n\"\"\"", ranges.get(0).substring(content));
+        assertTrue(ranges.get(1).substring(content).startsWith("["));
+        assertTrue(ranges.get(1).substring(content).endsWith("]"));
+        assertEquals("\"ENC(x)\"", ranges.get(2).substring(content));
+
+        Map<String, String> document = format.parseDocuments(content).get(0);
+        assertEquals("\nENC(multi)\n", document.get("text"));
+        assertEquals("ENC(x)", document.get("after"));
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.mwszksnmdys.plugin.jasypt.format;
+
+import com.intellij.openapi.util.TextRange;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XML 格式的文件名、实体与 CDATA
+ */
+public class XmlConfigFormatTest extends TestCase {
+    private final XmlConfigFormat format = new XmlConfigFormat();
+
+    public void testAcceptsOnlyConfigNames() {
+        assertTrue(format.accepts("application.xml"));
+        assertTrue(format.accepts("bootstrap-dev.xml"));
+        assertTrue(format.accepts("settings.properties.xml"));
+        assertFalse(format.accepts("pom.xml"));
+        assertFalse(format.accepts("logback.xml"));
+    }
+
+    public void testCdataIsVerbatim() {
+        String content = "<?xml version=\"1.0\"?>\n"
+                + "<config>\n"
+                + "  <jasypt><encryptor><password><![CDATA[a<b&c]]></password></encryptor></jasypt>\n"
+                + "  <spring><datasource><password>ENC(x&amp;y)</password></datasource></spring>\n"
+                + "</config>";
+        List<ConfigEntry> entries = format.findEntries(content);
+        assertEquals(2, entries.size());
+
+        ConfigEntry cdata = entries.get(0);
+        assertEquals("a<b&c", cdata.getRange().substring(content));
+        assertEquals("a<b&c", cdata.getValue());
+        assertTrue(format.isVerbatim(content, cdata.getRange()));
+
+        ConfigEntry escaped = entries.get(1);
+        assertEquals("ENC(x&amp;y)", escaped.getRange().substring(content));
+        assertEquals("ENC(x&y)", escaped.getValue());
+        assertFalse(format.isVerbatim(content, escaped.getRange()));
+        assertEquals("spring.datasource.password", escaped.getKey());
+    }
+
+    public void testEntryKeysAndEncodeRoundTrip() {
+        String content = "<properties><entry key=\"jasypt.encryptor.password\">s&lt;1</entry></properties>";
+        List<TextRange> ranges = format.findValueRanges(content);
+        assertEquals(1, ranges.size());
+        Map<String, String> document = format.parseDocuments(content).get(0);
+        assertEquals("s<1", document.get("jasypt.encryptor.password"));
+
+        String value = "<a & \"b\">";
+        assertEquals(value, format.decodeValue(format.encodeValue(value)));
+    }
+}
@@ -0,0 +1,216 @@
+package xyz.mwszksnmdys.plugin.jasypt.perf;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.io.NioFiles;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigBatchProcessor;
+import xyz.mwszksnmdys.plugin.jasypt.util.ConfigResolver;
+import xyz.mwszksnmdys.plugin.jasypt.util.DecryptionCache;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 端到端性能基准
+ * 为每个场景生成合成项目，按右键菜单的完整流程（VFS 遍历、预扫描、Document 写回、EDT 写操作、进度更新、VFS 刷新）
+ * 先加密再解密一遍，记录墙钟时间、EDT 阻塞时间和堆内存峰值并与预算比较
+ */
+public class PerfHarness {
+    private static final Logger logger = LoggerFactory.getLogger(PerfHarness.class);
+
+    private PerfHarness() {
+    }
+
+    /**
+     * 运行单个场景
+     * @param project 当前项目，Document 写回和排除目录判断依赖项目
+     * @param indicator 进度指示器
+     * @param scenario 场景
+     * @return 加密和解密两轮的结果
+     * @throws IOException 生成或清理合成项目失败
+     */
+    public static @NotNull List<PerfResult> run(@Nullable Project project, @NotNull ProgressIndicator indicator,
+                                                @NotNull PerfScenario scenario) throws IOException {
+        Path root = Files.createTempDirectory("jasypt-perf-" + scenario.getName() + "-");
+        List<Document> documents = new ArrayList<>();
+        try {
+            List<Path> files = SyntheticProjectGenerator.generate(root, scenario);
+            VirtualFile rootFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(root);
+            if (rootFile == null) {
+                throw new IOException("Cannot find generated project in VFS: " + root);
+            }
+            VfsUtil.markDirtyAndRefresh(false, true, true, rootFile);
+            loadDocuments(files, scenario.getDocumentRatio(), documents);
+            ConfigResolver.clearCache();
+            // 每个场景都从冷缓存开始，解密不命中之前的结果
+            DecryptionCache.getInstance().purge();
+
+            List<PerfResult> results = new ArrayList<>();
+            results.add(measure(scenario, "encrypt", files.size(), project, indicator, rootFile));
+            results.add(measure(scenario, "decrypt", files.size(), project, indicator, rootFile));
+            return results;
+        } finally {
+            // 保持对 Document 的引用直到运行结束，避免其在运行期间被回收
+            documents.clear();
+            NioFiles.deleteRecursively(root);
+            LocalFileSystem.getInstance().refreshNioFiles(List.of(root));
+        }
+    }
+
+    /**
+     * 预先为部分文件加载 Document，使其走 Document 写回路径
+     */
+    private static void loadDocuments(List<Path> files, double ratio, List<Document> documents) {
+        int count = (int) Math.round(files.size() * ratio);
+        for (int i = 0; i < count; i++) {
+            VirtualFile file = LocalFileSystem.getInstance().findFileByNioFile(files.get(i));
+            if (file != null) {
+                Document document = ReadAction.compute(() -> FileDocumentManager.getInstance().getDocument(file));
+                if (document != null) {
+                    documents.add(document);
+                }
+            }
+        }
+    }
+
+    private static PerfResult measure(PerfScenario scenario, String pass, int fileCount, @Nullable Project project,
+                                      ProgressIndicator indicator, VirtualFile root) {
+        System.gc();
+        try (Monitor monitor = new Monitor()) {
+            long start = System.nanoTime();
+            ConfigBatchProcessor.process(project, indicator, new VirtualFile[]{root});
+            long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            PerfResult result = new PerfResult(scenario, pass, fileCount, wallMillis,
+                    TimeUnit.NANOSECONDS.toMillis(monitor.edtBlockedNanos.get()), monitor.heapGrowthMb());
+            logger.info("Perf {}", result);
+            return result;
+        }
+    }
+
+    /**
+     * 运行期间定期采样：向 EDT 投递探针并累计超过阈值的响应延迟，同时记录堆内存峰值
+     */
+    private static class Monitor implements AutoCloseable {
+        private static final long SAMPLE_MILLIS = 20;
+        private static final long FREEZE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        private final AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        private final AtomicLong edtBlockedNanos = new AtomicLong();
+        private final AtomicBoolean probePending = new AtomicBoolean();
+        private final ScheduledFuture<?> sampler;
+
+        private Monitor() {
+            sampler = AppExecutorUtil.getAppScheduledExecutorService()
+                    .scheduleWithFixedDelay(this::sample, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            peakHeap.accumulateAndGet(used, Math::max);
+            if (probePending.compareAndSet(false, true)) {
+                long posted = System.nanoTime();
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    long latency = System.nanoTime() - posted;
+                    if (latency > FREEZE_THRESHOLD_NANOS) {
+                        edtBlockedNanos.addAndGet(latency);
+                    }
+                    probePending.set(false);
+                }, ModalityState.any());
+            }
+        }
+
+        private long heapGrowthMb() {
+            return Math.max(0, peakHeap.get() - baselineHeap) / (1024 * 1024);
+        }
+
+        @Override
+        public void close() {
+            sampler.cancel(false);
+        }
+    }
+
+    /**
+     * 单轮运行的结果
+     */
+    public static class PerfResult {
+        private final PerfScenario scenario;
+        private final String pass;
+        private final int files;
+        private final long wallMillis;
+        private final long edtBlockedMillis;
+        private final long heapMb;
+
+        private PerfResult(PerfScenario scenario, String pass, int files, long wallMillis, long edtBlockedMillis, long heapMb) {
+            this.scenario = scenario;
+            this.pass = pass;
+            this.files = files;
+            this.wallMillis = wallMillis;
+            this.edtBlockedMillis = edtBlockedMillis;
+            this.heapMb = heapMb;
+        }
+
+        public PerfScenario getScenario() {
+            return scenario;
+        }
+
+        public String getPass() {
+            return pass;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getWallMillis() {
+            return wallMillis;
+        }
+
+        public long getEdtBlockedMillis() {
+            return edtBlockedMillis;
+        }
+
+        public long getHeapMb() {
+            return heapMb;
+        }
+
+        /**
+         * @return 各项指标是否都在预算内
+         */
+        public boolean isWithinBudget() {
+            return wallMillis <= scenario.getWallMillisBudget()
+                    && edtBlockedMillis <= scenario.getEdtMillisBudget()
+                    && heapMb <= scenario.getHeapMbBudget();
+        }
+
+        @Override
+        public String toString() {
+            return scenario.getName() + " " + pass + ": " + files + " files, wall " + wallMillis + "/" + scenario.getWallMillisBudget()
+                    + " ms, EDT blocked " + edtBlockedMillis + "/" + scenario.getEdtMillisBudget()
+                    + " ms, heap +" + heapMb + "/" + scenario.getHeapMbBudget() + " MB";
+        }
+    }
+}
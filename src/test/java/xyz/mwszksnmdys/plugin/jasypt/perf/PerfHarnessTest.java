@@ -0,0 +1,35 @@
+package xyz.mwszksnmdys.plugin.jasypt.perf;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.testFramework.HeavyPlatformTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 端到端性能基准：在真实文件系统上的合成项目中运行 /perf/budgets.properties 中的所有场景，任一指标超出预算即失败
+ * 结果受机器负载影响，默认的 test/check 不运行，使用 ./gradlew test -Pperf --tests '*PerfHarnessTest' 单独运行
+ */
+public class PerfHarnessTest extends HeavyPlatformTestCase {
+
+    /**
+     * 批处理会在 EDT 中写回 Document，基准同时测量 EDT 的响应延迟，不能在 EDT 中运行
+     */
+    @Override
+    protected boolean runInDispatchThread() {
+        return false;
+    }
+
+    public void testScenariosWithinBudget() throws Exception {
+        List<PerfHarness.PerfResult> results = new ArrayList<>();
+        for (PerfScenario scenario : PerfScenario.loadAll()) {
+            results.addAll(PerfHarness.run(getProject(), new EmptyProgressIndicator(), scenario));
+        }
+        String overBudget = results.stream()
+                .filter(result -> !result.isWithinBudget())
+                .map(PerfHarness.PerfResult::toString)
+                .collect(Collectors.joining("\n"));
+        assertTrue("Scenarios over budget:\n" + overBudget, overBudget.isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.mwszksnmdys.plugin.jasypt.perf;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 性能基准场景：合成项目的规模及各项指标的预算，定义在 /perf/budgets.properties 中
+ */
+public class PerfScenario {
+    private static final String BUDGETS_RESOURCE = "/perf/budgets.properties";
+
+    private final String name;
+    private final int modules;
+    private final int filesPerModule;
+    private final int valuesPerFile;
+    private final double documentRatio;
+    private final long wallMillisBudget;
+    private final long edtMillisBudget;
+    private final long heapMbBudget;
+
+    private PerfScenario(String name, Properties properties) {
+        this.name = name;
+        this.modules = Integer.parseInt(properties.getProperty(name + ".modules", "1"));
+        this.filesPerModule = Integer.parseInt(properties.getProperty(name + ".files", "1"));
+        this.valuesPerFile = Integer.parseInt(properties.getProperty(name + ".values", "1"));
+        this.documentRatio = Double.parseDouble(properties.getProperty(name + ".documents", "0"));
+        this.wallMillisBudget = Long.parseLong(properties.getProperty(name + ".wallMillis", String.valueOf(Long.MAX_VALUE)));
+        this.edtMillisBudget = Long.parseLong(properties.getProperty(name + ".edtMillis", String.valueOf(Long.MAX_VALUE)));
+        this.heapMbBudget = Long.parseLong(properties.getProperty(name + ".heapMb", String.valueOf(Long.MAX_VALUE)));
+    }
+
+    /**
+     * 读取所有场景
+     * @return 按 scenarios 中的顺序排列的场景
+     * @throws IOException 预算文件无法读取
+     */
+    public static @NotNull List<PerfScenario> loadAll() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = PerfScenario.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (input == null) {
+                throw new IOException("Missing resource " + BUDGETS_RESOURCE);
+            }
+            properties.load(input);
+        }
+        List<PerfScenario> scenarios = new ArrayList<>();
+        for (String name : properties.getProperty("scenarios", "").split(",")) {
+            if (!name.isBlank()) {
+                scenarios.add(new PerfScenario(name.trim(), properties));
+            }
+        }
+        return scenarios;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getModules() {
+        return modules;
+    }
+
+    public int getFilesPerModule() {
+        return filesPerModule;
+    }
+
+    public int getValuesPerFile() {
+        return valuesPerFile;
+    }
+
+    /**
+     * @return 运行前预先加载 Document 的文件比例，这些文件通过 Document 和写操作改写
+     */
+    public double getDocumentRatio() {
+        return documentRatio;
+    }
+
+    public long getWallMillisBudget() {
+        return wallMillisBudget;
+    }
+
+    public long getEdtMillisBudget() {
+        return edtMillisBudget;
+    }
+
+    public long getHeapMbBudget() {
+        return heapMbBudget;
+    }
+}
@@ -0,0 +1,75 @@
+package xyz.mwszksnmdys.plugin.jasypt.perf;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成合成的多模块项目
+ * 每个模块包含 pom.xml、声明 jasypt 配置的 application.yml，以及交替使用 YAML 和 Properties 格式的 application-N 配置文件，
+ * 所有值以 ENC(明文) 的形式写入，第一次处理时全部加密，第二次处理时全部解密
+ */
+public class SyntheticProjectGenerator {
+    static final String PASSWORD = "perf-harness-password";
+
+    private SyntheticProjectGenerator() {
+    }
+
+    /**
+     * 生成合成项目
+     * @param root 项目根目录，必须为空或不存在
+     * @param scenario 场景
+     * @return 生成的配置文件
+     * @throws IOException 写入失败
+     */
+    public static @NotNull List<Path> generate(@NotNull Path root, @NotNull PerfScenario scenario) throws IOException {
+        Files.createDirectories(root);
+        Files.writeString(root.resolve("pom.xml"), "<project><artifactId>jasypt-perf</artifactId><packaging>pom</packaging></project>\n",
+                StandardCharsets.UTF_8);
+
+        List<Path> files = new ArrayList<>();
+        for (int module = 0; module < scenario.getModules(); module++) {
+            Path moduleDir = root.resolve("module-" + module);
+            Path resources = Files.createDirectories(moduleDir.resolve("src/main/resources"));
+            Files.writeString(moduleDir.resolve("pom.xml"), "<project><artifactId>module-" + module + "</artifactId></project>\n",
+                    StandardCharsets.UTF_8);
+
+            Path application = resources.resolve("application.yml");
+            Files.writeString(application, "jasypt:\n  encryptor:\n    password: " + PASSWORD + "\n", StandardCharsets.UTF_8);
+
+            for (int file = 0; file < scenario.getFilesPerModule(); file++) {
+                boolean yaml = file % 2 == 0;
+                Path path = resources.resolve("application-" + file + (yaml ? ".yml" : ".properties"));
+                Files.writeString(path, yaml ? yamlContent(module, file, scenario.getValuesPerFile())
+                        : propertiesContent(module, file, scenario.getValuesPerFile()), StandardCharsets.UTF_8);
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    private static String yamlContent(int module, int file, int values) {
+        StringBuilder content = new StringBuilder("perf:\n  values:\n");
+        for (int i = 0; i < values; i++) {
+            content.append("    key-").append(i).append(": ENC(").append(plainValue(module, file, i)).append(")\n");
+        }
+        return content.toString();
+    }
+
+    private static String propertiesContent(int module, int file, int values) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < values; i++) {
+            content.append("perf.values.key-").append(i).append("=ENC(").append(plainValue(module, file, i)).append(")\n");
+        }
+        return content.toString();
+    }
+
+    private static String plainValue(int module, int file, int index) {
+        return "secret-" + module + "-" + file + "-" + index;
+    }
+}
@@ -0,0 +1,153 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.intellij.util.io.NioFiles;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 文件加密格式的往返与篡改检测
+ */
+public class FileCryptorTest extends BasePlatformTestCase {
+    private static final int CHUNK_SIZE = 1024;
+    /** 文件头长度：魔数 + 版本 + 分块大小 + 迭代次数 + 盐 + nonce 种子 */
+    private static final int HEADER_LENGTH = 8 + 1 + 4 + 4 + 16 + 4;
+    private static final int TAG_LENGTH = 16;
+
+    private Path dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = Files.createTempDirectory("jasypt-file-cryptor");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            NioFiles.deleteRecursively(dir);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testRoundTripAcrossChunkBoundaries() throws IOException {
+        for (int size : new int[]{0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE * 3, CHUNK_SIZE * 3 + 17}) {
+            byte[] data = randomBytes(size);
+            Path source = write("data-" + size + ".bin", data);
+            FileCryptor cryptor = new FileCryptor("secret", CHUNK_SIZE);
+
+            Path encrypted = cryptor.process(source, false, null);
+            assertEquals(source.getFileName() + FileCryptor.ENCRYPTED_EXTENSION, encrypted.getFileName().toString());
+            assertTrue(FileCryptor.isEncryptedFile(encrypted));
+
+            Path decrypted = dir.resolve("decrypted-" + size + ".bin");
+            cryptor.decrypt(encrypted, decrypted, false, null);
+            assertTrue("size " + size, Arrays.equals(data, Files.readAllBytes(decrypted)));
+        }
+    }
+
+    public void testWrongPasswordFailsWithoutTarget() throws IOException {
+        Path encrypted = encrypt(randomBytes(CHUNK_SIZE * 2));
+        Path target = dir.resolve("plain.bin");
+        assertDecryptFails(new FileCryptor("other", CHUNK_SIZE), encrypted, target);
+    }
+
+    public void testTamperedChunkFails() throws IOException {
+        Path encrypted = encrypt(randomBytes(CHUNK_SIZE * 3));
+        byte[] bytes = Files.readAllBytes(encrypted);
+        bytes[HEADER_LENGTH + CHUNK_SIZE + TAG_LENGTH + 5] ^= 1;
+        Files.write(encrypted, bytes);
+        assertDecryptFails(new FileCryptor("secret", CHUNK_SIZE), encrypted, dir.resolve("plain.bin"));
+    }
+
+    public void testTamperedHeaderFails() throws IOException {
+        Path encrypted = encrypt(randomBytes(CHUNK_SIZE));
+        byte[] bytes = Files.readAllBytes(encrypted);
+        // 修改 nonce 种子，文件头参与认证
+        bytes[HEADER_LENGTH - 1] ^= 1;
+        Files.write(encrypted, bytes);
+        assertDecryptFails(new FileCryptor("secret", CHUNK_SIZE), encrypted, dir.resolve("plain.bin"));
+    }
+
+    public void testTruncatedAtChunkBoundaryFails() throws IOException {
+        Path encrypted = encrypt(randomBytes(CHUNK_SIZE * 3));
+        try (FileChannel channel = FileChannel.open(encrypted, StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_LENGTH + 2L * (CHUNK_SIZE + TAG_LENGTH));
+        }
+        assertDecryptFails(new FileCryptor("secret", CHUNK_SIZE), encrypted, dir.resolve("plain.bin"));
+    }
+
+    public void testSwappedChunksFail() throws IOException {
+        Path encrypted = encrypt(randomBytes(CHUNK_SIZE * 3));
+        byte[] bytes = Files.readAllBytes(encrypted);
+        int length = CHUNK_SIZE + TAG_LENGTH;
+        byte[] first = Arrays.copyOfRange(bytes, HEADER_LENGTH, HEADER_LENGTH + length);
+        System.arraycopy(bytes, HEADER_LENGTH + length, bytes, HEADER_LENGTH, length);
+        System.arraycopy(first, 0, bytes, HEADER_LENGTH + length, length);
+        Files.write(encrypted, bytes);
+        assertDecryptFails(new FileCryptor("secret", CHUNK_SIZE), encrypted, dir.resolve("plain.bin"));
+    }
+
+    public void testExistingTargetIsNotOverwritten() throws IOException {
+        Path source = write("keystore.p12", randomBytes(100));
+        byte[] existing = "newer edits".getBytes();
+        Path target = write("keystore.p12" + FileCryptor.ENCRYPTED_EXTENSION, existing);
+        FileCryptor cryptor = new FileCryptor("secret", CHUNK_SIZE);
+
+        try {
+            cryptor.process(source, false, null);
+            fail("existing target must not be overwritten");
+        } catch (FileAlreadyExistsException expected) {
+            // 预期
+        }
+        assertTrue(Arrays.equals(existing, Files.readAllBytes(target)));
+
+        assertEquals(target, cryptor.process(source, true, null));
+        assertTrue(FileCryptor.isEncryptedFile(target));
+        assertEquals(2, countFiles());
+    }
+
+    private Path encrypt(byte[] data) throws IOException {
+        return new FileCryptor("secret", CHUNK_SIZE).process(write("plain.bin", data), false, null);
+    }
+
+    private void assertDecryptFails(FileCryptor cryptor, Path encrypted, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            cryptor.decrypt(encrypted, target, false, null);
+            fail("decryption must fail for " + encrypted);
+        } catch (IOException expected) {
+            // 预期
+        }
+        assertFalse(Files.exists(target));
+        // 失败时不残留临时文件
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private Path write(String name, byte[] data) throws IOException {
+        return Files.write(dir.resolve(name), data);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
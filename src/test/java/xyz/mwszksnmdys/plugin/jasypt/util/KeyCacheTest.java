@@ -0,0 +1,46 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密钥缓存的容量上限与过期
+ */
+public class KeyCacheTest extends TestCase {
+
+    public void testEvictsLeastRecentlyUsed() {
+        KeyCache<String> cache = new KeyCache<>(2, TimeUnit.MINUTES.toMillis(30));
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", () -> "a" + loads.incrementAndGet());
+        cache.get("b", () -> "b" + loads.incrementAndGet());
+        // 访问 a 后 b 成为最久未使用的条目
+        assertEquals("a1", cache.get("a", () -> "a" + loads.incrementAndGet()));
+        cache.get("c", () -> "c" + loads.incrementAndGet());
+
+        assertEquals("a1", cache.get("a", () -> "a" + loads.incrementAndGet()));
+        assertEquals("b4", cache.get("b", () -> "b" + loads.incrementAndGet()));
+        assertEquals(4, loads.get());
+    }
+
+    public void testExpiredEntriesAreReloaded() {
+        KeyCache<String> cache = new KeyCache<>(16, 0);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", () -> "a" + loads.incrementAndGet());
+        assertEquals("a2", cache.get("a", () -> "a" + loads.incrementAndGet()));
+    }
+
+    public void testFailedLoadIsNotCached() {
+        KeyCache<String> cache = new KeyCache<>(16, TimeUnit.MINUTES.toMillis(30));
+        try {
+            cache.get("a", () -> {
+                throw new IllegalArgumentException("bad key");
+            });
+            fail("loader exception must propagate");
+        } catch (IllegalArgumentException expected) {
+            // 预期
+        }
+        assertEquals("a", cache.get("a", () -> "a"));
+    }
+}
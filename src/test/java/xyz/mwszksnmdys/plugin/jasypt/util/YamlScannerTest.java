@@ -0,0 +1,53 @@
+package xyz.mwszksnmdys.plugin.jasypt.util;
+
+import com.intellij.openapi.util.TextRange;
+import junit.framework.TestCase;
+import xyz.mwszksnmdys.plugin.jasypt.format.ConfigEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * YAML 扫描的值范围，SnakeYAML 按码点计数，范围需要换算为 UTF-16 偏移
+ */
+public class YamlScannerTest extends TestCase {
+
+    public void testRangesAfterSupplementaryCharacters() {
+        String content = "# 注释 😀😀\n"
+                + "title: \"🚀 rocket\"\n"
+                + "spring:\n"
+                + "  datasource:\n"
+                + "    password: ENC(abc)\n"
+                + "    username: \"ENC(🔑)\"\n";
+        List<TextRange> ranges = YamlScanner.scan(content).getEncRanges();
+        assertEquals(2, ranges.size());
+        assertEquals("ENC(abc)", ranges.get(0).substring(content));
+        assertEquals("\"ENC(🔑)\"", ranges.get(1).substring(content));
+
+        List<ConfigEntry> entries = YamlScanner.scanEntries(content);
+        assertEquals(3, entries.size());
+        assertEquals("\"🚀 rocket\"", entries.get(0).getRange().substring(content));
+        assertEquals("spring.datasource.password", entries.get(1).getKey());
+        assertEquals("ENC(abc)", entries.get(1).getRange().substring(content));
+        assertEquals("ENC(🔑)", entries.get(2).getValue());
+    }
+
+    public void testRangesAcrossDocuments() {
+        String content = "a: \"😀\"\n---\nb: ENC(second)\n";
+        List<TextRange> ranges = YamlScanner.scan(content).getEncRanges();
+        assertEquals(1, ranges.size());
+        assertEquals("ENC(second)", ranges.get(0).substring(content));
+    }
+
+    public void testJasyptConfigAndDocuments() {
+        String content = "jasypt:\n  encryptor:\n    password: one\n---\n"
+                + "spring:\n  config:\n    import:\n      - a.yml\n      - b.yml\n";
+        Map<String, Object> config = YamlScanner.scanJasyptConfig(content);
+        assertNotNull(config);
+        assertEquals("one", ((Map<?, ?>) config.get("encryptor")).get("password"));
+
+        List<Map<String, String>> documents = YamlScanner.scanDocuments(content);
+        assertEquals(2, documents.size());
+        assertEquals("b.yml", documents.get(1).get("spring.config.import[1]"));
+    }
+}